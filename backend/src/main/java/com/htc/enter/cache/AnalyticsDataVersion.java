@@ -0,0 +1,106 @@
+package com.htc.enter.cache;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.htc.enter.event.EpicChangedEvent;
+import com.htc.enter.event.ProjectChangedEvent;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.TimeLogChangedEvent;
+import com.htc.enter.model.DataVersion;
+import com.htc.enter.repository.DataVersionRepository;
+import com.htc.enter.serviceimpl.CounterRowUpserter;
+
+/**
+ * Monotonic counter bumped after every committed story, project, epic or time log write.
+ * Cached analytics results remember the version they were computed at;
+ * a newer version means the result may be out of date.
+ *
+ * Local writes count immediately. Writes on other nodes arrive through the
+ * shared ewt_data_version row: every analytics.version.sync-ms each node adds
+ * its pending writes to the row and reads the total back, so another node's
+ * write is seen within that interval (by default the same as the cache's
+ * max-staleness).
+ */
+@Component
+public class AnalyticsDataVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsDataVersion.class);
+
+    private static final String NAME = "analytics";
+
+    private final DataVersionRepository versionRepository;
+    private final CounterRowUpserter counterRows;
+
+    private final AtomicLong localWrites = new AtomicLong();
+    private final AtomicLong pendingWrites = new AtomicLong();
+    // Shared total minus what this node contributed: writes made elsewhere
+    private volatile long remoteWrites;
+    private long flushedWrites;
+
+    public AnalyticsDataVersion(DataVersionRepository versionRepository, CounterRowUpserter counterRows) {
+        this.versionRepository = versionRepository;
+        this.counterRows = counterRows;
+    }
+
+    public long current() {
+        return localWrites.get() + remoteWrites;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.version.sync-ms:5000}")
+    public synchronized void sync() {
+        long writes = pendingWrites.getAndSet(0);
+        if (writes > 0) {
+            try {
+                counterRows.apply(
+                    () -> versionRepository.existsById(NAME),
+                    () -> versionRepository.saveAndFlush(new DataVersion(NAME)),
+                    () -> versionRepository.add(NAME, writes, LocalDateTime.now()),
+                    true);
+                flushedWrites += writes;
+            } catch (Exception e) {
+                // Retried with the next sync
+                pendingWrites.addAndGet(writes);
+                log.warn("Could not publish analytics data version: {}", e.getMessage());
+            }
+        }
+        try {
+            long shared = versionRepository.findById(NAME).map(DataVersion::getVersion).orElse(0L);
+            remoteWrites = Math.max(remoteWrites, shared - flushedWrites);
+        } catch (Exception e) {
+            log.warn("Could not read analytics data version: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        recordWrite();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        recordWrite();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEpicChanged(EpicChangedEvent event) {
+        recordWrite();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeLogChanged(TimeLogChangedEvent event) {
+        recordWrite();
+    }
+
+    private void recordWrite() {
+        localWrites.incrementAndGet();
+        pendingWrites.incrementAndGet();
+    }
+}
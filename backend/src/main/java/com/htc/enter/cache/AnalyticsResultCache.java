@@ -0,0 +1,150 @@
+package com.htc.enter.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Result cache for expensive analytics computations.
+ *
+ * - Single flight: concurrent misses for the same key share one computation.
+ * - Refresh ahead: a fresh entry past the refresh point is recomputed in the
+ *   background while callers keep getting the current value.
+ * - Bounded staleness: once the data version moves on, an entry is served
+ *   (while it refreshes) only if it is younger than max-staleness; older
+ *   entries block the caller on a reload. No entry outlives the TTL.
+ * - Bounded size: at most max-entries results are kept, and a key nobody has
+ *   asked for within idle-seconds is dropped, so one-off parameter
+ *   combinations do not pile up.
+ */
+@Component
+public class AnalyticsResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsResultCache.class);
+
+    private final AnalyticsDataVersion dataVersion;
+    private final Executor executor;
+    private final Cache<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long maxStalenessNanos;
+
+    public AnalyticsResultCache(AnalyticsDataVersion dataVersion,
+                                @Qualifier("analyticsExecutor") Executor executor,
+                                @Value("${analytics.cache.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${analytics.cache.refresh-ahead-ratio:0.8}") double refreshAheadRatio,
+                                @Value("${analytics.cache.max-staleness-seconds:5}") long maxStalenessSeconds,
+                                @Value("${analytics.cache.max-entries:1000}") long maxEntries,
+                                @Value("${analytics.cache.idle-seconds:600}") long idleSeconds) {
+        this.dataVersion = dataVersion;
+        this.executor = executor;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.refreshAheadNanos = (long) (ttlNanos * refreshAheadRatio);
+        this.maxStalenessNanos = TimeUnit.SECONDS.toNanos(maxStalenessSeconds);
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            boolean current = entry.version == dataVersion.current();
+            if (current && age < ttlNanos) {
+                hits.incrementAndGet();
+                if (age >= refreshAheadNanos) {
+                    load(key, loader, true);
+                }
+                return (T) entry.value;
+            }
+            if (!current && age < maxStalenessNanos) {
+                staleHits.incrementAndGet();
+                load(key, loader, true);
+                return (T) entry.value;
+            }
+        }
+        try {
+            return (T) load(key, loader, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    /**
+     * Start (or join) the computation for a key. Only the caller that registers
+     * the future runs the loader; everybody else waits on the same future.
+     */
+    private CompletableFuture<Object> load(String key, Supplier<?> loader, boolean background) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable task = () -> {
+            // Read the version before computing so a write that lands mid-computation marks the result stale
+            long version = dataVersion.current();
+            try {
+                Object value = loader.get();
+                entries.put(key, new Entry(value, version, System.nanoTime()));
+                loads.incrementAndGet();
+                created.complete(value);
+            } catch (Throwable t) {
+                if (background) {
+                    log.warn("Background refresh of analytics '{}' failed: {}", key, t.getMessage());
+                }
+                created.completeExceptionally(t);
+            } finally {
+                inflight.remove(key, created);
+            }
+        };
+
+        if (background) {
+            executor.execute(task);
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    private record Entry(Object value, long version, long loadedAt) {
+    }
+}
@@ -42,7 +42,7 @@ public class CacheConfig implements CachingConfigurer {
         manager.setCacheNames(Arrays.asList(
             "projects", "users", "clients", "stories", "epics",
             "slaRules", "projectsByManager", "userSessions", 
-            "lookups", "tasks", "notifications"
+            "lookups", "tasks", "notifications", "weeklyHours"
         ));
         
         manager.setCaffeine(Caffeine.newBuilder()
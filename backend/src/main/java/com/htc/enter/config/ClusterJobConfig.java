@@ -0,0 +1,94 @@
+package com.htc.enter.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.htc.enter.notification.ScheduledNotifier;
+import com.htc.enter.service.ActivityRollupService;
+import com.htc.enter.service.EmailOutboxService;
+import com.htc.enter.service.JobSchedulerService.Job;
+import com.htc.enter.service.JobSchedulerService.JobSource;
+import com.htc.enter.service.ProjectSnapshotService;
+import com.htc.enter.service.SlaComplianceService;
+import com.htc.enter.service.StoryRollupService;
+
+/**
+ * Background jobs whose effects are cluster-wide (notifications, shared
+ * rollup and snapshot tables) and must therefore run on one node only.
+ * Schedules keep their previous property keys and defaults. Node-local work
+ * such as in-memory buffer flushes stays on @Scheduled.
+ *
+ * The lease only bounds how long a crashed node can hold a job; a live node
+ * renews it while the job runs, however long that takes.
+ */
+@Configuration
+public class ClusterJobConfig implements JobSource {
+
+    private final ScheduledNotifier notifier;
+    private final SlaComplianceService slaComplianceService;
+    private final ActivityRollupService activityRollupService;
+    private final StoryRollupService storyRollupService;
+    private final ProjectSnapshotService projectSnapshotService;
+    private final EmailOutboxService emailOutboxService;
+
+    @Value("${jobs.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${notification.sla-check-ms:300000}")
+    private long slaCheckMs;
+
+    @Value("${sla.breach-sweep-ms:300000}")
+    private long breachSweepMs;
+
+    @Value("${sla.rebuild-cron:0 45 0 * * *}")
+    private String slaRebuildCron;
+
+    @Value("${analytics.activity.compaction-cron:0 45 0 * * *}")
+    private String activityCompactionCron;
+
+    @Value("${analytics.rollup.rebuild-cron:0 30 0 * * *}")
+    private String rollupRebuildCron;
+
+    @Value("${analytics.snapshot.cron:0 55 23 * * *}")
+    private String snapshotCron;
+
+    @Value("${email.outbox.dispatch-ms:5000}")
+    private long outboxDispatchMs;
+
+    @Value("${email.outbox.purge-cron:0 15 1 * * *}")
+    private String outboxPurgeCron;
+
+    public ClusterJobConfig(ScheduledNotifier notifier,
+                            SlaComplianceService slaComplianceService,
+                            ActivityRollupService activityRollupService,
+                            StoryRollupService storyRollupService,
+                            ProjectSnapshotService projectSnapshotService,
+                            EmailOutboxService emailOutboxService) {
+        this.notifier = notifier;
+        this.slaComplianceService = slaComplianceService;
+        this.activityRollupService = activityRollupService;
+        this.storyRollupService = storyRollupService;
+        this.projectSnapshotService = projectSnapshotService;
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    @Override
+    public List<Job> jobs() {
+        return List.of(
+            Job.fixedDelay("sla-notifier", Duration.ofMillis(slaCheckMs), lease(), notifier::checkOverdueAndSla),
+            Job.fixedDelay("sla-breach-sweep", Duration.ofMillis(breachSweepMs), lease(), slaComplianceService::markBreaches),
+            Job.cron("sla-compliance-rebuild", slaRebuildCron, lease(), slaComplianceService::rebuild),
+            Job.cron("activity-compaction", activityCompactionCron, lease(), activityRollupService::compact),
+            Job.cron("story-rollup-rebuild", rollupRebuildCron, lease(), storyRollupService::rebuild),
+            Job.cron("project-snapshot", snapshotCron, lease(), projectSnapshotService::captureAll),
+            Job.fixedDelay("email-outbox-dispatch", Duration.ofMillis(outboxDispatchMs), lease(), emailOutboxService::dispatch),
+            Job.cron("email-outbox-purge", outboxPurgeCron, lease(), emailOutboxService::purgeSent));
+    }
+
+    private Duration lease() {
+        return Duration.ofMillis(leaseMs);
+    }
+}
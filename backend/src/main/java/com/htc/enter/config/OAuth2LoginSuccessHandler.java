@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import com.htc.enter.model.User;
 import com.htc.enter.repository.UserRepository;
 import com.htc.enter.serviceimpl.JwtUtil;
+import com.htc.enter.util.NameNormalizer;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -63,8 +64,8 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     }
 
     private User findOrCreateUser(String email, String name, String googleId) {
-        // Try to find user by email
-        Optional<User> existingUser = userRepository.findByEmail(email);
+        // Try to find user by email, ignoring case as the unique normalized_email index does
+        Optional<User> existingUser = userRepository.findByNormalizedEmail(NameNormalizer.normalize(email));
         
         if (existingUser.isPresent()) {
             return existingUser.get();
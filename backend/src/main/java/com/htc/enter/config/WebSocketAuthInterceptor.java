@@ -0,0 +1,88 @@
+package com.htc.enter.config;
+
+import java.security.Principal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.htc.enter.dto.UserPrincipal;
+import com.htc.enter.service.DashboardSnapshotService;
+import com.htc.enter.serviceimpl.CustomUserDetailService;
+import com.htc.enter.serviceimpl.JwtUtil;
+
+/**
+ * The /ws handshake is open (SockJS cannot send headers), so STOMP frames are
+ * checked here instead: CONNECT authenticates the JWT from its Authorization
+ * header, and SUBSCRIBE to a manager's dashboard topic is only allowed for that
+ * manager or an admin. Public topics stay open to anonymous sessions.
+ */
+@Component
+public class WebSocketAuthInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketAuthInterceptor.class);
+
+    // Destinations of DashboardSnapshotService.managerScope
+    private static final String MANAGER_DASHBOARD_PREFIX = "/topic/dashboard/manager-";
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailService userDetailsService;
+
+    public WebSocketAuthInterceptor(JwtUtil jwtUtil, CustomUserDetailService userDetailsService) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            authenticate(accessor);
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            authorizeSubscription(accessor.getDestination(), accessor.getUser());
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String token = jwtUtil.resolveTokenFromHeader(accessor.getFirstNativeHeader("Authorization"));
+        if (token == null) {
+            return;
+        }
+        String username = jwtUtil.getUsernameFromToken(token);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtUtil.validateToken(token, userDetails)) {
+            throw new AccessDeniedException("Invalid or expired token");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        log.debug("WebSocket session authenticated for {}", username);
+    }
+
+    private void authorizeSubscription(String destination, Principal user) {
+        if (destination == null || !destination.startsWith(MANAGER_DASHBOARD_PREFIX)) {
+            return;
+        }
+        if (!(user instanceof UsernamePasswordAuthenticationToken authentication)
+                || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new AccessDeniedException("Authentication required to subscribe to " + destination);
+        }
+        boolean admin = authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        String ownTopic = "/topic/dashboard/" + DashboardSnapshotService.managerScope(principal.getUserInfo().getId());
+        if (!admin && !ownTopic.equals(destination)) {
+            throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+        }
+    }
+}
@@ -1,22 +1,54 @@
 package com.htc.enter.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.htc.enter.cache.AnalyticsResultCache;
+import com.htc.enter.dto.DashboardMetrics;
+import com.htc.enter.model.ProjectSnapshot;
+import com.htc.enter.model.User;
+import com.htc.enter.repository.projection.ClientRanking;
 import com.htc.enter.service.AnalyticsService;
+import com.htc.enter.service.AnalyticsStreamService;
+import com.htc.enter.service.AuditSketchService;
+import com.htc.enter.service.DashboardSnapshotService;
+import com.htc.enter.service.ProjectSnapshotService;
+import com.htc.enter.util.AccessControlUtil;
 
 @RestController
 @RequestMapping("/api/v1/analytics")
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final ProjectSnapshotService projectSnapshotService;
+    private final AnalyticsResultCache analyticsCache;
+    private final AnalyticsStreamService analyticsStreamService;
+    private final AuditSketchService auditSketchService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final AccessControlUtil accessControlUtil;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService,
+                               ProjectSnapshotService projectSnapshotService,
+                               AnalyticsResultCache analyticsCache,
+                               AnalyticsStreamService analyticsStreamService,
+                               AuditSketchService auditSketchService,
+                               DashboardSnapshotService dashboardSnapshotService,
+                               AccessControlUtil accessControlUtil) {
         this.analyticsService = analyticsService;
+        this.projectSnapshotService = projectSnapshotService;
+        this.analyticsCache = analyticsCache;
+        this.analyticsStreamService = analyticsStreamService;
+        this.auditSketchService = auditSketchService;
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.accessControlUtil = accessControlUtil;
     }
 
     /**
@@ -27,14 +59,49 @@ public class AnalyticsController {
      * Requires: Authentication
      * 
      * Returns: Overall system metrics for dashboard
+     * (the latest precomputed snapshot, also pushed to /topic/dashboard/global)
      */
     @GetMapping("/dashboard")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Object>> getDashboardMetrics() {
-        Map<String, Object> metrics = analyticsService.getDashboardMetrics();
+    public ResponseEntity<DashboardMetrics> getDashboardMetrics() {
+        DashboardMetrics metrics = dashboardSnapshotService.getGlobal();
         return ResponseEntity.ok(metrics);
     }
 
+    /**
+     * Get dashboard metrics for the current manager
+     * 
+     * GET /api/v1/analytics/dashboard/manager
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Dashboard metrics over the projects the current user manages
+     * (the latest precomputed snapshot, also pushed to /topic/dashboard/manager-{userId})
+     */
+    @GetMapping("/dashboard/manager")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<DashboardMetrics> getManagerDashboardMetrics() {
+        User currentUser = accessControlUtil.getCurrentUser();
+        DashboardMetrics metrics = dashboardSnapshotService.getForManager(currentUser.getId());
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Live dashboard stream
+     * 
+     * GET /api/v1/analytics/stream
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Server-Sent Events; a "snapshot" of the dashboard metrics on connect,
+     * then coalesced "delta" events (at most one per second) as stories and projects change
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamDashboard() {
+        return analyticsStreamService.subscribe();
+    }
+
     /**
      * Get project analytics
      * 
@@ -51,6 +118,22 @@ public class AnalyticsController {
         return ResponseEntity.ok(analytics);
     }
 
+    /**
+     * Get project summary
+     * 
+     * GET /api/v1/analytics/project/{projectId}/summary
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Project analytics, estimation accuracy, on-time rate and risk analysis in one call
+     */
+    @GetMapping("/project/{projectId}/summary")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getProjectSummary(@PathVariable Long projectId) {
+        Map<String, Object> summary = analyticsService.getProjectSummary(projectId);
+        return ResponseEntity.ok(summary);
+    }
+
     /**
      * Get team analytics
      * 
@@ -63,7 +146,7 @@ public class AnalyticsController {
     @GetMapping("/team")
     @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<Map<String, Object>> getTeamAnalytics() {
-        Map<String, Object> analytics = analyticsService.getTeamAnalytics();
+        Map<String, Object> analytics = analyticsCache.get("team", analyticsService::getTeamAnalytics);
         return ResponseEntity.ok(analytics);
     }
 
@@ -95,7 +178,7 @@ public class AnalyticsController {
     @GetMapping("/workload")
     @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<Map<String, Object>> getWorkloadDistribution() {
-        Map<String, Object> distribution = analyticsService.getWorkloadDistribution();
+        Map<String, Object> distribution = analyticsCache.get("workload", analyticsService::getWorkloadDistribution);
         return ResponseEntity.ok(distribution);
     }
 
@@ -112,7 +195,8 @@ public class AnalyticsController {
     @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getOverloadedUsers(
             @RequestParam(defaultValue = "10") int threshold) {
-        List<Map<String, Object>> overloaded = analyticsService.getOverloadedUsers(threshold);
+        List<Map<String, Object>> overloaded = analyticsCache.get("overloaded:" + threshold,
+            () -> analyticsService.getOverloadedUsers(threshold));
         return ResponseEntity.ok(overloaded);
     }
 
@@ -129,7 +213,8 @@ public class AnalyticsController {
     @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getUnderutilizedUsers(
             @RequestParam(defaultValue = "3") int threshold) {
-        List<Map<String, Object>> underutilized = analyticsService.getUnderutilizedUsers(threshold);
+        List<Map<String, Object>> underutilized = analyticsCache.get("underutilized:" + threshold,
+            () -> analyticsService.getUnderutilizedUsers(threshold));
         return ResponseEntity.ok(underutilized);
     }
 
@@ -180,4 +265,321 @@ public class AnalyticsController {
         Double rate = analyticsService.calculateOnTimeDeliveryRate(projectId);
         return ResponseEntity.ok(rate);
     }
+
+    /**
+     * Get monthly trends
+     * 
+     * GET /api/v1/analytics/trends?months=12
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Stories created, stories approved and hours logged per month
+     */
+    @GetMapping("/trends")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMonthlyTrends(
+            @RequestParam(defaultValue = "12") int months) {
+        Map<String, Object> trends = analyticsService.getMonthlyTrends(months);
+        return ResponseEntity.ok(trends);
+    }
+
+    /**
+     * Get weekly activity
+     * 
+     * GET /api/v1/analytics/activity/weekly
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Day-by-day activity for the last seven days
+     */
+    @GetMapping("/activity/weekly")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getWeeklyActivity() {
+        Map<String, Object> activity = analyticsService.getWeeklyActivity();
+        return ResponseEntity.ok(activity);
+    }
+
+    /**
+     * Get project completion forecast
+     * 
+     * GET /api/v1/analytics/project/{projectId}/forecast
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Monte Carlo P50/P85/P95 completion dates and the chance of meeting the deadline
+     */
+    @GetMapping("/project/{projectId}/forecast")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getCompletionForecast(@PathVariable Long projectId) {
+        Map<String, Object> forecast = analyticsCache.get("forecast:" + projectId,
+            () -> analyticsService.getCompletionForecast(projectId));
+        return ResponseEntity.ok(forecast);
+    }
+
+    /**
+     * Get project burndown
+     * 
+     * GET /api/v1/analytics/project/{projectId}/burndown?days=30
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Daily remaining-work series with velocity and burndown rate
+     */
+    @GetMapping("/project/{projectId}/burndown")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getBurndown(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "30") int days) {
+        Map<String, Object> burndown = analyticsService.getBurndown(projectId, days);
+        return ResponseEntity.ok(burndown);
+    }
+
+    /**
+     * Capture today's project snapshot on demand
+     * 
+     * POST /api/v1/analytics/project/{projectId}/snapshot
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: The refreshed snapshot row
+     */
+    @PostMapping("/project/{projectId}/snapshot")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ProjectSnapshot> captureProjectSnapshot(@PathVariable Long projectId) {
+        ProjectSnapshot snapshot = projectSnapshotService.captureProject(projectId);
+        return ResponseEntity.ok(snapshot);
+    }
+
+    /**
+     * Capture today's snapshot for every project on demand
+     * 
+     * POST /api/v1/analytics/snapshots
+     * 
+     * Requires: Admin role
+     * 
+     * Returns: Number of projects captured
+     */
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> captureAllSnapshots() {
+        int captured = projectSnapshotService.captureAll();
+        return ResponseEntity.ok(Map.of("captured", captured));
+    }
+
+    /**
+     * Predict bottlenecks
+     * 
+     * GET /api/v1/analytics/bottlenecks?daysAhead=30
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Users whose forecast demand exceeds capacity, and the projects with hours at risk
+     */
+    @GetMapping("/bottlenecks")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> predictBottlenecks(
+            @RequestParam(defaultValue = "30") int daysAhead) {
+        List<Map<String, Object>> bottlenecks = analyticsCache.get("bottlenecks:" + daysAhead,
+            () -> analyticsService.predictBottlenecks(daysAhead));
+        return ResponseEntity.ok(bottlenecks);
+    }
+
+    /**
+     * Get top clients
+     * 
+     * GET /api/v1/analytics/clients/top?limit=10
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Clients ranked by project count, then story count
+     */
+    @GetMapping("/clients/top")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<ClientRanking>> getTopClients(@RequestParam(defaultValue = "10") int limit) {
+        List<ClientRanking> clients = analyticsService.getTopClients(limit);
+        return ResponseEntity.ok(clients);
+    }
+
+    /**
+     * Get client metrics
+     * 
+     * GET /api/v1/analytics/client/{clientId}
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Project and story totals for one client
+     */
+    @GetMapping("/client/{clientId}")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getClientMetrics(@PathVariable Long clientId) {
+        Map<String, Object> metrics = analyticsService.getClientMetrics(clientId);
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Get SLA compliance across projects
+     * 
+     * GET /api/v1/analytics/sla
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Tracked, completed and breached SLA counts per project and overall
+     */
+    @GetMapping("/sla")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSLACompliance() {
+        Map<String, Object> compliance = analyticsService.getSLACompliance();
+        return ResponseEntity.ok(compliance);
+    }
+
+    /**
+     * Get project SLA compliance rate
+     * 
+     * GET /api/v1/analytics/project/{projectId}/sla
+     * 
+     * Requires: Authentication
+     * 
+     * Returns: Percentage of SLA evaluations that have not breached
+     */
+    @GetMapping("/project/{projectId}/sla")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Double> getSLAComplianceRate(@PathVariable Long projectId) {
+        Double rate = analyticsService.getSLAComplianceRate(projectId);
+        return ResponseEntity.ok(rate);
+    }
+
+    /**
+     * Get resource utilization
+     * 
+     * GET /api/v1/analytics/utilization
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Logged hours against weekly capacity, per week and per user
+     */
+    @GetMapping("/utilization")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getResourceUtilization() {
+        Map<String, Object> utilization = analyticsService.getResourceUtilization();
+        return ResponseEntity.ok(utilization);
+    }
+
+    /**
+     * Get capacity planning
+     * 
+     * GET /api/v1/analytics/capacity
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Team capacity for the planning window against open backlog and recent throughput
+     */
+    @GetMapping("/capacity")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCapacityPlanning() {
+        Map<String, Object> capacity = analyticsService.getCapacityPlanning();
+        return ResponseEntity.ok(capacity);
+    }
+
+    /**
+     * Get approximate audit activity
+     * 
+     * GET /api/v1/analytics/audit/activity?days=7
+     * 
+     * Requires: Admin role
+     * 
+     * Returns: Estimated distinct active users and touched entities per day and over the window
+     */
+    @GetMapping("/audit/activity")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAuditActivity(@RequestParam(defaultValue = "7") int days) {
+        Map<String, Object> activity = auditSketchService.getActivity(days);
+        return ResponseEntity.ok(activity);
+    }
+
+    /**
+     * Get most-edited entities
+     * 
+     * GET /api/v1/analytics/audit/top-entities?days=7&entityType=Story&limit=10
+     * 
+     * Requires: Admin role
+     * 
+     * Returns: Entities with the most estimated edits, optionally of one type
+     */
+    @GetMapping("/audit/top-entities")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getTopEditedEntities(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> entities = auditSketchService.getTopEntities(days, entityType, limit);
+        return ResponseEntity.ok(entities);
+    }
+
+    /**
+     * Get top editors
+     * 
+     * GET /api/v1/analytics/audit/top-editors?days=7&limit=10
+     * 
+     * Requires: Admin role
+     * 
+     * Returns: Users with the most estimated edits
+     */
+    @GetMapping("/audit/top-editors")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getTopEditors(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> editors = auditSketchService.getTopEditors(days, limit);
+        return ResponseEntity.ok(editors);
+    }
+
+    /**
+     * Generate executive report
+     * 
+     * GET /api/v1/analytics/reports/executive?startDate=2024-01-01&endDate=2024-03-31
+     * 
+     * Requires: Admin role
+     * 
+     * Returns: Dashboard, team, period activity, SLA, client and capacity sections with per-section timings
+     */
+    @GetMapping("/reports/executive")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateExecutiveReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Object> report = analyticsService.generateExecutiveReport(startDate, endDate);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Generate team report
+     * 
+     * GET /api/v1/analytics/reports/team
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Team, workload and utilization sections with per-section timings
+     */
+    @GetMapping("/reports/team")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateTeamReport() {
+        Map<String, Object> report = analyticsService.generateTeamReport();
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Generate project report
+     * 
+     * GET /api/v1/analytics/project/{projectId}/report
+     * 
+     * Requires: Manager or Admin role
+     * 
+     * Returns: Analytics, risk, burndown and SLA sections with per-section timings
+     */
+    @GetMapping("/project/{projectId}/report")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateProjectReport(@PathVariable Long projectId) {
+        Map<String, Object> report = analyticsService.generateProjectReport(projectId);
+        return ResponseEntity.ok(report);
+    }
 }
@@ -3,6 +3,7 @@ package com.htc.enter.controller;
 import com.htc.enter.dto.EmailRequest;
 import com.htc.enter.dto.EmailResponse;
 import com.htc.enter.notification.EmailService;
+import com.htc.enter.service.EmailOutboxService;
 
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -30,9 +31,11 @@ public class EmailController {
     private static final Logger logger = LoggerFactory.getLogger(EmailController.class);
     
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
-    public EmailController(EmailService emailService) {
+    public EmailController(EmailService emailService, EmailOutboxService emailOutboxService) {
         this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         logger.info("✅ Email Controller initialized and ready to handle requests");
     }
 
@@ -220,4 +223,36 @@ public class EmailController {
         
         return ResponseEntity.ok(healthStatus);
     }
+
+    /**
+     * Outbox status: message counts per status and the most recent dead messages
+     * Requires ADMIN role
+     * 
+     * GET /api/v1/email/outbox
+     */
+    @GetMapping("/outbox")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboxStatus() {
+        return ResponseEntity.ok(emailOutboxService.getStatus());
+    }
+
+    /**
+     * Put a dead outbox message back in the queue for another round of attempts
+     * Requires ADMIN role
+     * 
+     * POST /api/v1/email/outbox/{id}/requeue
+     */
+    @PostMapping("/outbox/{id}/requeue")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Object>> requeueOutboxMessage(@PathVariable Long id) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", id);
+        if (!emailOutboxService.requeue(id)) {
+            result.put("requeued", false);
+            result.put("error", "No dead outbox message with id " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        result.put("requeued", true);
+        return ResponseEntity.ok(result);
+    }
 }
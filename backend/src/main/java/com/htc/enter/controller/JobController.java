@@ -0,0 +1,30 @@
+package com.htc.enter.controller;
+
+import com.htc.enter.service.JobSchedulerService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@PreAuthorize("hasRole('ADMIN')")
+public class JobController {
+
+    private final JobSchedulerService jobSchedulerService;
+
+    public JobController(JobSchedulerService jobSchedulerService) {
+        this.jobSchedulerService = jobSchedulerService;
+    }
+
+    /**
+     * Get cluster-wide job state: lease owner, next and last run, failures,
+     * plus this node's run durations
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(jobSchedulerService.getJobs());
+    }
+}
@@ -1,5 +1,7 @@
 package com.htc.enter.controller;
 
+import com.htc.enter.dto.ValidationBatchRequest;
+import com.htc.enter.dto.ValidationResult;
 import com.htc.enter.service.BusinessValidationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -94,6 +96,30 @@ public class ValidationController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Filter project ids down to those the user can access
+     */
+    @PostMapping("/projects/accessible")
+    public ResponseEntity<Map<String, List<Long>>> filterAccessibleProjects(
+            @RequestParam Long userId,
+            @RequestBody List<Long> projectIds) {
+        Map<String, List<Long>> response = new HashMap<>();
+        response.put("projectIds", validationService.filterAccessibleProjects(userId, projectIds));
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Filter story ids down to those the user can access
+     */
+    @PostMapping("/stories/accessible")
+    public ResponseEntity<Map<String, List<Long>>> filterAccessibleStories(
+            @RequestParam Long userId,
+            @RequestBody List<Long> storyIds) {
+        Map<String, List<Long>> response = new HashMap<>();
+        response.put("storyIds", validationService.filterAccessibleStories(userId, storyIds));
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Check if a project is overdue
      */
@@ -170,9 +196,9 @@ public class ValidationController {
      */
     @GetMapping("/stories/{storyId}/sla-violated")
     public ResponseEntity<Map<String, Boolean>> isSlaViolated(@PathVariable Long storyId) {
-        // Fetch story and check
+        boolean slaViolated = validationService.isStorySlaViolated(storyId);
         Map<String, Boolean> response = new HashMap<>();
-        response.put("slaViolated", false); // Implement actual check
+        response.put("slaViolated", slaViolated);
         return ResponseEntity.ok(response);
     }
     
@@ -210,6 +236,20 @@ public class ValidationController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Evaluate many checks in one call, e.g. every row of a story table.
+     * Supported checks: project.can-approve, project.can-delete, project.has-access,
+     * project.is-overdue, story.can-approve, story.has-access, story.is-overdue,
+     * story.sla-violated, epic.has-access, epic.can-close, client.can-delete.
+     * Results come back in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, List<ValidationResult>>> validateBatch(@RequestBody ValidationBatchRequest request) {
+        Map<String, List<ValidationResult>> response = new HashMap<>();
+        response.put("results", validationService.validateBatch(request));
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Health check endpoint
      */
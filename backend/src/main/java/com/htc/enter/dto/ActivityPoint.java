@@ -0,0 +1,11 @@
+package com.htc.enter.dto;
+
+/**
+ * Activity totals for one period (a day or a month) of a trend series.
+ */
+public record ActivityPoint(
+        String period,
+        long storiesCreated,
+        long storiesApproved,
+        double hoursLogged) {
+}
@@ -0,0 +1,21 @@
+package com.htc.enter.dto;
+
+/**
+ * Dashboard metrics returned by the analytics service.
+ * Field names match the keys of the former map-based response.
+ */
+public record DashboardMetrics(
+        long totalProjects,
+        long totalStories,
+        long totalEpics,
+        long totalClients,
+        long totalUsers,
+        long approvedProjects,
+        long pendingProjects,
+        long approvedStories,
+        long pendingStories,
+        long assignedStories,
+        long unassignedStories,
+        long overdueProjects,
+        long overdueStories) {
+}
@@ -0,0 +1,14 @@
+package com.htc.enter.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed dashboard metrics for one scope ("global" or "manager-{id}"),
+ * stamped with the analytics data version they were computed at.
+ */
+public record DashboardSnapshot(
+        String scope,
+        long version,
+        LocalDateTime computedAt,
+        DashboardMetrics metrics) {
+}
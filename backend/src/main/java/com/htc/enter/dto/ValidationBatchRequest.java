@@ -0,0 +1,27 @@
+package com.htc.enter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batched validation checks, all evaluated for one user
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidationBatchRequest {
+
+    private Long userId;
+    private List<Check> checks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Check {
+        private String check; // e.g. story.can-approve, project.has-access, story.sla-violated
+        private Long id;
+    }
+}
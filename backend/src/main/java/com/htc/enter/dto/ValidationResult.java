@@ -0,0 +1,12 @@
+package com.htc.enter.dto;
+
+/**
+ * Outcome of one check in a validation batch; error is set instead of result
+ * when the check could not be evaluated.
+ */
+public record ValidationResult(
+        String check,
+        Long id,
+        Boolean result,
+        String error) {
+}
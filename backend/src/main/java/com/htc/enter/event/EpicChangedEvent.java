@@ -0,0 +1,8 @@
+package com.htc.enter.event;
+
+/**
+ * Published by the epic service whenever an epic is created, updated or deleted.
+ * projectId is the owning project after the change (before it, for a deletion).
+ */
+public record EpicChangedEvent(Long epicId, Long projectId, boolean deleted) {
+}
@@ -0,0 +1,9 @@
+package com.htc.enter.event;
+
+/**
+ * Published by the project service whenever a project is created, updated or deleted.
+ *
+ * managerId is the project's manager after the write, null for a deletion.
+ */
+public record ProjectChangedEvent(Long projectId, Long managerId, boolean created, boolean deleted) {
+}
@@ -0,0 +1,8 @@
+package com.htc.enter.event;
+
+/**
+ * Published when an email is held in the outbox until its project document is
+ * built; the document is generated once the writing transaction commits.
+ */
+public record ProjectDocumentEmailQueued(Long messageId, Long projectId, String password) {
+}
@@ -0,0 +1,7 @@
+package com.htc.enter.event;
+
+/**
+ * Published by the SLA rule service whenever a rule is created, updated or deleted.
+ */
+public record SlaRuleChangedEvent(Long slaId, boolean deleted) {
+}
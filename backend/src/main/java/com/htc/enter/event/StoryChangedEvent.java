@@ -0,0 +1,23 @@
+package com.htc.enter.event;
+
+/**
+ * Published by the story service whenever a story is created, updated or deleted.
+ *
+ * before is null for a creation, after is null for a deletion.
+ * Listeners annotated with @EventListener run inside the publishing transaction;
+ * use @TransactionalEventListener for work that must only see committed data.
+ */
+public record StoryChangedEvent(StorySnapshot before, StorySnapshot after) {
+
+    public boolean isCreated() {
+        return before == null && after != null;
+    }
+
+    public boolean isDeleted() {
+        return before != null && after == null;
+    }
+
+    public long storyId() {
+        return after != null ? after.storyId() : before.storyId();
+    }
+}
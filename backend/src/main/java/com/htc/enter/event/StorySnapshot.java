@@ -0,0 +1,61 @@
+package com.htc.enter.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.htc.enter.model.Story;
+
+/**
+ * Immutable copy of the story fields that derived read models (rollups,
+ * indexes, caches) depend on. Captured before and after a story write so
+ * listeners can compute deltas without reloading the entity.
+ */
+public record StorySnapshot(
+        long storyId,
+        Long projectId,
+        Long epicId,
+        Long clientId,
+        Long assigneeId,
+        LocalDate dueDate,
+        boolean approved,
+        LocalDate endDate,
+        Double estimatedHours,
+        Double actualHours,
+        LocalDateTime createdAt) {
+
+    public static StorySnapshot of(Story story) {
+        Long projectId = null;
+        Long clientId = null;
+        if (story.getProjectId() != null) {
+            projectId = story.getProjectId().getProjectId();
+            if (story.getProjectId().getClient_id() != null) {
+                clientId = story.getProjectId().getClient_id().getClient_id();
+            }
+        }
+        return new StorySnapshot(
+            story.getStoryId(),
+            projectId,
+            story.getEpicId() != null ? story.getEpicId().getEpicId() : null,
+            clientId,
+            story.getAssigned_to() != null ? story.getAssigned_to().getId() : null,
+            story.getDueDate(),
+            story.isIs_approved(),
+            story.getIs_end(),
+            story.getEstimatedHours(),
+            story.getActualHours(),
+            story.getCreatedAt()
+        );
+    }
+
+    public boolean isOverdue(LocalDate today) {
+        return !approved && dueDate != null && dueDate.isBefore(today);
+    }
+
+    public double estimatedHoursOrZero() {
+        return estimatedHours != null ? estimatedHours : 0.0;
+    }
+
+    public double actualHoursOrZero() {
+        return actualHours != null ? actualHours : 0.0;
+    }
+}
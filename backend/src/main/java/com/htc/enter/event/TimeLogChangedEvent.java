@@ -0,0 +1,13 @@
+package com.htc.enter.event;
+
+/**
+ * Published by the time log service whenever a time log is created, updated or deleted.
+ *
+ * before is null for a creation, after is null for a deletion.
+ */
+public record TimeLogChangedEvent(TimeLogSnapshot before, TimeLogSnapshot after) {
+
+    public Long userId() {
+        return after != null ? after.userId() : before.userId();
+    }
+}
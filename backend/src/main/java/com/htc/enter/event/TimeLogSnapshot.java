@@ -0,0 +1,36 @@
+package com.htc.enter.event;
+
+import java.time.LocalDateTime;
+
+import com.htc.enter.model.TimeLog;
+
+/**
+ * Immutable copy of the time log fields that derived read models depend on.
+ */
+public record TimeLogSnapshot(
+        Long id,
+        Long storyId,
+        Long projectId,
+        Long userId,
+        LocalDateTime workDate,
+        double hoursWorked) {
+
+    public static TimeLogSnapshot of(TimeLog timeLog) {
+        Long storyId = null;
+        Long projectId = null;
+        if (timeLog.getStory() != null) {
+            storyId = timeLog.getStory().getStoryId();
+            if (timeLog.getStory().getProjectId() != null) {
+                projectId = timeLog.getStory().getProjectId().getProjectId();
+            }
+        }
+        return new TimeLogSnapshot(
+            timeLog.getId(),
+            storyId,
+            projectId,
+            timeLog.getUser() != null ? timeLog.getUser().getId() : null,
+            timeLog.getWorkDate(),
+            timeLog.getHoursWorked() != null ? timeLog.getHoursWorked() : 0.0
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.htc.enter.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,6 +59,19 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.UNAUTHORIZED, "Unauthorized", ex.getMessage(), req.getRequestURI(), ex.getErrorCode(), traceId);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        String traceId = UUID.randomUUID().toString().substring(0, 8);
+        log.warn("[{}] Service unavailable: {}", traceId, ex.getMessage());
+        ErrorResponse response = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+            ex.getMessage(), req.getRequestURI(), ex.getErrorCode(), traceId);
+        // Explicit content type: the stream endpoint's clients only accept text/event-stream
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
         String traceId = UUID.randomUUID().toString().substring(0, 8);
@@ -104,7 +119,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest req) {
         String traceId = UUID.randomUUID().toString().substring(0, 8);
-        String msg = extractDataIntegrityMessage(ex.getMessage());
+        String msg = extractDataIntegrityMessage(ex.getMessage() + " " + ex.getMostSpecificCause().getMessage());
         log.error("[{}] Data integrity violation", traceId);
         return buildResponse(HttpStatus.CONFLICT, "Data Integrity Violation", msg, req.getRequestURI(), "ERR_DATA_INTEGRITY", traceId);
     }
@@ -124,7 +139,10 @@ public class GlobalExceptionHandler {
 
     private String extractDataIntegrityMessage(String exceptionMessage) {
         if (exceptionMessage != null) {
-            if (exceptionMessage.contains("Unique") || exceptionMessage.contains("UNIQUE")) {
+            // Two nodes (or two requests) validating the same new name at once both pass the check
+            if (exceptionMessage.contains("uk_project_client_name")) {
+                return "A project with this name already exists for this client";
+            } else if (exceptionMessage.contains("Unique") || exceptionMessage.contains("UNIQUE")) {
                 return "A resource with this value already exists";
             } else if (exceptionMessage.contains("Foreign key") || exceptionMessage.contains("FOREIGN")) {
                 return "Cannot perform operation due to foreign key constraints";
@@ -0,0 +1,15 @@
+package com.htc.enter.exception;
+
+public class ServiceUnavailableException extends ApplicationException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String msg, String errorCode, long retryAfterSeconds) {
+        super(msg, errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
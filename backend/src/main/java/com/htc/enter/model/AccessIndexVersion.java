@@ -0,0 +1,30 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cluster-wide change counter for the access index. Every committed project
+ * or story change increments it in its own transaction, so a node whose
+ * in-memory index was built at an older value knows it may be stale.
+ */
+@Entity
+@Table(name = "ewt_access_index_version")
+@Data
+@NoArgsConstructor
+public class AccessIndexVersion {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long version;
+
+    public AccessIndexVersion(Integer id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+}
@@ -0,0 +1,72 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated activity counters for one time bucket (a day or a month)
+ * and one scope (the whole system, a project or a user).
+ * Day buckets older than the retention window are folded into month buckets.
+ */
+@Entity
+@Table(name = "ewt_activity_bucket",
+       uniqueConstraints = @UniqueConstraint(name = "uk_activity_bucket",
+           columnNames = {"granularity", "scope_type", "scope_id", "bucket_start"}),
+       indexes = @Index(name = "idx_activity_scope_start", columnList = "scope_type, scope_id, bucket_start"))
+@Data
+@NoArgsConstructor
+public class ActivityBucket {
+
+    public enum Granularity {
+        DAY, MONTH
+    }
+
+    public enum ScopeType {
+        GLOBAL, PROJECT, USER
+    }
+
+    /** Scope id used for GLOBAL buckets */
+    public static final long GLOBAL_SCOPE_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private ScopeType scopeType;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(nullable = false)
+    private long storiesCreated;
+
+    @Column(nullable = false)
+    private long storiesApproved;
+
+    @Column(nullable = false)
+    private double hoursLogged;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ActivityBucket(Granularity granularity, ScopeType scopeType, Long scopeId, LocalDate bucketStart) {
+        this.granularity = granularity;
+        this.scopeType = scopeType;
+        this.scopeId = scopeId;
+        this.bucketStart = bucketStart;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,45 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized approximate-count sketches for one day of audit events
+ * (distinct users and entities, most-edited entities, top editors) as seen
+ * by one running backend instance. Each instance writes only its own rows;
+ * readers merge the rows of every instance for the day.
+ */
+@Entity
+@Table(name = "ewt_audit_sketch",
+       uniqueConstraints = @UniqueConstraint(name = "uk_audit_sketch_day_writer",
+                                             columnNames = {"sketch_date", "writer_id"}))
+@Data
+@NoArgsConstructor
+public class AuditSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate sketchDate;
+
+    @Column(name = "writer_id", nullable = false, length = 36)
+    private String writerId;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public AuditSketch(LocalDate sketchDate, String writerId) {
+        this.sketchDate = sketchDate;
+        this.writerId = writerId;
+    }
+}
@@ -1,12 +1,17 @@
 package com.htc.enter.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Data;
 
+import com.htc.enter.util.NameNormalizer;
+
 @Entity
 @Data
 @Table(name = "ewt_client")
@@ -16,6 +21,9 @@ public class Client extends BaseEntity{
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private long client_id;
 	private String name;
+	// Lower-cased, trimmed name backing the uniqueness check
+	@Column(name = "normalized_name", length = 255, unique = true)
+	private String normalizedName;
 	private String email;
 	private long phn_no;
 	private String address;
@@ -27,6 +35,9 @@ public class Client extends BaseEntity{
 	public String getName() { return name; }
 	public void setName(String name) { this.name = name; }
 
+	public String getNormalizedName() { return normalizedName; }
+	public void setNormalizedName(String normalizedName) { this.normalizedName = normalizedName; }
+
 	public String getEmail() { return email; }
 	public void setEmail(String email) { this.email = email; }
 
@@ -36,6 +47,12 @@ public class Client extends BaseEntity{
 	public String getAddress() { return address; }
 	public void setAddress(String address) { this.address = address; }
 
+	@PrePersist
+	@PreUpdate
+	private void normalizeName() {
+		this.normalizedName = NameNormalizer.normalize(this.name);
+	}
+
 	// Compatibility getter
 	public Long getClientId() { return Long.valueOf(this.client_id); }
 
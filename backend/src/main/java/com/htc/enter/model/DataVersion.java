@@ -0,0 +1,34 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide write counter, one row per name. Each node adds its own
+ * committed writes periodically and reads the total, so caches on every
+ * node notice writes made elsewhere.
+ */
+@Entity
+@Table(name = "ewt_data_version")
+@Data
+@NoArgsConstructor
+public class DataVersion {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public DataVersion(String name) {
+        this.name = name;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
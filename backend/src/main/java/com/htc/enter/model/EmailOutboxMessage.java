@@ -0,0 +1,78 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent, written in the same transaction as the change
+ * that triggered it so a rolled-back change never mails anyone. Failed sends
+ * are retried with backoff until the attempt limit, then parked as DEAD.
+ */
+@Entity
+@Table(name = "ewt_email_outbox",
+       indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+public class EmailOutboxMessage {
+
+    public enum Status {
+        // Waiting for an attachment that is built after the writing transaction commits
+        HELD,
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_address", length = 255)
+    private String fromAddress;
+
+    @Column(nullable = false, length = 255)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "attachment_name", length = 255)
+    private String attachmentName;
+
+    @Lob
+    private byte[] attachment;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public EmailOutboxMessage(String fromAddress, String recipient, String subject, String body) {
+        this.fromAddress = fromAddress;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -0,0 +1,62 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide state of one named background job: when it is next due,
+ * which node currently holds its lease and until when, and how its last
+ * run went. A node may only run the job after atomically taking the lease.
+ */
+@Entity
+@Table(name = "ewt_job_lock")
+@Data
+@NoArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Null for leases that guard continuous work rather than a scheduled run
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "last_status", length = 20)
+    private String lastStatus;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "last_owner", length = 100)
+    private String lastOwner;
+
+    @Column(name = "run_count", nullable = false)
+    private long runCount;
+
+    @Column(name = "failure_count", nullable = false)
+    private long failureCount;
+
+    public JobLock(String jobName, LocalDateTime nextRunAt) {
+        this.jobName = jobName;
+        this.nextRunAt = nextRunAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last time an alert of one kind was sent for a story (and SLA rule, 0 for
+ * overdue alerts). A row exists while the alerted condition holds and is
+ * removed once it clears, so the next occurrence is announced again.
+ */
+@Entity
+@Table(name = "ewt_notification_ledger",
+       uniqueConstraints = @UniqueConstraint(name = "uk_notification_ledger",
+                                             columnNames = {"story_id", "kind", "rule_id"}))
+@Data
+@NoArgsConstructor
+public class NotificationLedgerEntry {
+
+    public enum Kind {
+        OVERDUE,
+        SLA_BREACH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "last_sent_at", nullable = false)
+    private LocalDateTime lastSentAt;
+
+    public NotificationLedgerEntry(Long storyId, Kind kind, Long ruleId, LocalDateTime lastSentAt) {
+        this.storyId = storyId;
+        this.kind = kind;
+        this.ruleId = ruleId;
+        this.lastSentAt = lastSentAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.htc.enter.model;
 
 import jakarta.annotation.Generated;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,13 +11,17 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 import java.time.LocalDate;
 
+import com.htc.enter.util.NameNormalizer;
+
 @Entity
 @Data
-@Table(name = "ewt_projects")
+@Table(name = "ewt_projects",
+       uniqueConstraints = @UniqueConstraint(name = "uk_project_client_name", columnNames = {"clientId", "normalized_name"}))
 public class Project extends BaseEntity{
 	
 	@Id
@@ -25,6 +30,10 @@ public class Project extends BaseEntity{
 	
 	private String name;
 	
+	// Lower-cased, trimmed name backing the per-client uniqueness check
+	@Column(name = "normalized_name", length = 200)
+	private String normalizedName;
+	
 	@ManyToOne
 	@JoinColumn(name = "clientId")
 	private Client client_id;
@@ -47,6 +56,7 @@ public class Project extends BaseEntity{
 	@PrePersist
 	@PreUpdate
 	private void syncManagerReporting() {
+		this.normalizedName = NameNormalizer.normalize(this.name);
 		if (this.manager_id != null && this.created_by != null
 				&& this.manager_id.getId() != this.created_by.getId()) {
 			this.manager_id.setReportingTo(this.created_by);
@@ -60,6 +70,8 @@ public class Project extends BaseEntity{
 	public void setProjectId(long projectId) { this.projectId = projectId; }
 	public String getName() { return name; }
 	public void setName(String name) { this.name = name; }
+	public String getNormalizedName() { return normalizedName; }
+	public void setNormalizedName(String normalizedName) { this.normalizedName = normalizedName; }
 	public Client getClient_id() { return client_id; }
 	public void setClient_id(Client client_id) { this.client_id = client_id; }
 	public User getCreated_by() { return created_by; }
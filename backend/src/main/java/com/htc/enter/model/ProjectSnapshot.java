@@ -0,0 +1,53 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * End-of-day story totals for one project. One row per project per day;
+ * the unique (project_id, snapshot_date) index also serves burndown range scans.
+ */
+@Entity
+@Table(name = "ewt_project_snapshot",
+       uniqueConstraints = @UniqueConstraint(name = "uk_project_snapshot_day", columnNames = {"project_id", "snapshot_date"}))
+@Data
+@NoArgsConstructor
+public class ProjectSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false)
+    private long totalStories;
+
+    @Column(nullable = false)
+    private long completedStories;
+
+    @Column(nullable = false)
+    private long remainingStories;
+
+    @Column(nullable = false)
+    private double remainingEstimatedHours;
+
+    @Column(nullable = false)
+    private double completedEstimatedHours;
+
+    @Column(name = "captured_at")
+    private LocalDateTime capturedAt;
+
+    public ProjectSnapshot(Long projectId, LocalDate snapshotDate) {
+        this.projectId = projectId;
+        this.snapshotDate = snapshotDate;
+    }
+}
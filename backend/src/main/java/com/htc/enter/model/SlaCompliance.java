@@ -0,0 +1,47 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated SLA counters for one project, summed over every rule that applies to it.
+ * Maintained incrementally from story and rule changes and rebuilt nightly to repair drift.
+ */
+@Entity
+@Table(name = "ewt_sla_compliance",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sla_compliance_project", columnNames = "project_id"))
+@Data
+@NoArgsConstructor
+public class SlaCompliance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long trackedCount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private long breachedCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public SlaCompliance(Long projectId) {
+        this.projectId = projectId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public double getComplianceRate() {
+        return trackedCount > 0 ? ((trackedCount - breachedCount) * 100.0) / trackedCount : 100.0;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -13,7 +14,7 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "ewt_story")
+@Table(name = "ewt_story", indexes = @Index(name = "idx_story_open_due", columnList = "is_approved, dueDate"))
 public class Story extends BaseEntity{
 
 	@Id
@@ -0,0 +1,68 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated story counters for one epic, project or client.
+ * Maintained incrementally on every story write and rebuilt nightly to repair drift.
+ * The overdue count is not stored: it changes with the calendar rather than with a
+ * write, so it is counted when the rollup is read.
+ */
+@Entity
+@Table(name = "ewt_story_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_scope", columnNames = {"scope_type", "scope_id"}))
+@Data
+@NoArgsConstructor
+public class StoryRollup {
+
+    public enum ScopeType {
+        EPIC, PROJECT, CLIENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private ScopeType scopeType;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Column(nullable = false)
+    private long totalStories;
+
+    @Column(nullable = false)
+    private long approvedStories;
+
+    @Transient
+    private long overdueStories;
+
+    @Column(nullable = false)
+    private double estimatedHours;
+
+    @Column(nullable = false)
+    private double actualHours;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public StoryRollup(ScopeType scopeType, Long scopeId) {
+        this.scopeType = scopeType;
+        this.scopeId = scopeId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isAllApproved() {
+        return approvedStories == totalStories;
+    }
+
+    public double getCompletionPercentage() {
+        return totalStories > 0 ? (approvedStories * 100.0) / totalStories : 0.0;
+    }
+}
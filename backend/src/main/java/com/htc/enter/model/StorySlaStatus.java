@@ -0,0 +1,57 @@
+package com.htc.enter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evaluation of one SLA rule against one story: when the story is due under
+ * that rule and whether it has been completed or has breached.
+ * Rewritten whenever the story or the rule changes.
+ */
+@Entity
+@Table(name = "ewt_story_sla",
+       uniqueConstraints = @UniqueConstraint(name = "uk_story_sla", columnNames = {"story_id", "sla_id"}),
+       indexes = {
+           @Index(name = "idx_story_sla_sla", columnList = "sla_id"),
+           @Index(name = "idx_story_sla_due", columnList = "completed, breached, due_at")
+       })
+@Data
+@NoArgsConstructor
+public class StorySlaStatus {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+
+    @Column(name = "sla_id", nullable = false)
+    private Long slaId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false)
+    private boolean breached;
+
+    @Column(name = "evaluated_at")
+    private LocalDateTime evaluatedAt;
+
+    public StorySlaStatus(Long storyId, Long slaId, Long projectId, LocalDateTime dueAt) {
+        this.storyId = storyId;
+        this.slaId = slaId;
+        this.projectId = projectId;
+        this.dueAt = dueAt;
+        this.evaluatedAt = LocalDateTime.now();
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.htc.enter.util.NameNormalizer;
 
 @Entity
 @Table(name = "ewt_user")
@@ -33,6 +34,10 @@ public class User extends BaseEntity {
     @Column(nullable = false, unique = false)
     private String email;
 
+    // Lower-cased, trimmed email backing the case-insensitive uniqueness check
+    @Column(name = "normalized_email", unique = true)
+    private String normalizedEmail;
+
     @Column(nullable = false)
     private String passwordhash;
 
@@ -104,6 +109,8 @@ public class User extends BaseEntity {
         if (this.oauth2Enabled == null) {
             this.oauth2Enabled = false;
         }
+
+        this.normalizedEmail = NameNormalizer.normalize(this.email);
     }
 
     public String getUsername() {
@@ -135,6 +142,10 @@ public class User extends BaseEntity {
         assignRole();
     }
 
+    public String getNormalizedEmail() {
+        return normalizedEmail;
+    }
+
     public String getPasswordhash() {
         return passwordhash;
     }
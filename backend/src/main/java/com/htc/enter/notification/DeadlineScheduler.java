@@ -0,0 +1,294 @@
+package com.htc.enter.notification;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.NotificationLedgerEntry;
+import com.htc.enter.model.Story;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.service.JobSchedulerService;
+import com.htc.enter.service.NotificationLedgerService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fires the overdue notification for a story at the moment it becomes overdue,
+ * i.e. the start of the day after its due date.
+ *
+ * Only the node holding the "overdue-notifier" lease keeps deadlines. Pending
+ * deadlines sit in a delay queue ordered by firing time, and a single worker
+ * thread blocks on the queue head, so idle cost is zero and work is
+ * proportional to the deadlines that actually fire. A change replaces the story's
+ * deadline by bumping its generation; superseded queue entries are discarded
+ * when they surface. Sends go through the notification ledger, and with a
+ * re-notify interval configured an overdue story is re-queued as a reminder.
+ *
+ * Every node checks the lease every third of its length. The node that takes it
+ * builds the queue from the database, so nothing another node knew is lost,
+ * and rebuilds it every notification.deadlines.refresh-ms to pick up stories
+ * changed on other nodes; between rebuilds it follows the changes committed
+ * locally. Open stories already overdue are queued to fire at once unless the
+ * ledger shows them alerted. A node that loses the lease drops its queue.
+ */
+@Component
+public class DeadlineScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineScheduler.class);
+
+    private static final String LEASE_NAME = "overdue-notifier";
+
+    private final StoryRepository storyRepository;
+    private final NotificationService notificationService;
+    private final NotificationLedgerService ledgerService;
+    private final JobSchedulerService jobSchedulerService;
+
+    @Value("${notification.deadlines.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.deadlines.refresh-ms:300000}")
+    private long refreshMs;
+
+    @Value("${notification.renotify-hours:0}")
+    private long renotifyHours;
+
+    @Value("${jobs.lease-ms:120000}")
+    private long leaseMs;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    // Live generation per story; queue entries with any other generation are stale
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    // Changes committed while the queue is being rebuilt, replayed afterwards
+    private final List<StoryChangedEvent> pending = new ArrayList<>();
+    private volatile boolean loading;
+    private volatile boolean holder;
+    private volatile long loadedAt;
+    private volatile Thread worker;
+
+    private final ScheduledExecutorService leaseChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "deadline-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Deadline(long storyId, long fireAtMillis, long generation) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtMillis, ((Deadline) other).fireAtMillis);
+        }
+    }
+
+    public DeadlineScheduler(StoryRepository storyRepository, NotificationService notificationService,
+                             NotificationLedgerService ledgerService, JobSchedulerService jobSchedulerService) {
+        this.storyRepository = storyRepository;
+        this.notificationService = notificationService;
+        this.ledgerService = ledgerService;
+        this.jobSchedulerService = jobSchedulerService;
+    }
+
+    public int pendingCount() {
+        return generations.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::run, "deadline-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+        long checkMs = Math.max(1000, leaseMs / 3);
+        leaseChecker.scheduleWithFixedDelay(this::checkLease, 0, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        leaseChecker.shutdownNow();
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void checkLease() {
+        try {
+            if (!jobSchedulerService.holdsLease(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+                if (holder) {
+                    log.info("Lost the {} lease; dropping {} deadlines", LEASE_NAME, generations.size());
+                    drop();
+                }
+                return;
+            }
+            if (!holder || System.currentTimeMillis() - loadedAt >= refreshMs) {
+                holder = true;
+                load();
+            }
+        } catch (Exception e) {
+            log.warn("Deadline lease check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the queue from every open story with a due date
+     */
+    private void load() {
+        synchronized (pending) {
+            loading = true;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            List<Object[]> upcoming = new ArrayList<>();
+            List<Object[]> overdue = new ArrayList<>();
+            for (Object[] row : storyRepository.findOpenDueDatesFrom(LocalDate.EPOCH)) {
+                if (((LocalDate) row[1]).isBefore(today)) {
+                    overdue.add(row);
+                } else {
+                    upcoming.add(row);
+                }
+            }
+            // Already-alerted overdue stories stay out unless a reminder is due
+            overdue = ledgerService.filterUnsent(NotificationLedgerEntry.Kind.OVERDUE, overdue,
+                row -> (Long) row[0], row -> NotificationLedgerService.NO_RULE);
+
+            long now = System.currentTimeMillis();
+            synchronized (pending) {
+                queue.clear();
+                generations.clear();
+                for (Object[] row : upcoming) {
+                    schedule((Long) row[0], overdueAt((LocalDate) row[1]));
+                }
+                for (Object[] row : overdue) {
+                    schedule((Long) row[0], now);
+                }
+                pending.forEach(this::apply);
+                pending.clear();
+                loading = false;
+            }
+            loadedAt = now;
+            log.debug("Scheduled {} story due-date deadlines ({} overdue)", generations.size(), overdue.size());
+        } catch (Exception e) {
+            synchronized (pending) {
+                pending.clear();
+                loading = false;
+            }
+            // Retried on the next lease check
+            loadedAt = 0;
+            log.warn("Deadline scheduler load failed: {}", e.getMessage());
+        }
+    }
+
+    private void drop() {
+        synchronized (pending) {
+            holder = false;
+            queue.clear();
+            generations.clear();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (!enabled || !holder) {
+            return;
+        }
+        synchronized (pending) {
+            if (loading) {
+                pending.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(StoryChangedEvent event) {
+        StorySnapshot before = event.before();
+        StorySnapshot after = event.after();
+        if (after == null || after.approved() || after.dueDate() == null) {
+            generations.remove(event.storyId());
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (!after.isOverdue(today)) {
+            schedule(after.storyId(), overdueAt(after.dueDate()));
+        } else if (before == null || !before.isOverdue(today)) {
+            // Became overdue through this write (created late, reopened, due date moved back)
+            schedule(after.storyId(), System.currentTimeMillis());
+        }
+        // Already overdue before this write: any pending reminder stays as it is
+    }
+
+    private void schedule(long storyId, long fireAtMillis) {
+        long generation = nextGeneration.incrementAndGet();
+        generations.put(storyId, generation);
+        queue.add(new Deadline(storyId, fireAtMillis, generation));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Deadline deadline = queue.take();
+                if (generations.remove(deadline.storyId(), deadline.generation())) {
+                    fire(deadline.storyId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void fire(long storyId) {
+        try {
+            Story story = storyRepository.findById(storyId).orElse(null);
+            if (story == null || story.isIs_approved() || story.getDueDate() == null
+                    || !story.getDueDate().isBefore(LocalDate.now())) {
+                return;
+            }
+            if (!jobSchedulerService.holdsLease(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+                // The next holder rebuilds from the database and fires this one itself
+                drop();
+                return;
+            }
+            ledgerService.sendOnce(storyId, NotificationLedgerEntry.Kind.OVERDUE, NotificationLedgerService.NO_RULE,
+                () -> notificationService.notifyOverdue(story));
+            if (renotifyHours > 0) {
+                schedule(storyId, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(renotifyHours));
+            }
+        } catch (Exception e) {
+            // Left unclaimed in the ledger, so the next rebuild queues it again
+            log.warn("Overdue notification for story {} failed: {}", storyId, e.getMessage());
+        }
+    }
+
+    private static long overdueAt(LocalDate dueDate) {
+        return dueDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -5,36 +5,32 @@ import java.io.ByteArrayOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import com.htc.enter.notification.*;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.htc.enter.service.EmailOutboxService;
 
 /**
  * Implementation of EmailService for sending emails
- * Uses Spring Boot Mail Starter to send emails via configured SMTP server
+ * Messages are written to the email outbox in the caller's transaction and
+ * sent by the outbox dispatcher via the configured SMTP server
  */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxService outboxService;
 
     @Value("${spring.mail.from:noreply@enterprise.com}")
     private String fromEmail;
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailServiceImpl(EmailOutboxService outboxService) {
+        this.outboxService = outboxService;
         logger.info("✅ EmailServiceImpl initialized");
     }
 
     /**
-     * Send a simple text email
+     * Queue a simple text email
      * 
      * @param to recipient email address
      * @param subject email subject
@@ -42,21 +38,12 @@ public class EmailServiceImpl implements EmailService {
      */
     @Override
     public void sendEmail(String to, String subject, String body) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            logger.info("✅ Email sent successfully to: {}", to);
-        } catch (Exception e) {
-            logger.error("❌ Failed to send email to {}: {}", to, e.getMessage(), e);
-        }
+        outboxService.enqueue(fromEmail, to, subject, body);
+        logger.info("✅ Email queued for: {}", to);
     }
 
     /**
-     * Send email with encrypted document attachment
+     * Queue email with encrypted document attachment
      * 
      * @param to recipient email address
      * @param subject email subject
@@ -67,25 +54,8 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendEmailWithAttachment(String to, String subject, String body, 
                                         String attachmentName, ByteArrayOutputStream attachmentContent) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body);
-            
-            if (attachmentContent != null && attachmentName != null) {
-                byte[] attachmentBytes = attachmentContent.toByteArray();
-                helper.addAttachment(attachmentName, () -> new java.io.ByteArrayInputStream(attachmentBytes));
-            }
-            
-            mailSender.send(mimeMessage);
-            logger.info("✅ Email with attachment sent successfully to: {}", to);
-        } catch (MessagingException e) {
-            logger.error("❌ Failed to send email with attachment to {}: {}", to, e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("❌ Unexpected error sending email to {}: {}", to, e.getMessage(), e);
-        }
+        byte[] attachment = attachmentContent != null && attachmentName != null ? attachmentContent.toByteArray() : null;
+        outboxService.enqueue(fromEmail, to, subject, body, attachmentName, attachment);
+        logger.info("✅ Email with attachment queued for: {}", to);
     }
 }
@@ -1,62 +1,65 @@
 package com.htc.enter.notification;
 
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Autowired;
 
+import com.htc.enter.model.NotificationLedgerEntry;
 import com.htc.enter.model.Story;
-import com.htc.enter.model.SlaRule;
 import com.htc.enter.repository.StoryRepository;
-import com.htc.enter.repository.SlaRuleRepository;
+import com.htc.enter.service.NotificationLedgerService;
+import com.htc.enter.util.SlaRuleIndex;
 
 @Component
 public class ScheduledNotifier {
 
     private final StoryRepository storyRepo;
-    private final SlaRuleRepository slaRepo;
+    private final SlaEvaluator slaEvaluator;
     private final NotificationService notificationService;
+    private final NotificationLedgerService ledgerService;
     private final Logger log = LoggerFactory.getLogger(ScheduledNotifier.class);
 
-    public ScheduledNotifier(StoryRepository storyRepo, SlaRuleRepository slaRepo, NotificationService notificationService) {
+    public ScheduledNotifier(StoryRepository storyRepo, SlaEvaluator slaEvaluator, NotificationService notificationService,
+                             NotificationLedgerService ledgerService) {
         this.storyRepo = storyRepo;
-        this.slaRepo = slaRepo;
+        this.slaEvaluator = slaEvaluator;
         this.notificationService = notificationService;
+        this.ledgerService = ledgerService;
     }
 
-    // run every 5 minutes
-    @Scheduled(fixedDelay = 300000)
+    // run every 5 minutes as the cluster job "sla-notifier"; overdue due dates are fired by DeadlineScheduler
     public void checkOverdueAndSla() {
         try {
-            List<Story> stories = storyRepo.findAll();
-            LocalDate now = LocalDate.now();
-            for (Story s : stories) {
-                if (s.getDueDate() != null && s.getDueDate().isBefore(now) && !s.isIs_approved()) {
-                    notificationService.notifyOverdue(s);
-                }
+            // only breaches not already announced (or due for a reminder) go out
+            List<SlaRuleIndex.Breach> breaches = ledgerService.filterUnsent(NotificationLedgerEntry.Kind.SLA_BREACH,
+                slaEvaluator.findBreaches(LocalDateTime.now()), SlaRuleIndex.Breach::storyId, SlaRuleIndex.Breach::slaId);
+            if (breaches.isEmpty()) {
+                return;
             }
 
-            // simple SLA check: for each SLA rule, find stories in that state and check createdAt + duration
-            List<SlaRule> slas = slaRepo.findAll();
-            for (SlaRule rule : slas) {
-                if (!rule.isNotifyEmail()) continue;
-                if (rule.getState() == null) continue;
-                List<Story> storiesInState = storyRepo.findAll(); // simple for now - could add query by state
-                for (Story s : storiesInState) {
-                    if (s.getEpicId() == null) continue;
-                    if (s.getEpicId().getEpicId() != rule.getState().getEpicId()) continue;
-                    // if durationHours elapsed since creation
-                    if (s.getCreatedAt() != null) {
-                        long hours = ChronoUnit.HOURS.between(s.getCreatedAt(), java.time.LocalDateTime.now());
-                        if (hours > rule.getDurationHours()) {
-                            notificationService.notifySlaBreach(s, "SLA#" + rule.getSlaId());
-                        }
-                    }
+            // load each breached story once, however many rules it broke
+            Set<Long> storyIds = breaches.stream().map(SlaRuleIndex.Breach::storyId).collect(Collectors.toSet());
+            Map<Long, Story> stories = new HashMap<>();
+            storyRepo.findAllById(storyIds).forEach(s -> stories.put(s.getStoryId(), s));
+
+            for (SlaRuleIndex.Breach breach : breaches) {
+                Story s = stories.get(breach.storyId());
+                if (s == null) {
+                    continue;
+                }
+                try {
+                    ledgerService.sendOnce(breach.storyId(), NotificationLedgerEntry.Kind.SLA_BREACH, breach.slaId(),
+                        () -> notificationService.notifySlaBreach(s, "SLA#" + breach.slaId()));
+                } catch (Exception e) {
+                    // left unclaimed, so the next run tries again
+                    log.warn("SLA breach notification for story {} failed: {}", breach.storyId(), e.getMessage());
                 }
             }
         } catch (Exception e) {
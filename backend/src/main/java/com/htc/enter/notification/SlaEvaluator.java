@@ -0,0 +1,67 @@
+package com.htc.enter.notification;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.htc.enter.repository.SlaRuleRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.util.SlaRuleIndex;
+
+/**
+ * Finds open stories that have outlived an email-notifying SLA rule.
+ *
+ * Each pass loads the rules once, groups them by epic and project, and fetches
+ * only open stories in those epics or projects that are older than the
+ * shortest rule, in a single keyed query. Every story is then checked against
+ * all of its rules in one sweep.
+ */
+@Component
+public class SlaEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaEvaluator.class);
+
+    // Placeholder for an empty IN list, never a real id
+    private static final Set<Long> NO_IDS = Set.of(-1L);
+
+    private final SlaRuleRepository slaRuleRepository;
+    private final StoryRepository storyRepository;
+
+    public SlaEvaluator(SlaRuleRepository slaRuleRepository, StoryRepository storyRepository) {
+        this.slaRuleRepository = slaRuleRepository;
+        this.storyRepository = storyRepository;
+    }
+
+    public List<SlaRuleIndex.Breach> findBreaches(LocalDateTime now) {
+        List<SlaRuleIndex.Rule> rules = new ArrayList<>();
+        for (Object[] row : slaRuleRepository.findNotifyingRuleKeys()) {
+            rules.add(new SlaRuleIndex.Rule((Long) row[0], (Long) row[1], (Long) row[2], (Integer) row[3]));
+        }
+        SlaRuleIndex index = SlaRuleIndex.of(rules);
+        List<SlaRuleIndex.Breach> breaches = new ArrayList<>();
+        if (index.isEmpty()) {
+            return breaches;
+        }
+
+        List<Object[]> stories = storyRepository.findOpenSlaCandidates(
+            index.epicIds().isEmpty() ? NO_IDS : index.epicIds(),
+            index.projectIds().isEmpty() ? NO_IDS : index.projectIds(),
+            now.minusHours(index.minDurationHours()));
+        for (Object[] row : stories) {
+            LocalDateTime createdAt = (LocalDateTime) row[3];
+            if (createdAt == null) {
+                continue;
+            }
+            index.evaluate((Long) row[0], (Long) row[1], (Long) row[2],
+                ChronoUnit.HOURS.between(createdAt, now), breaches);
+        }
+        log.debug("SLA pass checked {} stories against {} rules, {} breaches", stories.size(), rules.size(), breaches.size());
+        return breaches;
+    }
+}
@@ -0,0 +1,24 @@
+package com.htc.enter.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.AccessIndexVersion;
+
+@Repository
+public interface AccessIndexVersionRepository extends JpaRepository<AccessIndexVersion, Integer> {
+
+    @Query("SELECT v.version FROM AccessIndexVersion v WHERE v.id = 1")
+    Optional<Long> findCurrent();
+
+    // Holds the row lock until the calling transaction ends, so versions follow commit order
+    @Transactional
+    @Modifying
+    @Query("UPDATE AccessIndexVersion v SET v.version = v.version + 1 WHERE v.id = 1")
+    int increment();
+}
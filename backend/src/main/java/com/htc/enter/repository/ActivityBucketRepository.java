@@ -0,0 +1,52 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.ActivityBucket;
+
+@Repository
+public interface ActivityBucketRepository extends JpaRepository<ActivityBucket, Long> {
+
+    // Both granularities for one scope; callers fold day rows into months as needed
+    @Query("SELECT b FROM ActivityBucket b WHERE b.scopeType = :scopeType AND b.scopeId = :scopeId " +
+           "AND b.bucketStart >= :from AND b.bucketStart <= :to ORDER BY b.bucketStart")
+    List<ActivityBucket> findScopeRange(@Param("scopeType") ActivityBucket.ScopeType scopeType,
+                                        @Param("scopeId") Long scopeId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    boolean existsByGranularityAndScopeTypeAndScopeIdAndBucketStart(ActivityBucket.Granularity granularity,
+                                                                    ActivityBucket.ScopeType scopeType,
+                                                                    Long scopeId,
+                                                                    LocalDate bucketStart);
+
+    List<ActivityBucket> findByGranularityAndBucketStartBefore(ActivityBucket.Granularity granularity, LocalDate cutoff);
+
+    // Atomic in-place increment so concurrent writers never lose an update
+    @Transactional
+    @Modifying
+    @Query("UPDATE ActivityBucket b SET " +
+           "b.storiesCreated = b.storiesCreated + :created, " +
+           "b.storiesApproved = b.storiesApproved + :approved, " +
+           "b.hoursLogged = b.hoursLogged + :hours, " +
+           "b.updatedAt = :now " +
+           "WHERE b.granularity = :granularity AND b.scopeType = :scopeType " +
+           "AND b.scopeId = :scopeId AND b.bucketStart = :bucketStart")
+    int applyDelta(@Param("granularity") ActivityBucket.Granularity granularity,
+                   @Param("scopeType") ActivityBucket.ScopeType scopeType,
+                   @Param("scopeId") Long scopeId,
+                   @Param("bucketStart") LocalDate bucketStart,
+                   @Param("created") long created,
+                   @Param("approved") long approved,
+                   @Param("hours") double hours,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.AuditSketch;
+
+@Repository
+public interface AuditSketchRepository extends JpaRepository<AuditSketch, Long> {
+
+    Optional<AuditSketch> findBySketchDateAndWriterId(LocalDate sketchDate, String writerId);
+
+    // Scalar tuples (id, updatedAt) of the other writers' rows, to spot changes without reading payloads
+    @Query("SELECT s.id, s.updatedAt FROM AuditSketch s WHERE s.sketchDate >= :from AND s.writerId <> :writerId")
+    List<Object[]> findOtherWriterVersions(@Param("from") LocalDate from, @Param("writerId") String writerId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuditSketch s WHERE s.sketchDate < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+}
@@ -1,14 +1,49 @@
 package com.htc.enter.repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.htc.enter.model.Client;
+import com.htc.enter.model.StoryRollup;
+import com.htc.enter.repository.projection.ClientRanking;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long>{
 
-	
-	
-	
+    // Clients ranked by project count, then story count; the page size is the LIMIT
+    @Query("SELECT c.client_id AS clientId, c.name AS clientName, COUNT(p) AS totalProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = true THEN 1 ELSE 0 END), 0) AS approvedProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = false AND p.deadline < :today THEN 1 ELSE 0 END), 0) AS overdueProjects, " +
+           "COALESCE(r.totalStories, 0) AS totalStories, COALESCE(r.approvedStories, 0) AS approvedStories " +
+           "FROM Client c LEFT JOIN Project p ON p.client_id = c " +
+           "LEFT JOIN StoryRollup r ON r.scopeType = :scopeType AND r.scopeId = c.client_id " +
+           "GROUP BY c.client_id, c.name, r.totalStories, r.approvedStories " +
+           "ORDER BY COUNT(p) DESC, COALESCE(r.totalStories, 0) DESC, c.client_id")
+    List<ClientRanking> findTopClients(@Param("today") LocalDate today,
+                                       @Param("scopeType") StoryRollup.ScopeType scopeType,
+                                       Pageable pageable);
+
+    @Query("SELECT c.client_id AS clientId, c.name AS clientName, COUNT(p) AS totalProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = true THEN 1 ELSE 0 END), 0) AS approvedProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = false AND p.deadline < :today THEN 1 ELSE 0 END), 0) AS overdueProjects, " +
+           "COALESCE(r.totalStories, 0) AS totalStories, COALESCE(r.approvedStories, 0) AS approvedStories " +
+           "FROM Client c LEFT JOIN Project p ON p.client_id = c " +
+           "LEFT JOIN StoryRollup r ON r.scopeType = :scopeType AND r.scopeId = c.client_id " +
+           "WHERE c.client_id = :clientId " +
+           "GROUP BY c.client_id, c.name, r.totalStories, r.approvedStories")
+    Optional<ClientRanking> findClientRanking(@Param("clientId") Long clientId,
+                                              @Param("today") LocalDate today,
+                                              @Param("scopeType") StoryRollup.ScopeType scopeType);
+
+    // Duplicate check on the unique normalized_name column; excludeId skips the client being updated
+    @Query("SELECT COUNT(c) > 0 FROM Client c WHERE c.normalizedName = :normalizedName AND c.client_id <> :excludeId")
+    boolean existsByNormalizedName(@Param("normalizedName") String normalizedName,
+                                   @Param("excludeId") Long excludeId);
 }
@@ -0,0 +1,22 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.DataVersion;
+
+@Repository
+public interface DataVersionRepository extends JpaRepository<DataVersion, String> {
+
+    // Atomic in-place add so nodes flushing at the same time never lose each other's writes
+    @Transactional
+    @Modifying
+    @Query("UPDATE DataVersion v SET v.version = v.version + :writes, v.updatedAt = :now WHERE v.name = :name")
+    int add(@Param("name") String name, @Param("writes") long writes, @Param("now") LocalDateTime now);
+}
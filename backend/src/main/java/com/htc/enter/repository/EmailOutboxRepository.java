@@ -0,0 +1,45 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.EmailOutboxMessage;
+import com.htc.enter.model.EmailOutboxMessage.Status;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt, m.id")
+    List<EmailOutboxMessage> findDue(@Param("status") Status status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    @Query("SELECT m.status, COUNT(m) FROM EmailOutboxMessage m GROUP BY m.status")
+    List<Object[]> countByStatus();
+
+    List<EmailOutboxMessage> findByStatusOrderByIdDesc(Status status, Pageable pageable);
+
+    // Puts a dead message back in the queue with a fresh set of attempts
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :pending, m.attempts = 0, " +
+           "m.nextAttemptAt = :now, m.lastError = NULL WHERE m.id = :id AND m.status = :dead")
+    int requeue(@Param("id") Long id,
+                @Param("now") LocalDateTime now,
+                @Param("pending") Status pending,
+                @Param("dead") Status dead);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :cutoff")
+    int deleteByStatusBefore(@Param("status") Status status, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.htc.enter.model.Epic;
+import com.htc.enter.repository.projection.EpicCounts;
 
 @Repository
 public interface EpicRepository extends JpaRepository<Epic, Long>{
@@ -17,5 +18,14 @@ public interface EpicRepository extends JpaRepository<Epic, Long>{
     
     @Query("SELECT e FROM Epic e WHERE e.projectId.projectId = :projectId")
     List<Epic> findByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT COUNT(e) AS total, " +
+           "COALESCE(SUM(CASE WHEN e.is_approved = true THEN 1 ELSE 0 END), 0) AS approved " +
+           "FROM Epic e WHERE e.projectId.projectId = :projectId")
+    EpicCounts countByProject(@Param("projectId") Long projectId);
+
+    // Scalar tuples (managerId, epicCount) over each manager's projects
+    @Query("SELECT p.manager_id.id, COUNT(e) FROM Epic e JOIN e.projectId p GROUP BY p.manager_id.id")
+    List<Object[]> countByManager();
     
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.JobLock;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    @Query("SELECT j.jobName FROM JobLock j WHERE j.nextRunAt <= :now " +
+           "AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    List<String> findDueJobNames(@Param("now") LocalDateTime now);
+
+    // Compare-and-set on the row: at most one node sees 1 for a given due run
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLock j SET j.owner = :owner, j.leaseUntil = :leaseUntil, j.lastStartedAt = :now " +
+           "WHERE j.jobName = :jobName AND j.nextRunAt <= :now " +
+           "AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int acquireRun(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Take a free or expired lease, or extend one this node already holds
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLock j SET j.owner = :owner, j.leaseUntil = :leaseUntil " +
+           "WHERE j.jobName = :jobName " +
+           "AND (j.owner = :owner OR j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int acquireLease(@Param("jobName") String jobName,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLock j SET j.leaseUntil = :leaseUntil WHERE j.jobName = :jobName AND j.owner = :owner")
+    int renewLease(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLock j SET j.owner = NULL, j.leaseUntil = NULL, j.lastOwner = :owner, " +
+           "j.lastFinishedAt = :finishedAt, j.lastDurationMs = :durationMs, " +
+           "j.lastStatus = :status, j.lastError = :error, j.nextRunAt = :nextRunAt, " +
+           "j.runCount = j.runCount + 1, j.failureCount = j.failureCount + :failed " +
+           "WHERE j.jobName = :jobName AND j.owner = :owner")
+    int completeRun(@Param("jobName") String jobName,
+                    @Param("owner") String owner,
+                    @Param("finishedAt") LocalDateTime finishedAt,
+                    @Param("durationMs") long durationMs,
+                    @Param("status") String status,
+                    @Param("error") String error,
+                    @Param("nextRunAt") LocalDateTime nextRunAt,
+                    @Param("failed") long failed);
+}
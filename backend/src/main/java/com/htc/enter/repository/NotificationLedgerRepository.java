@@ -0,0 +1,55 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.NotificationLedgerEntry;
+
+@Repository
+public interface NotificationLedgerRepository extends JpaRepository<NotificationLedgerEntry, Long> {
+
+    @Query("SELECT n.lastSentAt FROM NotificationLedgerEntry n " +
+           "WHERE n.storyId = :storyId AND n.kind = :kind AND n.ruleId = :ruleId")
+    Optional<LocalDateTime> findLastSentAt(@Param("storyId") Long storyId,
+                                           @Param("kind") NotificationLedgerEntry.Kind kind,
+                                           @Param("ruleId") Long ruleId);
+
+    List<NotificationLedgerEntry> findByKindAndStoryIdIn(NotificationLedgerEntry.Kind kind, Collection<Long> storyIds);
+
+    // Claims a reminder: matches only while the last send is older than :sentBefore, so one caller wins
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationLedgerEntry n SET n.lastSentAt = :lastSentAt " +
+           "WHERE n.storyId = :storyId AND n.kind = :kind AND n.ruleId = :ruleId AND n.lastSentAt <= :sentBefore")
+    int touchIfSentBefore(@Param("storyId") Long storyId,
+                          @Param("kind") NotificationLedgerEntry.Kind kind,
+                          @Param("ruleId") Long ruleId,
+                          @Param("lastSentAt") LocalDateTime lastSentAt,
+                          @Param("sentBefore") LocalDateTime sentBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationLedgerEntry n WHERE n.storyId = :storyId")
+    int deleteByStory(@Param("storyId") Long storyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationLedgerEntry n WHERE n.storyId = :storyId AND n.kind = :kind")
+    int deleteByStoryAndKind(@Param("storyId") Long storyId,
+                             @Param("kind") NotificationLedgerEntry.Kind kind);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationLedgerEntry n WHERE n.kind = :kind AND n.ruleId = :ruleId")
+    int deleteByKindAndRule(@Param("kind") NotificationLedgerEntry.Kind kind,
+                            @Param("ruleId") Long ruleId);
+}
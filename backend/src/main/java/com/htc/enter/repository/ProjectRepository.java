@@ -7,9 +7,12 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import com.htc.enter.model.Project;
+import com.htc.enter.repository.projection.DashboardCounts;
+import com.htc.enter.repository.projection.ManagerProjectCounts;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long>{
@@ -23,4 +26,35 @@ public interface ProjectRepository extends JpaRepository<Project, Long>{
     @Query("SELECT p FROM Project p WHERE p.client_id.client_id = :clientId")
     List<Project> findByClientId(@Param("clientId") Long clientId);
 
-}
\ No newline at end of file
+    // Dashboard project counts plus epic/client/user totals in a single round trip
+    @Query("SELECT COUNT(p) AS totalProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = true THEN 1 ELSE 0 END), 0) AS approvedProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = false AND p.deadline < :today THEN 1 ELSE 0 END), 0) AS overdueProjects, " +
+           "(SELECT COUNT(e) FROM Epic e) AS totalEpics, " +
+           "(SELECT COUNT(c) FROM Client c) AS totalClients, " +
+           "(SELECT COUNT(u) FROM User u) AS totalUsers " +
+           "FROM Project p")
+    DashboardCounts aggregateDashboardCounts(@Param("today") LocalDate today);
+
+    // Per-manager project counters for the scoped dashboard snapshots
+    @Query("SELECT p.manager_id.id AS managerId, COUNT(p) AS totalProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = true THEN 1 ELSE 0 END), 0) AS approvedProjects, " +
+           "COALESCE(SUM(CASE WHEN p.is_approved = false AND p.deadline < :today THEN 1 ELSE 0 END), 0) AS overdueProjects, " +
+           "COUNT(DISTINCT p.client_id) AS totalClients " +
+           "FROM Project p GROUP BY p.manager_id.id")
+    List<ManagerProjectCounts> aggregateByManager(@Param("today") LocalDate today);
+
+    // Duplicate check on the indexed (clientId, normalized_name) pair; excludeId skips the project being updated
+    @Query("SELECT COUNT(p) > 0 FROM Project p WHERE p.client_id.client_id = :clientId " +
+           "AND p.normalizedName = :normalizedName AND p.projectId <> :excludeId")
+    boolean existsByClientAndNormalizedName(@Param("clientId") Long clientId,
+                                            @Param("normalizedName") String normalizedName,
+                                            @Param("excludeId") Long excludeId);
+
+    @Query("SELECT COUNT(p) > 0 FROM Project p WHERE p.client_id.client_id = :clientId")
+    boolean existsByClientId(@Param("clientId") Long clientId);
+
+    // Scalar tuples (projectId, managerId) used to load the access-control index
+    @Query("SELECT p.projectId, m.id FROM Project p LEFT JOIN p.manager_id m")
+    List<Object[]> findManagerAssignments();
+}
@@ -0,0 +1,22 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.htc.enter.model.ProjectSnapshot;
+
+@Repository
+public interface ProjectSnapshotRepository extends JpaRepository<ProjectSnapshot, Long> {
+
+    // Burndown series: a single range scan on the (project_id, snapshot_date) index
+    List<ProjectSnapshot> findByProjectIdAndSnapshotDateBetweenOrderBySnapshotDate(
+            Long projectId, LocalDate from, LocalDate to);
+
+    Optional<ProjectSnapshot> findByProjectIdAndSnapshotDate(Long projectId, LocalDate snapshotDate);
+
+    List<ProjectSnapshot> findBySnapshotDate(LocalDate snapshotDate);
+}
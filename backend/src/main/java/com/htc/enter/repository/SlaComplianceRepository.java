@@ -0,0 +1,44 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.SlaCompliance;
+import com.htc.enter.repository.projection.SlaComplianceRow;
+
+@Repository
+public interface SlaComplianceRepository extends JpaRepository<SlaCompliance, Long> {
+
+    Optional<SlaCompliance> findByProjectId(Long projectId);
+
+    boolean existsByProjectId(Long projectId);
+
+    @Query("SELECT c.projectId AS projectId, p.name AS projectName, c.trackedCount AS tracked, " +
+           "c.completedCount AS completed, c.breachedCount AS breached " +
+           "FROM SlaCompliance c LEFT JOIN Project p ON p.projectId = c.projectId " +
+           "WHERE c.trackedCount > 0 ORDER BY c.breachedCount DESC, c.projectId")
+    List<SlaComplianceRow> findReport();
+
+    // Atomic in-place increment so concurrent story writes never lose an update
+    @Transactional
+    @Modifying
+    @Query("UPDATE SlaCompliance c SET " +
+           "c.trackedCount = c.trackedCount + :tracked, " +
+           "c.completedCount = c.completedCount + :completed, " +
+           "c.breachedCount = c.breachedCount + :breached, " +
+           "c.updatedAt = :now " +
+           "WHERE c.projectId = :projectId")
+    int applyDelta(@Param("projectId") Long projectId,
+                   @Param("tracked") long tracked,
+                   @Param("completed") long completed,
+                   @Param("breached") long breached,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,9 +1,24 @@
 package com.htc.enter.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.htc.enter.model.SlaRule;
 
 public interface SlaRuleRepository extends JpaRepository<SlaRule, Long> {
 
+    // Rules bound to the story's epic, plus project-wide rules that name no epic
+    @Query("SELECT r FROM SlaRule r WHERE " +
+           "(:epicId IS NOT NULL AND r.state.epicId = :epicId) OR " +
+           "(:projectId IS NOT NULL AND r.state IS NULL AND r.project.projectId = :projectId)")
+    List<SlaRule> findApplicable(@Param("epicId") Long epicId, @Param("projectId") Long projectId);
+
+    // Scalar tuples (slaId, epicId, projectId, durationHours) of rules that notify by email
+    @Query("SELECT r.slaId, e.epicId, p.projectId, r.durationHours FROM SlaRule r " +
+           "LEFT JOIN r.state e LEFT JOIN r.project p WHERE r.notifyEmail = true")
+    List<Object[]> findNotifyingRuleKeys();
+
 }
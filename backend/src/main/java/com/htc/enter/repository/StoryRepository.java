@@ -1,13 +1,29 @@
 package com.htc.enter.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.htc.enter.event.StorySnapshot;
 import com.htc.enter.model.Story;
+import com.htc.enter.repository.projection.ManagerStoryCounts;
+import com.htc.enter.repository.projection.ProjectSnapshotRow;
+import com.htc.enter.repository.projection.ProjectStoryAggregate;
+import com.htc.enter.repository.projection.SlaStoryRow;
+import com.htc.enter.repository.projection.StoryRollupRow;
+import com.htc.enter.repository.projection.StoryStatusCounts;
+import com.htc.enter.repository.projection.UserWorkloadRow;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface StoryRepository extends JpaRepository<Story, Long> {
@@ -15,4 +31,222 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
     @Query("SELECT s FROM Story s WHERE s.EpicId.epicId = :epicId")
     List<Story> findByEpicId(@Param("epicId") Long epicId);
 
-}
\ No newline at end of file
+    // Database state of one story as a detached snapshot. Pending changes are not flushed
+    // first, so edits a caller made to the managed entity do not leak into the result.
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("SELECT new com.htc.enter.event.StorySnapshot(s.storyId, p.projectId, e.epicId, c.client_id, u.id, " +
+           "s.dueDate, s.is_approved, s.is_end, s.estimatedHours, s.actualHours, s.createdAt) " +
+           "FROM Story s LEFT JOIN s.projectId p LEFT JOIN p.client_id c LEFT JOIN s.EpicId e " +
+           "LEFT JOIN s.assigned_to u WHERE s.storyId = :storyId")
+    Optional<StorySnapshot> findSnapshotById(@Param("storyId") long storyId);
+
+    // Dashboard story counts computed in the database (single row, no entities loaded)
+    @Query("SELECT COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(CASE WHEN s.assigned_to IS NOT NULL THEN 1 ELSE 0 END), 0) AS assigned, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false AND s.dueDate < :today THEN 1 ELSE 0 END), 0) AS overdue " +
+           "FROM Story s")
+    StoryStatusCounts aggregateStatusCounts(@Param("today") LocalDate today);
+
+    // The same counters grouped by the manager of each story's project
+    @Query("SELECT p.manager_id.id AS managerId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(CASE WHEN u IS NOT NULL THEN 1 ELSE 0 END), 0) AS assigned, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false AND s.dueDate < :today THEN 1 ELSE 0 END), 0) AS overdue, " +
+           "COUNT(DISTINCT u.id) AS assignees " +
+           "FROM Story s JOIN s.projectId p LEFT JOIN s.assigned_to u GROUP BY p.manager_id.id")
+    List<ManagerStoryCounts> aggregateStatusByManager(@Param("today") LocalDate today);
+
+    // Grouped counters used to rebuild the story rollup table
+    @Query("SELECT s.EpicId.epicId AS scopeId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours, " +
+           "COALESCE(SUM(s.actualHours), 0) AS actualHours " +
+           "FROM Story s GROUP BY s.EpicId.epicId")
+    List<StoryRollupRow> rollupByEpic();
+
+    @Query("SELECT s.projectId.projectId AS scopeId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours, " +
+           "COALESCE(SUM(s.actualHours), 0) AS actualHours " +
+           "FROM Story s GROUP BY s.projectId.projectId")
+    List<StoryRollupRow> rollupByProject();
+
+    @Query("SELECT s.projectId.client_id.client_id AS scopeId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours, " +
+           "COALESCE(SUM(s.actualHours), 0) AS actualHours " +
+           "FROM Story s GROUP BY s.projectId.client_id.client_id")
+    List<StoryRollupRow> rollupByClient();
+
+    // Overdue counts move with the calendar, so they are counted live rather than kept in the rollup
+    @Query("SELECT COUNT(s) FROM Story s WHERE s.EpicId.epicId = :epicId " +
+           "AND s.is_approved = false AND s.dueDate < :today")
+    long countOverdueInEpic(@Param("epicId") Long epicId, @Param("today") LocalDate today);
+
+    @Query("SELECT COUNT(s) FROM Story s WHERE s.projectId.projectId = :projectId " +
+           "AND s.is_approved = false AND s.dueDate < :today")
+    long countOverdueInProject(@Param("projectId") Long projectId, @Param("today") LocalDate today);
+
+    @Query("SELECT COUNT(s) FROM Story s WHERE s.projectId.client_id.client_id = :clientId " +
+           "AND s.is_approved = false AND s.dueDate < :today")
+    long countOverdueForClient(@Param("clientId") Long clientId, @Param("today") LocalDate today);
+
+    // Scalar tuples (epicId, overdue count) for a batch of epics
+    @Query("SELECT s.EpicId.epicId, COUNT(s) FROM Story s WHERE s.EpicId.epicId IN :epicIds " +
+           "AND s.is_approved = false AND s.dueDate < :today GROUP BY s.EpicId.epicId")
+    List<Object[]> countOverdueByEpic(@Param("epicIds") Collection<Long> epicIds, @Param("today") LocalDate today);
+
+    // Scalar tuples (createdAt, projectId, assigneeId) used to backfill activity buckets
+    @Query("SELECT s.createdAt, p.projectId, u.id FROM Story s " +
+           "LEFT JOIN s.projectId p LEFT JOIN s.assigned_to u")
+    List<Object[]> findCreationActivity();
+
+    // Scalar tuples (completion date, projectId, assigneeId) for approved stories
+    @Query("SELECT s.is_end, p.projectId, u.id FROM Story s " +
+           "LEFT JOIN s.projectId p LEFT JOIN s.assigned_to u WHERE s.is_approved = true")
+    List<Object[]> findApprovalActivity();
+
+    // Current totals per project, captured into the daily project snapshot
+    @Query("SELECT s.projectId.projectId AS projectId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS completed, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN s.estimatedHours ELSE 0 END), 0) AS remainingEstimatedHours, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN s.estimatedHours ELSE 0 END), 0) AS completedEstimatedHours " +
+           "FROM Story s GROUP BY s.projectId.projectId")
+    List<ProjectSnapshotRow> snapshotByProject();
+
+    @Query("SELECT s.projectId.projectId AS projectId, COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS completed, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN s.estimatedHours ELSE 0 END), 0) AS remainingEstimatedHours, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN s.estimatedHours ELSE 0 END), 0) AS completedEstimatedHours " +
+           "FROM Story s WHERE s.projectId.projectId = :projectId GROUP BY s.projectId.projectId")
+    Optional<ProjectSnapshotRow> snapshotForProject(@Param("projectId") Long projectId);
+
+    // Per-assignee workload counters, one row per user with at least one story
+    @Query("SELECT u.id AS userId, u.username AS username, u.email AS email, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END), 0) AS openStories, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS closedStories, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours " +
+           "FROM Story s JOIN s.assigned_to u GROUP BY u.id, u.username, u.email")
+    List<UserWorkloadRow> workloadByAssignee();
+
+    @Query("SELECT u.id AS userId, u.username AS username, u.email AS email, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END), 0) AS openStories, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS closedStories, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours " +
+           "FROM Story s JOIN s.assigned_to u WHERE u.id = :userId GROUP BY u.id, u.username, u.email")
+    Optional<UserWorkloadRow> workloadForUser(@Param("userId") Long userId);
+
+    // Users with more than :threshold open stories; filtering happens in the database
+    @Query("SELECT u.id AS userId, u.username AS username, u.email AS email, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END), 0) AS openStories, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS closedStories, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours " +
+           "FROM Story s JOIN s.assigned_to u GROUP BY u.id, u.username, u.email " +
+           "HAVING SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END) > :threshold " +
+           "ORDER BY openStories DESC")
+    List<UserWorkloadRow> findOverloadedUsers(@Param("threshold") long threshold);
+
+    // Users with fewer than :threshold open stories, including users with no stories at all
+    @Query("SELECT u.id AS userId, u.username AS username, u.email AS email, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END), 0) AS openStories, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS closedStories, " +
+           "COALESCE(SUM(s.estimatedHours), 0) AS estimatedHours " +
+           "FROM User u LEFT JOIN Story s ON s.assigned_to = u GROUP BY u.id, u.username, u.email " +
+           "HAVING COALESCE(SUM(CASE WHEN s.is_approved = false THEN 1 ELSE 0 END), 0) < :threshold " +
+           "ORDER BY openStories ASC")
+    List<UserWorkloadRow> findUnderutilizedUsers(@Param("threshold") long threshold);
+
+    // Every per-project analytics figure in one pass over the project's stories (through epic)
+    @Query("SELECT COUNT(s) AS total, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true THEN 1 ELSE 0 END), 0) AS approved, " +
+           "COALESCE(SUM(CASE WHEN s.estimatedHours IS NOT NULL AND s.actualHours IS NOT NULL THEN 1 ELSE 0 END), 0) AS trackedStories, " +
+           "COALESCE(SUM(CASE WHEN s.estimatedHours IS NOT NULL AND s.actualHours IS NOT NULL THEN s.estimatedHours ELSE 0 END), 0) AS trackedEstimatedHours, " +
+           "COALESCE(SUM(CASE WHEN s.estimatedHours IS NOT NULL AND s.actualHours IS NOT NULL THEN s.actualHours ELSE 0 END), 0) AS trackedActualHours, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true AND s.dueDate IS NOT NULL THEN 1 ELSE 0 END), 0) AS deliveredWithDueDate, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = true AND s.dueDate IS NOT NULL AND s.is_end IS NOT NULL AND s.is_end <= s.dueDate THEN 1 ELSE 0 END), 0) AS deliveredOnTime, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false AND s.dueDate < :highRiskBefore THEN 1 ELSE 0 END), 0) AS highRisk, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false AND s.dueDate >= :highRiskBefore AND s.dueDate < :mediumRiskBefore THEN 1 ELSE 0 END), 0) AS mediumRisk, " +
+           "COALESCE(SUM(CASE WHEN s.is_approved = false AND s.dueDate >= :mediumRiskBefore THEN 1 ELSE 0 END), 0) AS lowRisk " +
+           "FROM Story s WHERE s.EpicId.projectId.projectId = :projectId")
+    ProjectStoryAggregate aggregateForProject(@Param("projectId") Long projectId,
+                                              @Param("highRiskBefore") LocalDate highRiskBefore,
+                                              @Param("mediumRiskBefore") LocalDate mediumRiskBefore);
+
+    // Scalar tuples used to load the in-memory story index:
+    // (storyId, projectId, epicId, assigneeId, dueDate, approved, estimatedHours, actualHours)
+    @Query("SELECT s.storyId, p.projectId, e.epicId, u.id, s.dueDate, s.is_approved, s.estimatedHours, s.actualHours " +
+           "FROM Story s LEFT JOIN s.projectId p LEFT JOIN s.EpicId e LEFT JOIN s.assigned_to u")
+    List<Object[]> findIndexColumns();
+
+    // Scalar tuples (storyId, projectId, assigneeId) used to load the access-control index
+    @Query("SELECT s.storyId, p.projectId, u.id FROM Story s LEFT JOIN s.projectId p LEFT JOIN s.assigned_to u")
+    List<Object[]> findAssignmentColumns();
+
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM Story s " +
+           "WHERE s.projectId.projectId = :projectId AND s.assigned_to.id = :userId")
+    boolean existsByProjectAndAssignee(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    // Scalar tuples (storyId, dueDate) of open stories due on or after :from, for the deadline scheduler
+    @Query("SELECT s.storyId, s.dueDate FROM Story s WHERE s.is_approved = false AND s.dueDate >= :from")
+    List<Object[]> findOpenDueDatesFrom(@Param("from") LocalDate from);
+
+    @Query("SELECT s FROM Story s WHERE s.is_approved = false AND s.dueDate >= :from AND s.dueDate < :before")
+    List<Story> findOpenDueBetween(@Param("from") LocalDate from, @Param("before") LocalDate before);
+
+    @Query("SELECT COALESCE(SUM(s.estimatedHours), 0) FROM Story s " +
+           "WHERE s.is_approved = false AND s.assigned_to.id = :userId")
+    double sumOpenEstimatedHours(@Param("userId") Long userId);
+
+    // Estimated hours not yet covered by actuals, across all open stories
+    @Query("SELECT COALESCE(SUM(CASE WHEN s.estimatedHours > COALESCE(s.actualHours, 0) " +
+           "THEN s.estimatedHours - COALESCE(s.actualHours, 0) ELSE 0 END), 0) FROM Story s " +
+           "WHERE s.is_approved = false AND s.estimatedHours IS NOT NULL")
+    double sumOpenRemainingHours();
+
+    // Scalar tuples for the bottleneck forecast, open estimated work only:
+    // (assigneeId, username, projectId, projectName, dueDate, estimatedHours, actualHours)
+    @Query("SELECT u.id, u.username, p.projectId, p.name, s.dueDate, s.estimatedHours, s.actualHours " +
+           "FROM Story s JOIN s.assigned_to u LEFT JOIN s.projectId p " +
+           "WHERE s.is_approved = false AND s.estimatedHours IS NOT NULL")
+    List<Object[]> findOpenWorkTuples();
+
+    // Stories an SLA rule is evaluated against, by the rule's epic or, for project-wide rules, its project
+    @Query("SELECT s.storyId AS storyId, p.projectId AS projectId, s.createdAt AS createdAt, " +
+           "s.is_approved AS approved, s.is_end AS endDate " +
+           "FROM Story s JOIN s.projectId p WHERE s.EpicId.epicId = :epicId")
+    List<SlaStoryRow> findSlaCandidatesByEpic(@Param("epicId") Long epicId);
+
+    @Query("SELECT s.storyId AS storyId, p.projectId AS projectId, s.createdAt AS createdAt, " +
+           "s.is_approved AS approved, s.is_end AS endDate " +
+           "FROM Story s JOIN s.projectId p WHERE p.projectId = :projectId")
+    List<SlaStoryRow> findSlaCandidatesByProject(@Param("projectId") Long projectId);
+
+    // Scalar tuples (storyId, epicId, projectId, createdAt) of open stories in the given epics or projects
+    // that are old enough to have outlived at least one rule
+    @Query("SELECT s.storyId, e.epicId, p.projectId, s.createdAt FROM Story s " +
+           "LEFT JOIN s.EpicId e LEFT JOIN s.projectId p " +
+           "WHERE s.is_approved = false AND s.createdAt < :createdBefore " +
+           "AND (e.epicId IN :epicIds OR p.projectId IN :projectIds)")
+    List<Object[]> findOpenSlaCandidates(@Param("epicIds") Collection<Long> epicIds,
+                                         @Param("projectIds") Collection<Long> projectIds,
+                                         @Param("createdBefore") LocalDateTime createdBefore);
+
+    // Historical actual/estimate ratios of approved stories, for completion forecasting
+    @Query("SELECT s.actualHours / s.estimatedHours FROM Story s " +
+           "WHERE s.is_approved = true AND s.estimatedHours > 0 AND s.actualHours > 0 " +
+           "AND s.projectId.projectId = :projectId")
+    List<Double> findEstimateRatiosForProject(@Param("projectId") Long projectId);
+
+    // Most recently closed first, so a page holds the latest history; stories without an end date sort last
+    @Query("SELECT s.actualHours / s.estimatedHours FROM Story s " +
+           "WHERE s.is_approved = true AND s.estimatedHours > 0 AND s.actualHours > 0 " +
+           "ORDER BY s.is_end DESC NULLS LAST, s.updatedAt DESC, s.storyId DESC")
+    List<Double> findEstimateRatios(Pageable pageable);
+
+    // Scalar tuples (estimatedHours, actualHours) of the project's open stories
+    @Query("SELECT s.estimatedHours, s.actualHours FROM Story s " +
+           "WHERE s.is_approved = false AND s.projectId.projectId = :projectId")
+    List<Object[]> findOpenHoursForProject(@Param("projectId") Long projectId);
+
+}
@@ -0,0 +1,69 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.StoryRollup;
+
+@Repository
+public interface StoryRollupRepository extends JpaRepository<StoryRollup, Long> {
+
+    Optional<StoryRollup> findByScopeTypeAndScopeId(StoryRollup.ScopeType scopeType, Long scopeId);
+
+    boolean existsByScopeTypeAndScopeId(StoryRollup.ScopeType scopeType, Long scopeId);
+
+    List<StoryRollup> findByScopeTypeAndScopeIdIn(StoryRollup.ScopeType scopeType, Collection<Long> scopeIds);
+
+    // Atomic in-place increment so concurrent story writes never lose an update
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoryRollup r SET " +
+           "r.totalStories = r.totalStories + :total, " +
+           "r.approvedStories = r.approvedStories + :approved, " +
+           "r.estimatedHours = r.estimatedHours + :estimatedHours, " +
+           "r.actualHours = r.actualHours + :actualHours, " +
+           "r.updatedAt = :now " +
+           "WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId")
+    int applyDelta(@Param("scopeType") StoryRollup.ScopeType scopeType,
+                   @Param("scopeId") Long scopeId,
+                   @Param("total") long total,
+                   @Param("approved") long approved,
+                   @Param("estimatedHours") double estimatedHours,
+                   @Param("actualHours") double actualHours,
+                   @Param("now") LocalDateTime now);
+
+    // Absolute overwrite used by the rebuild, so it never has to delete rows under live writers
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoryRollup r SET " +
+           "r.totalStories = :total, " +
+           "r.approvedStories = :approved, " +
+           "r.estimatedHours = :estimatedHours, " +
+           "r.actualHours = :actualHours, " +
+           "r.updatedAt = :now " +
+           "WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId")
+    int overwrite(@Param("scopeType") StoryRollup.ScopeType scopeType,
+                  @Param("scopeId") Long scopeId,
+                  @Param("total") long total,
+                  @Param("approved") long approved,
+                  @Param("estimatedHours") double estimatedHours,
+                  @Param("actualHours") double actualHours,
+                  @Param("now") LocalDateTime now);
+
+    // Scopes that no longer have stories, i.e. neither rebuilt nor written since the rebuild began
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoryRollup r SET r.totalStories = 0, r.approvedStories = 0, " +
+           "r.estimatedHours = 0, r.actualHours = 0, r.updatedAt = :now " +
+           "WHERE r.updatedAt < :since")
+    int zeroNotUpdatedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,44 @@
+package com.htc.enter.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.StorySlaStatus;
+import com.htc.enter.repository.projection.ProjectCount;
+
+@Repository
+public interface StorySlaStatusRepository extends JpaRepository<StorySlaStatus, Long> {
+
+    List<StorySlaStatus> findByStoryId(Long storyId);
+
+    List<StorySlaStatus> findBySlaId(Long slaId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StorySlaStatus s WHERE s.storyId = :storyId")
+    int deleteByStoryId(@Param("storyId") Long storyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StorySlaStatus s WHERE s.slaId = :slaId")
+    int deleteBySlaId(@Param("slaId") Long slaId);
+
+    // Open evaluations whose due instant has passed since the last sweep
+    @Query("SELECT s.projectId AS projectId, COUNT(s) AS count FROM StorySlaStatus s " +
+           "WHERE s.completed = false AND s.breached = false AND s.dueAt < :now " +
+           "GROUP BY s.projectId")
+    List<ProjectCount> countNewBreaches(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StorySlaStatus s SET s.breached = true, s.evaluatedAt = :now " +
+           "WHERE s.completed = false AND s.breached = false AND s.dueAt < :now")
+    int markBreached(@Param("now") LocalDateTime now);
+}
@@ -1,6 +1,7 @@
 package com.htc.enter.repository;
 
 import com.htc.enter.model.TimeLog;
+import com.htc.enter.repository.projection.UserHoursRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,4 +31,17 @@ public interface TimeLogRepository extends JpaRepository<TimeLog, Long> {
     Double getTotalHoursForUser(@Param("userId") Long userId, 
                                  @Param("startDate") LocalDateTime startDate, 
                                  @Param("endDate") LocalDateTime endDate);
+    
+    // Scalar tuples (workDate, projectId, userId, hours) used to backfill activity buckets
+    @Query("SELECT tl.workDate, p.projectId, u.id, tl.hoursWorked FROM TimeLog tl " +
+           "JOIN tl.user u JOIN tl.story s LEFT JOIN s.projectId p")
+    List<Object[]> findLoggedHoursActivity();
+    
+    @Query("SELECT tl.user.id AS userId, COALESCE(SUM(tl.hoursWorked), 0) AS hours FROM TimeLog tl " +
+           "WHERE tl.workDate >= :from GROUP BY tl.user.id")
+    List<UserHoursRow> sumHoursByUserSince(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT tl.user.id AS userId, COALESCE(SUM(tl.hoursWorked), 0) AS hours FROM TimeLog tl " +
+           "WHERE tl.workDate >= :from AND tl.workDate < :to GROUP BY tl.user.id")
+    List<UserHoursRow> sumHoursByUserBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -3,6 +3,8 @@ package com.htc.enter.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.htc.enter.model.User;
@@ -11,4 +13,10 @@ import com.htc.enter.model.User;
 public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+    boolean existsByNormalizedEmail(String normalizedEmail);
+
+    // Access level alone, without loading the joined user subclass tables
+    @Query("SELECT u.access_level FROM User u WHERE u.id = :userId")
+    Optional<Integer> findAccessLevelById(@Param("userId") Long userId);
 }
\ No newline at end of file
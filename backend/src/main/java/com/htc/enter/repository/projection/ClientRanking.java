@@ -0,0 +1,22 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Per-client project and story totals, as used for client ranking.
+ * Story totals come from the client story rollup, so no stories are scanned.
+ */
+public interface ClientRanking {
+
+    Long getClientId();
+
+    String getClientName();
+
+    long getTotalProjects();
+
+    long getApprovedProjects();
+
+    long getOverdueProjects();
+
+    long getTotalStories();
+
+    long getApprovedStories();
+}
@@ -0,0 +1,20 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Single-row aggregate of project status counts together with the
+ * epic, client and user totals needed by the dashboard.
+ */
+public interface DashboardCounts {
+
+    long getTotalProjects();
+
+    long getApprovedProjects();
+
+    long getOverdueProjects();
+
+    long getTotalEpics();
+
+    long getTotalClients();
+
+    long getTotalUsers();
+}
@@ -0,0 +1,11 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Single-row epic counts for one project.
+ */
+public interface EpicCounts {
+
+    long getTotal();
+
+    long getApproved();
+}
@@ -0,0 +1,17 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Project counters for the projects of one manager.
+ */
+public interface ManagerProjectCounts {
+
+    Long getManagerId();
+
+    long getTotalProjects();
+
+    long getApprovedProjects();
+
+    long getOverdueProjects();
+
+    long getTotalClients();
+}
@@ -0,0 +1,12 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Story status counters for the projects of one manager,
+ * plus the number of distinct users assigned to those stories.
+ */
+public interface ManagerStoryCounts extends StoryStatusCounts {
+
+    Long getManagerId();
+
+    long getAssignees();
+}
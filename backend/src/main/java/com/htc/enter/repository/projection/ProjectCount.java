@@ -0,0 +1,11 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * A row count grouped by project id.
+ */
+public interface ProjectCount {
+
+    Long getProjectId();
+
+    long getCount();
+}
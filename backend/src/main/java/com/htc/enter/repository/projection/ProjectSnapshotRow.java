@@ -0,0 +1,17 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Current story totals for one project, as captured into a daily snapshot.
+ */
+public interface ProjectSnapshotRow {
+
+    Long getProjectId();
+
+    long getTotal();
+
+    long getCompleted();
+
+    double getRemainingEstimatedHours();
+
+    double getCompletedEstimatedHours();
+}
@@ -0,0 +1,28 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Single-row aggregate of every story in a project (reached through its epics),
+ * shared by the project analytics, estimation, on-time and risk endpoints.
+ */
+public interface ProjectStoryAggregate {
+
+    long getTotal();
+
+    long getApproved();
+
+    long getTrackedStories();
+
+    double getTrackedEstimatedHours();
+
+    double getTrackedActualHours();
+
+    long getDeliveredWithDueDate();
+
+    long getDeliveredOnTime();
+
+    long getHighRisk();
+
+    long getMediumRisk();
+
+    long getLowRisk();
+}
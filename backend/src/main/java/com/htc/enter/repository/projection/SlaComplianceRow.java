@@ -0,0 +1,17 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * SLA counters for one project, with the project name for reporting.
+ */
+public interface SlaComplianceRow {
+
+    Long getProjectId();
+
+    String getProjectName();
+
+    long getTracked();
+
+    long getCompleted();
+
+    long getBreached();
+}
@@ -0,0 +1,20 @@
+package com.htc.enter.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The story fields an SLA rule is evaluated against.
+ */
+public interface SlaStoryRow {
+
+    Long getStoryId();
+
+    Long getProjectId();
+
+    LocalDateTime getCreatedAt();
+
+    boolean isApproved();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,17 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * One grouped row of story counters, keyed by epic, project or client id.
+ */
+public interface StoryRollupRow {
+
+    Long getScopeId();
+
+    long getTotal();
+
+    long getApproved();
+
+    double getEstimatedHours();
+
+    double getActualHours();
+}
@@ -0,0 +1,16 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Single-row aggregate of story status counts.
+ * Backed by a grouped COUNT/SUM query so no Story entities are materialized.
+ */
+public interface StoryStatusCounts {
+
+    long getTotal();
+
+    long getApproved();
+
+    long getAssigned();
+
+    long getOverdue();
+}
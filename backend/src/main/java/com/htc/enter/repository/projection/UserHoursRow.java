@@ -0,0 +1,11 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Hours logged by one user over a period.
+ */
+public interface UserHoursRow {
+
+    Long getUserId();
+
+    double getHours();
+}
@@ -0,0 +1,19 @@
+package com.htc.enter.repository.projection;
+
+/**
+ * Story counters for one assignee.
+ */
+public interface UserWorkloadRow {
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getEmail();
+
+    long getOpenStories();
+
+    long getClosedStories();
+
+    double getEstimatedHours();
+}
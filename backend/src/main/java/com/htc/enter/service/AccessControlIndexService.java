@@ -0,0 +1,52 @@
+package com.htc.enter.service;
+
+import java.util.Collection;
+
+import com.htc.enter.util.IdBitmap;
+
+/**
+ * Access Control Index Service for Elara
+ * 
+ * In-memory access lists kept as compressed id bitmaps per user: the projects
+ * a user manages, the stories assigned to them and the projects those stories
+ * belong to. Maintained from committed project and story changes, so access
+ * checks and list filtering become bitmap lookups and intersections.
+ * Callers must check isCurrent() before relying on the index and fall back to
+ * repository queries otherwise.
+ */
+public interface AccessControlIndexService {
+
+    /**
+     * True if the index is loaded and reflects every change committed on any
+     * node. Costs one single-row read; a stale index schedules its own reload.
+     */
+    boolean isCurrent();
+
+    boolean projectExists(long projectId);
+
+    boolean storyExists(long storyId);
+
+    /**
+     * True if the user manages the project or has a story assigned in it
+     */
+    boolean isProjectMember(long userId, long projectId);
+
+    boolean isStoryAssignee(long userId, long storyId);
+
+    /**
+     * Existing project ids among the given ones
+     */
+    IdBitmap existingProjects(Collection<Long> projectIds);
+
+    IdBitmap existingStories(Collection<Long> storyIds);
+
+    /**
+     * Project ids among the given ones the user manages or has stories in
+     */
+    IdBitmap memberProjects(long userId, Collection<Long> projectIds);
+
+    /**
+     * Story ids among the given ones assigned to the user
+     */
+    IdBitmap assignedStories(long userId, Collection<Long> storyIds);
+}
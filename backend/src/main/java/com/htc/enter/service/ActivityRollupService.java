@@ -0,0 +1,49 @@
+package com.htc.enter.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.htc.enter.dto.ActivityPoint;
+import com.htc.enter.model.ActivityBucket.ScopeType;
+
+/**
+ * Activity Rollup Service for Elara
+ * 
+ * Keeps day and month buckets of stories created, stories approved and
+ * hours logged for the whole system, each project and each user.
+ * Buckets are fed from story and time log writes, so trend queries never
+ * touch the story or time log tables. Day buckets older than the retention
+ * window are compacted into month buckets by a nightly job.
+ */
+public interface ActivityRollupService {
+
+    /**
+     * One point per calendar month, oldest first, ending with the current month
+     */
+    List<ActivityPoint> getMonthlyTrend(ScopeType scopeType, Long scopeId, int months);
+
+    /**
+     * One point per day between from and to (inclusive).
+     * Days older than the retention window only survive as month totals; those are
+     * spread evenly over the compacted days of the month, so individual days there
+     * are approximate while whole-month sums stay exact.
+     */
+    List<ActivityPoint> getDailyActivity(ScopeType scopeType, Long scopeId, LocalDate from, LocalDate to);
+
+    /**
+     * Totals between from and to (inclusive). Whole months that have been compacted
+     * count exactly; a compacted month only partly inside the range is prorated by
+     * the days it covers.
+     */
+    ActivityPoint getActivityTotal(ScopeType scopeType, Long scopeId, LocalDate from, LocalDate to);
+
+    /**
+     * Fold day buckets older than the retention window into month buckets
+     */
+    void compact();
+
+    /**
+     * Recompute every bucket from the story and time log tables
+     */
+    void rebuild();
+}
@@ -4,6 +4,9 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import com.htc.enter.dto.DashboardMetrics;
+import com.htc.enter.repository.projection.ClientRanking;
+
 /**
  * Analytics Service for Elara
  * 
@@ -15,8 +18,9 @@ public interface AnalyticsService {
     /**
      * Dashboard metrics
      */
-    Map<String, Object> getDashboardMetrics();
+    DashboardMetrics getDashboardMetrics();
     Map<String, Object> getProjectAnalytics(Long projectId);
+    Map<String, Object> getProjectSummary(Long projectId);
     Map<String, Object> getTeamAnalytics();
     Map<String, Object> getUserAnalytics(Long userId);
     
@@ -33,6 +37,8 @@ public interface AnalyticsService {
     Map<String, Object> getTeamPerformanceMetrics();
     Double calculateVelocity(Long projectId);
     Double calculateBurndownRate(Long projectId);
+    Map<String, Object> getBurndown(Long projectId, int days);
+    Map<String, Object> getCompletionForecast(Long projectId);
     Map<String, Object> getEstimationAccuracy(Long projectId);
     
     /**
@@ -50,12 +56,14 @@ public interface AnalyticsService {
     Map<String, Object> getQualityMetrics(Long projectId);
     List<Map<String, Object>> getHighRiskStories();
     Map<String, Object> getRiskAnalysis(Long projectId);
+    Map<String, Object> getSLACompliance();
+    Double getSLAComplianceRate(Long projectId);
     
     /**
      * Client analytics
      */
     Map<String, Object> getClientMetrics(Long clientId);
-    List<Map<String, Object>> getTopClients(int limit);
+    List<ClientRanking> getTopClients(int limit);
     Map<String, Object> getClientSatisfactionMetrics();
     
     /**
@@ -0,0 +1,19 @@
+package com.htc.enter.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Analytics Stream Service for Elara
+ * 
+ * Live dashboard feed over Server-Sent Events. Each connection first receives
+ * a full "snapshot" of the dashboard metrics, then "delta" events carrying
+ * signed counter changes (e.g. approvedStories: +1) derived from committed
+ * story and project writes. Deltas are coalesced per connection and flushed
+ * at most once per flush interval.
+ */
+public interface AnalyticsStreamService {
+
+    SseEmitter subscribe();
+
+    int getConnectionCount();
+}
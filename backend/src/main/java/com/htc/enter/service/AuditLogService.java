@@ -28,6 +28,9 @@ public class AuditLogService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AuditSketchService auditSketchService;
+
     /**
      * Log an audit entry asynchronously
      * Captures entity changes with before/after snapshots and field-by-field diffs
@@ -76,6 +79,9 @@ public class AuditLogService {
             auditLogEntry.setDescription(description);
             
             auditLogRepository.save(auditLogEntry);
+            
+            // Feed the in-memory sketches used for approximate audit analytics
+            auditSketchService.record(auditLogEntry);
         } catch (JsonProcessingException jsonException) {
             // Log error but don't fail the main operation
             System.err.println("Failed to serialize audit log values: " + jsonException.getMessage());
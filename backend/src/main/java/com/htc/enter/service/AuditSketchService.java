@@ -0,0 +1,44 @@
+package com.htc.enter.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.htc.enter.model.AuditLog;
+
+/**
+ * Audit Sketch Service for Elara
+ * 
+ * Approximate audit analytics without scanning ewt_audit_logs. Every audit
+ * entry feeds a per-day sketch set held in memory: HyperLogLog counters for
+ * distinct users and distinct entities, and Count-Min sketches with a bounded
+ * heavy-hitter set for the most-edited entities and the most active editors.
+ * A day costs a few kilobytes whatever the event volume; sketches are
+ * persisted periodically and reloaded on startup.
+ */
+public interface AuditSketchService {
+
+    /**
+     * Feed one audit entry into the sketches for its day
+     */
+    void record(AuditLog entry);
+
+    /**
+     * Per-day and whole-window distinct users, distinct entities and edit counts
+     */
+    Map<String, Object> getActivity(int days);
+
+    /**
+     * Most-edited entities over the last days, optionally for one entity type
+     */
+    List<Map<String, Object>> getTopEntities(int days, String entityType, int limit);
+
+    /**
+     * Users with the most edits over the last days
+     */
+    List<Map<String, Object>> getTopEditors(int days, int limit);
+
+    /**
+     * Persist sketches changed since the last flush
+     */
+    void flush();
+}
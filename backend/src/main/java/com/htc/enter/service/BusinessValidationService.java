@@ -1,7 +1,10 @@
 package com.htc.enter.service;
 
+import com.htc.enter.dto.ValidationBatchRequest;
+import com.htc.enter.dto.ValidationResult;
 import com.htc.enter.model.*;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +47,8 @@ public interface BusinessValidationService {
     boolean hasAccessToProject(Long userId, Long projectId);
     boolean hasAccessToStory(Long userId, Long storyId);
     boolean hasAccessToEpic(Long userId, Long epicId);
+    List<Long> filterAccessibleProjects(Long userId, Collection<Long> projectIds);
+    List<Long> filterAccessibleStories(Long userId, Collection<Long> storyIds);
     boolean canManageUsers(Long userId);
     boolean canManageClients(Long userId);
     
@@ -59,6 +64,7 @@ public interface BusinessValidationService {
      */
     void validateSlaRule(SlaRule slaRule);
     boolean isSlaViolated(Story story);
+    boolean isStorySlaViolated(Long storyId);
     Map<String, Object> calculateSlaMetrics(Long projectId);
     
     /**
@@ -89,4 +95,9 @@ public interface BusinessValidationService {
      */
     void validateDataConsistency(String entityType, Long entityId);
     void checkCircularDependencies(Long epicId);
+    
+    /**
+     * Evaluate many checks for one user, loading each entity at most once
+     */
+    List<ValidationResult> validateBatch(ValidationBatchRequest request);
 }
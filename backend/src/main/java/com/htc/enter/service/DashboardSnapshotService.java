@@ -0,0 +1,43 @@
+package com.htc.enter.service;
+
+import com.htc.enter.dto.DashboardMetrics;
+import com.htc.enter.dto.DashboardSnapshot;
+
+/**
+ * Dashboard Snapshot Service for Elara
+ * 
+ * Keeps the global dashboard and one dashboard per manager (scoped to the
+ * projects they manage) precomputed in memory. A background job recomputes
+ * them whenever the analytics data version has moved, the day has changed or
+ * analytics.dashboard.max-age-ms has passed, and publishes every
+ * scope whose figures changed to /topic/dashboard/{scope}, so dashboard
+ * reads are a map lookup.
+ */
+public interface DashboardSnapshotService {
+
+    String GLOBAL_SCOPE = "global";
+
+    static String managerScope(Long managerId) {
+        return "manager-" + managerId;
+    }
+
+    /**
+     * Latest metrics for the whole system
+     */
+    DashboardMetrics getGlobal();
+
+    /**
+     * Latest metrics over one manager's projects; all zero when they manage none
+     */
+    DashboardMetrics getForManager(Long managerId);
+
+    /**
+     * Latest snapshot for a scope, or null if the scope is unknown
+     */
+    DashboardSnapshot getSnapshot(String scope);
+
+    /**
+     * Recompute every scope if the snapshots are stale; returns whether it did
+     */
+    boolean refresh();
+}
@@ -0,0 +1,68 @@
+package com.htc.enter.service;
+
+import java.util.Map;
+
+/**
+ * Email Outbox Service for Elara
+ * 
+ * Emails are recorded in the outbox inside the caller's transaction instead of
+ * being sent on the request thread, so they go out only if the triggering
+ * change commits. A cluster job drains due messages in batches: each batch is
+ * split across a bounded number of SMTP connections, and every connection
+ * sends its share of messages in one session. Failed messages are retried with
+ * exponential backoff and marked dead after the attempt limit; an admin can
+ * requeue them. Without a configured mail server messages simply stay pending.
+ */
+public interface EmailOutboxService {
+
+    void enqueue(String from, String to, String subject, String body);
+
+    void enqueue(String from, String to, String subject, String body,
+                 String attachmentName, byte[] attachment);
+
+    /**
+     * Record a message whose attachment is built after the caller commits; it
+     * is not sent until release supplies the attachment
+     *
+     * @return id of the held message
+     */
+    Long enqueueHeld(String from, String to, String subject, String body, String attachmentName);
+
+    /**
+     * Attach the content to a held message and queue it for sending
+     *
+     * @return false if no held message has that id
+     */
+    boolean release(Long id, byte[] attachment);
+
+    /**
+     * Park a held message as dead when its attachment cannot be built
+     *
+     * @return false if no held message has that id
+     */
+    boolean abandon(Long id, String reason);
+
+    /**
+     * Send every message that is due, batch by batch
+     *
+     * @return number of messages sent
+     */
+    int dispatch();
+
+    /**
+     * Delete sent messages older than the retention window
+     */
+    int purgeSent();
+
+    /**
+     * Put a dead message back in the queue
+     *
+     * @return false if no dead message has that id
+     */
+    boolean requeue(Long id);
+
+    /**
+     * Message counts per status plus the most recent dead messages
+     */
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,65 @@
+package com.htc.enter.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.support.CronExpression;
+
+/**
+ * Job Scheduler Service for Elara
+ * 
+ * Runs named background jobs exactly once across all backend nodes. Each job
+ * has a row in ewt_job_lock holding its next due time and a lease; a node runs
+ * a due job only after taking the lease with a conditional update, renews it
+ * while the job runs, and releases it with the next due time when done. Jobs
+ * run on a dedicated pool so a slow job never delays the others. Jobs from
+ * JobSource beans are picked up at startup; register() adds one programmatically.
+ */
+public interface JobSchedulerService {
+
+    void register(Job job);
+
+    /**
+     * Take or extend a standalone lease, for node-local work that must only
+     * happen on one node at a time (e.g. firing in-memory deadlines)
+     */
+    boolean holdsLease(String name, Duration lease);
+
+    /**
+     * Persisted cluster-wide state plus this node's duration metrics, per job
+     */
+    List<Map<String, Object>> getJobs();
+
+    /**
+     * Contributes jobs at startup. Jobs are exposed through this interface rather
+     * than as beans themselves: the application proxies its own classes, and a
+     * record cannot be subclassed.
+     */
+    interface JobSource {
+
+        List<Job> jobs();
+    }
+
+    /**
+     * A named job on either a cron or a fixed-delay schedule.
+     */
+    record Job(String name, CronExpression cron, Duration fixedDelay, Duration lease, Runnable task) {
+
+        public static Job cron(String name, String expression, Duration lease, Runnable task) {
+            return new Job(name, CronExpression.parse(expression), null, lease, task);
+        }
+
+        public static Job fixedDelay(String name, Duration delay, Duration lease, Runnable task) {
+            return new Job(name, null, delay, lease, task);
+        }
+
+        /**
+         * Next due time after a run that finished (or a registration made) at from
+         */
+        public LocalDateTime nextRunAfter(LocalDateTime from) {
+            return cron != null ? cron.next(from) : from.plus(fixedDelay);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.htc.enter.service;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import com.htc.enter.model.NotificationLedgerEntry;
+
+/**
+ * Notification Ledger Service for Elara
+ *
+ * Remembers which overdue and SLA alerts were already sent so each condition
+ * is announced once when it starts, optionally repeated after a configurable
+ * re-notify interval (notification.renotify-hours, 0 = never). Alerts are
+ * claimed in the database, so one send happens across all nodes. Entries
+ * clear when the story is approved, deleted or rescheduled, or when the SLA
+ * rule changes.
+ */
+public interface NotificationLedgerService {
+
+    long NO_RULE = 0L;
+
+    /**
+     * Claims the alert and runs send in one new transaction, so the claim
+     * commits only together with what send writes (the queued email). Returns
+     * false without running send if the alert is already claimed and no
+     * reminder is due.
+     */
+    boolean sendOnce(long storyId, NotificationLedgerEntry.Kind kind, long ruleId, Runnable send);
+
+    /**
+     * The candidates not yet sent or due for a reminder, looked up in bulk.
+     * A cheap pre-filter for batch callers; sendOnce still has the final say.
+     */
+    <T> List<T> filterUnsent(NotificationLedgerEntry.Kind kind, List<T> candidates,
+                             ToLongFunction<T> storyId, ToLongFunction<T> ruleId);
+}
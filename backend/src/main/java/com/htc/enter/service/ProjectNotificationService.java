@@ -10,4 +10,11 @@ public interface ProjectNotificationService {
     
     void sendEmailWithAttachment(String to, String subject, String body, 
                                   String attachmentName, ByteArrayOutputStream attachmentContent);
+
+    /**
+     * Queue an email to the project's manager with the password-protected
+     * project document attached. Only the outbox row is written in the
+     * caller's transaction; the document is built after it commits.
+     */
+    void sendProjectDocument(Project project, String subject, String body, String password);
 }
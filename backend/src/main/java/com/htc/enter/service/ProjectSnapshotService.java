@@ -0,0 +1,31 @@
+package com.htc.enter.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.htc.enter.model.ProjectSnapshot;
+
+/**
+ * Project Snapshot Service for Elara
+ * 
+ * Records one row of story totals per project per day so velocity and
+ * burndown are read from a short date range instead of being
+ * reconstructed from story history.
+ */
+public interface ProjectSnapshotService {
+
+    /**
+     * Capture (or refresh) today's snapshot for every project with stories
+     */
+    int captureAll();
+
+    /**
+     * Capture (or refresh) today's snapshot for one project
+     */
+    ProjectSnapshot captureProject(Long projectId);
+
+    /**
+     * Snapshots between from and to (inclusive), oldest first
+     */
+    List<ProjectSnapshot> getSnapshots(Long projectId, LocalDate from, LocalDate to);
+}
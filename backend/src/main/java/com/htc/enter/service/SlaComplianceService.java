@@ -0,0 +1,43 @@
+package com.htc.enter.service;
+
+import java.util.Map;
+
+import com.htc.enter.event.StorySnapshot;
+
+/**
+ * SLA Compliance Service for Elara
+ * 
+ * Evaluates every SLA rule against the stories it covers and keeps the
+ * result per story (due instant, completed, breached) together with
+ * per-project compliance counters. Story and rule writes adjust both
+ * incrementally, a periodic sweep flags open stories whose due instant
+ * has passed, and a nightly rebuild repairs any drift.
+ */
+public interface SlaComplianceService {
+
+    /**
+     * Compliance lookups, answered from the per-project counters
+     */
+    Double getComplianceRate(Long projectId);
+    Map<String, Object> getComplianceReport();
+
+    /**
+     * Re-evaluate every applicable rule for one story; story is null for a deletion
+     */
+    void reevaluateStory(long storyId, StorySnapshot story);
+
+    /**
+     * Re-evaluate one rule against all of its stories; a missing rule is removed
+     */
+    void reevaluateRule(Long slaId);
+
+    /**
+     * Flag open evaluations whose due instant has passed
+     */
+    int markBreaches();
+
+    /**
+     * Recompute every evaluation and counter from the rule and story tables
+     */
+    void rebuild();
+}
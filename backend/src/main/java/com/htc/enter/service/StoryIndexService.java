@@ -0,0 +1,94 @@
+package com.htc.enter.service;
+
+import java.time.LocalDate;
+
+import com.htc.enter.repository.projection.StoryStatusCounts;
+
+/**
+ * Story Index Service for Elara
+ * 
+ * Optional in-memory columnar copy of the story fields that analytics and
+ * validation filter on (project, epic, assignee, due date, approval, hours).
+ * Scans run as array loops without touching the database or materializing
+ * entities. Enabled with analytics.columnar.enabled=true; callers must check
+ * isReady() and fall back to repository queries otherwise.
+ */
+public interface StoryIndexService {
+
+    /**
+     * True once the index is enabled and fully loaded
+     */
+    boolean isReady();
+
+    long count(Query query);
+
+    boolean exists(Query query);
+
+    long[] storyIds(Query query);
+
+    double sumEstimatedHours(Query query);
+
+    /**
+     * Dashboard counters (total, approved, assigned, overdue) in a single pass
+     */
+    StoryStatusCounts statusCounts(LocalDate today);
+
+    /**
+     * Conjunctive story filter; unset criteria match everything.
+     */
+    final class Query {
+
+        private Long projectId;
+        private Long epicId;
+        private Long assigneeId;
+        private Boolean approved;
+        private LocalDate dueFrom;
+        private LocalDate dueBefore;
+
+        private Query() {
+        }
+
+        public static Query all() {
+            return new Query();
+        }
+
+        public Query project(Long projectId) {
+            this.projectId = projectId;
+            return this;
+        }
+
+        public Query epic(Long epicId) {
+            this.epicId = epicId;
+            return this;
+        }
+
+        public Query assignee(Long assigneeId) {
+            this.assigneeId = assigneeId;
+            return this;
+        }
+
+        public Query approved(boolean approved) {
+            this.approved = approved;
+            return this;
+        }
+
+        /** Due date on or after the given day (stories without a due date never match) */
+        public Query dueFrom(LocalDate dueFrom) {
+            this.dueFrom = dueFrom;
+            return this;
+        }
+
+        /** Due date strictly before the given day (stories without a due date never match) */
+        public Query dueBefore(LocalDate dueBefore) {
+            this.dueBefore = dueBefore;
+            return this;
+        }
+
+        public Long getProjectId() { return projectId; }
+        public Long getEpicId() { return epicId; }
+        public Long getAssigneeId() { return assigneeId; }
+        public Boolean getApproved() { return approved; }
+        public LocalDate getDueFrom() { return dueFrom; }
+        public LocalDate getDueBefore() { return dueBefore; }
+    }
+}
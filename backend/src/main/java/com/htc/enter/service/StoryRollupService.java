@@ -0,0 +1,37 @@
+package com.htc.enter.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.StoryRollup;
+
+/**
+ * Story Rollup Service for Elara
+ * 
+ * Maintains per-epic, per-project and per-client story counters so that
+ * "how many stories are approved under X" is a single-row lookup.
+ * Counters are adjusted transactionally on every story write and rebuilt
+ * periodically from the story table to repair drift. Overdue counts change
+ * with the calendar rather than with a write, so they are counted on read.
+ */
+public interface StoryRollupService {
+
+    /**
+     * Counter lookups; a scope without stories returns an all-zero rollup
+     */
+    StoryRollup getEpicRollup(Long epicId);
+    StoryRollup getProjectRollup(Long projectId);
+    StoryRollup getClientRollup(Long clientId);
+    List<StoryRollup> getEpicRollups(Collection<Long> epicIds);
+
+    /**
+     * Apply the difference between two story states (either may be null)
+     */
+    void applyChange(StorySnapshot before, StorySnapshot after);
+
+    /**
+     * Recompute every counter from the story table
+     */
+    void rebuild();
+}
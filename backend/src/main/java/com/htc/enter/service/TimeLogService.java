@@ -1,6 +1,8 @@
 package com.htc.enter.service;
 
 import com.htc.enter.dto.TimeLogRequest;
+import com.htc.enter.event.TimeLogChangedEvent;
+import com.htc.enter.event.TimeLogSnapshot;
 import com.htc.enter.model.Story;
 import com.htc.enter.model.TimeLog;
 import com.htc.enter.model.User;
@@ -8,6 +10,7 @@ import com.htc.enter.repository.StoryRepository;
 import com.htc.enter.repository.TimeLogRepository;
 import com.htc.enter.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,7 @@ public class TimeLogService {
     private final TimeLogRepository timeLogRepository;
     private final StoryRepository storyRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public TimeLog logTime(TimeLogRequest request, String username) {
@@ -37,7 +41,9 @@ public class TimeLogService {
         timeLog.setDescription(request.getDescription());
         timeLog.setWorkDate(request.getWorkDate() != null ? request.getWorkDate() : LocalDateTime.now());
         
-        return timeLogRepository.save(timeLog);
+        TimeLog saved = timeLogRepository.save(timeLog);
+        eventPublisher.publishEvent(new TimeLogChangedEvent(null, TimeLogSnapshot.of(saved)));
+        return saved;
     }
     
     public List<TimeLog> getTimeLogsForStory(Long storyId) {
@@ -62,6 +68,7 @@ public class TimeLogService {
     public TimeLog updateTimeLog(Long id, TimeLogRequest request) {
         TimeLog timeLog = timeLogRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("TimeLog not found"));
+        TimeLogSnapshot before = TimeLogSnapshot.of(timeLog);
         
         timeLog.setHoursWorked(request.getHoursWorked());
         timeLog.setDescription(request.getDescription());
@@ -69,11 +76,17 @@ public class TimeLogService {
             timeLog.setWorkDate(request.getWorkDate());
         }
         
-        return timeLogRepository.save(timeLog);
+        TimeLog saved = timeLogRepository.save(timeLog);
+        eventPublisher.publishEvent(new TimeLogChangedEvent(before, TimeLogSnapshot.of(saved)));
+        return saved;
     }
     
     @Transactional
     public void deleteTimeLog(Long id) {
+        TimeLogSnapshot before = timeLogRepository.findById(id).map(TimeLogSnapshot::of).orElse(null);
         timeLogRepository.deleteById(id);
+        if (before != null) {
+            eventPublisher.publishEvent(new TimeLogChangedEvent(before, null));
+        }
     }
 }
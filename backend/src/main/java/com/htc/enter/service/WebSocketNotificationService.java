@@ -49,6 +49,18 @@ public class WebSocketNotificationService {
         }
     }
     
+    /**
+     * Publish a precomputed dashboard snapshot to /topic/dashboard/{scope}
+     */
+    public void sendDashboard(String scope, Object snapshot) {
+        try {
+            messagingTemplate.convertAndSend("/topic/dashboard/" + scope, snapshot);
+            log.debug("Published dashboard snapshot for scope {}", scope);
+        } catch (Exception e) {
+            log.error("Error publishing dashboard snapshot", e);
+        }
+    }
+    
     /**
      * Notify about story updates
      */
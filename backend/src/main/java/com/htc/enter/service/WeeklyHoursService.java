@@ -0,0 +1,28 @@
+package com.htc.enter.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+
+/**
+ * Weekly Hours Service for Elara
+ * 
+ * Hours logged per user for one Monday-to-Sunday week, computed with a single
+ * aggregate query and cached per week. Time log writes evict the weeks they touch,
+ * so past weeks stay cached and only the week being logged into is recomputed.
+ */
+public interface WeeklyHoursService {
+
+    /**
+     * Hours logged per user id in the week starting on weekStart (a Monday)
+     */
+    Map<Long, Double> getHoursByUser(LocalDate weekStart);
+
+    /**
+     * Monday of the week containing date
+     */
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
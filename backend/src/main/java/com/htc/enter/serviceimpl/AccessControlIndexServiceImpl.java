@@ -0,0 +1,555 @@
+package com.htc.enter.serviceimpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.htc.enter.event.EpicChangedEvent;
+import com.htc.enter.event.ProjectChangedEvent;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.AccessIndexVersion;
+import com.htc.enter.repository.AccessIndexVersionRepository;
+import com.htc.enter.repository.ProjectRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.service.AccessControlIndexService;
+import com.htc.enter.util.IdBitmap;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-user bitmaps of managed projects, assigned stories and the projects of
+ * those stories. A per-user count of assigned stories in each project decides
+ * when a project enters or leaves the assigned set. Each story's project and
+ * assignee are remembered so reassignments and project deletions can be undone
+ * without reloading. Readers share a read lock, committed changes take the write lock.
+ *
+ * Staleness across nodes is detected through ewt_access_index_version: every
+ * transaction that changes a project, story or epic increments it just before
+ * commit, and the row lock makes versions follow commit order. A node applies
+ * its own committed changes incrementally and records their versions; the
+ * index is current only while the highest contiguous applied version equals
+ * the database value. Changes made on other nodes, and changes that cannot be
+ * applied incrementally (epic deletions), leave a gap: callers fall back to
+ * the database and a full reload is scheduled after a short grace period.
+ * A reload is also forced after access.index.max-age-ms as a bound for writes
+ * that bypass the services. access.index.enabled must match on every node,
+ * since only enabled nodes increment the version.
+ */
+@Service
+public class AccessControlIndexServiceImpl implements AccessControlIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessControlIndexServiceImpl.class);
+
+    private static final IdBitmap EMPTY = new IdBitmap();
+
+    private final ProjectRepository projectRepository;
+    private final StoryRepository storyRepository;
+    private final AccessIndexVersionRepository versionRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "access-index-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${access.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access.index.reload-grace-ms:2000}")
+    private long reloadGraceMs;
+
+    @Value("${access.index.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    private IdBitmap projects = new IdBitmap();
+    private IdBitmap stories = new IdBitmap();
+    private final Map<Long, Long> managerByProject = new HashMap<>();
+    private final Map<Long, IdBitmap> managedProjects = new HashMap<>();
+    private final Map<Long, IdBitmap> assignedStories = new HashMap<>();
+    private final Map<Long, IdBitmap> assignedProjects = new HashMap<>();
+    private final Map<Long, Map<Long, Integer>> assignedStoryCounts = new HashMap<>();
+    private final Map<Long, StoryAssignment> storyAssignments = new HashMap<>();
+    private final Map<Long, IdBitmap> storiesByProject = new HashMap<>();
+
+    // Highest version up to which every change is reflected; later ones applied out of order wait in appliedAhead
+    private volatile long appliedVersion = -1;
+    private final TreeSet<Long> appliedAhead = new TreeSet<>();
+    private volatile long loadedAt;
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+
+    // Changes committed while a load is running, replayed afterwards
+    private final List<Change> pending = new ArrayList<>();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    private record StoryAssignment(Long projectId, Long assigneeId) {
+    }
+
+    private record Change(List<Object> events, Long version) {
+    }
+
+    /**
+     * Collects one transaction's changes, takes the next version just before
+     * commit and applies the changes once the commit succeeded
+     */
+    private final class TransactionChanges implements TransactionSynchronization {
+
+        private final List<Object> events = new ArrayList<>();
+        private Long version;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            version = nextVersion();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                apply(new Change(events, version));
+            }
+        }
+    }
+
+    public AccessControlIndexServiceImpl(ProjectRepository projectRepository, StoryRepository storyRepository,
+                                         AccessIndexVersionRepository versionRepository) {
+        this.projectRepository = projectRepository;
+        this.storyRepository = storyRepository;
+        this.versionRepository = versionRepository;
+    }
+
+    @Override
+    public boolean isCurrent() {
+        if (!ready) {
+            return false;
+        }
+        long current;
+        try {
+            current = versionRepository.findCurrent().orElse(-1L);
+        } catch (Exception e) {
+            log.warn("Access index version check failed: {}", e.getMessage());
+            return false;
+        }
+        if (current != appliedVersion) {
+            scheduleReload();
+            return false;
+        }
+        if (System.currentTimeMillis() - loadedAt > maxAgeMs) {
+            scheduleReload();
+        }
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        if (!versionRepository.existsById(AccessIndexVersion.SINGLETON_ID)) {
+            try {
+                versionRepository.saveAndFlush(new AccessIndexVersion(AccessIndexVersion.SINGLETON_ID, 0));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void stop() {
+        reloader.shutdownNow();
+    }
+
+    // Changes are recorded inside the writing transaction and applied after it commits
+    @EventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        record(event);
+    }
+
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        record(event);
+    }
+
+    @EventListener
+    public void onEpicChanged(EpicChangedEvent event) {
+        if (event.deleted()) {
+            record(event);
+        }
+    }
+
+    @Override
+    public boolean projectExists(long projectId) {
+        lock.readLock().lock();
+        try {
+            return projects.contains(projectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean storyExists(long storyId) {
+        lock.readLock().lock();
+        try {
+            return stories.contains(storyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isProjectMember(long userId, long projectId) {
+        lock.readLock().lock();
+        try {
+            return bitmap(managedProjects, userId).contains(projectId)
+                || bitmap(assignedProjects, userId).contains(projectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isStoryAssignee(long userId, long storyId) {
+        lock.readLock().lock();
+        try {
+            return bitmap(assignedStories, userId).contains(storyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IdBitmap existingProjects(Collection<Long> projectIds) {
+        IdBitmap requested = IdBitmap.of(projectIds);
+        lock.readLock().lock();
+        try {
+            return requested.and(projects);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IdBitmap existingStories(Collection<Long> storyIds) {
+        IdBitmap requested = IdBitmap.of(storyIds);
+        lock.readLock().lock();
+        try {
+            return requested.and(stories);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IdBitmap memberProjects(long userId, Collection<Long> projectIds) {
+        IdBitmap requested = IdBitmap.of(projectIds);
+        lock.readLock().lock();
+        try {
+            return requested.and(bitmap(managedProjects, userId))
+                .or(requested.and(bitmap(assignedProjects, userId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IdBitmap assignedStories(long userId, Collection<Long> storyIds) {
+        IdBitmap requested = IdBitmap.of(storyIds);
+        lock.readLock().lock();
+        try {
+            return requested.and(bitmap(assignedStories, userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Full rebuild from the database. The version is read before the data, so
+     * the rebuilt index reflects at least that version; changes committed
+     * while loading are replayed from pending or, if remote, show up as a gap.
+     */
+    private synchronized void reload() {
+        long start = System.currentTimeMillis();
+        synchronized (pending) {
+            loading = true;
+        }
+        try {
+            long version = versionRepository.findCurrent().orElse(0L);
+            List<Object[]> projectRows = projectRepository.findManagerAssignments();
+            List<Object[]> storyRows = storyRepository.findAssignmentColumns();
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (Object[] row : projectRows) {
+                    upsertProject((Long) row[0], (Long) row[1]);
+                }
+                for (Object[] row : storyRows) {
+                    upsertStory((Long) row[0], (Long) row[1], (Long) row[2]);
+                }
+                appliedVersion = version;
+                appliedAhead.headSet(version, true).clear();
+                advance();
+                synchronized (pending) {
+                    pending.forEach(this::applyLocked);
+                    pending.clear();
+                    loading = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadedAt = System.currentTimeMillis();
+            ready = true;
+            log.info("Loaded access index for {} projects and {} stories at version {} in {}ms",
+                projects.cardinality(), stories.cardinality(), version, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Dropped pending changes leave a version gap, so callers keep using the database
+            synchronized (pending) {
+                pending.clear();
+                loading = false;
+            }
+            log.warn("Access index load failed, access checks will use the database: {}", e.getMessage());
+        }
+    }
+
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        // The grace period lets this node's own just-committed changes catch up first
+        reloader.schedule(() -> {
+            try {
+                long current = versionRepository.findCurrent().orElse(-1L);
+                if (current != appliedVersion || System.currentTimeMillis() - loadedAt > maxAgeMs) {
+                    reload();
+                }
+            } catch (Exception e) {
+                log.warn("Access index reload check failed: {}", e.getMessage());
+            } finally {
+                reloadScheduled.set(false);
+            }
+        }, reloadGraceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void record(Object event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Published outside a transaction: the change is already committed
+            apply(new Change(List.of(event), nextVersion()));
+            return;
+        }
+        TransactionChanges changes = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionChanges existing) {
+                changes = existing;
+            }
+        }
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.events.add(event);
+    }
+
+    /**
+     * Increments the cluster-wide version, null if the version row does not exist yet
+     */
+    private Long nextVersion() {
+        if (versionRepository.increment() == 0) {
+            return null;
+        }
+        return versionRepository.findCurrent().orElse(null);
+    }
+
+    private void apply(Change change) {
+        synchronized (pending) {
+            if (loading) {
+                pending.add(change);
+                return;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            applyLocked(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Change change) {
+        boolean complete = true;
+        for (Object event : change.events()) {
+            complete &= applyEvent(event);
+        }
+        if (complete && change.version() != null && change.version() > appliedVersion) {
+            appliedAhead.add(change.version());
+            advance();
+        }
+    }
+
+    /**
+     * Applies one change, false if it cannot be applied incrementally
+     */
+    private boolean applyEvent(Object event) {
+        if (event instanceof ProjectChangedEvent change) {
+            if (change.projectId() == null) {
+                return true;
+            }
+            if (change.deleted()) {
+                removeProject(change.projectId());
+            } else {
+                upsertProject(change.projectId(), change.managerId());
+            }
+            return true;
+        }
+        if (event instanceof StoryChangedEvent change) {
+            StorySnapshot after = change.after();
+            if (after == null) {
+                removeStory(change.before().storyId());
+            } else {
+                upsertStory(after.storyId(), after.projectId(), after.assigneeId());
+            }
+            return true;
+        }
+        // Epic deletions may take stories with them without per-story events
+        return false;
+    }
+
+    private void advance() {
+        while (appliedAhead.remove(appliedVersion + 1)) {
+            appliedVersion++;
+        }
+    }
+
+    private void clear() {
+        projects = new IdBitmap();
+        stories = new IdBitmap();
+        managerByProject.clear();
+        managedProjects.clear();
+        assignedStories.clear();
+        assignedProjects.clear();
+        assignedStoryCounts.clear();
+        storyAssignments.clear();
+        storiesByProject.clear();
+    }
+
+    private void upsertProject(Long projectId, Long managerId) {
+        projects.add(projectId);
+        Long previous = managerByProject.put(projectId, managerId);
+        if (Objects.equals(previous, managerId)) {
+            return;
+        }
+        if (previous != null) {
+            removeFrom(managedProjects, previous, projectId);
+        }
+        if (managerId != null) {
+            managedProjects.computeIfAbsent(managerId, k -> new IdBitmap()).add(projectId);
+        }
+    }
+
+    private void removeProject(Long projectId) {
+        projects.remove(projectId);
+        Long manager = managerByProject.remove(projectId);
+        if (manager != null) {
+            removeFrom(managedProjects, manager, projectId);
+        }
+        // Stories go with their project in the database without publishing their own events
+        IdBitmap projectStories = storiesByProject.get(projectId);
+        if (projectStories != null) {
+            for (long storyId : projectStories.toArray()) {
+                removeStory(storyId);
+            }
+        }
+    }
+
+    private void upsertStory(Long storyId, Long projectId, Long assigneeId) {
+        StoryAssignment current = new StoryAssignment(projectId, assigneeId);
+        StoryAssignment previous = storyAssignments.put(storyId, current);
+        if (current.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unassign(storyId, previous);
+        }
+        stories.add(storyId);
+        if (projectId != null) {
+            storiesByProject.computeIfAbsent(projectId, k -> new IdBitmap()).add(storyId);
+        }
+        if (assigneeId != null) {
+            assignedStories.computeIfAbsent(assigneeId, k -> new IdBitmap()).add(storyId);
+            if (projectId != null) {
+                int count = assignedStoryCounts.computeIfAbsent(assigneeId, k -> new HashMap<>())
+                    .merge(projectId, 1, Integer::sum);
+                if (count == 1) {
+                    assignedProjects.computeIfAbsent(assigneeId, k -> new IdBitmap()).add(projectId);
+                }
+            }
+        }
+    }
+
+    private void removeStory(long storyId) {
+        StoryAssignment previous = storyAssignments.remove(storyId);
+        if (previous != null) {
+            unassign(storyId, previous);
+        }
+        stories.remove(storyId);
+    }
+
+    private void unassign(long storyId, StoryAssignment assignment) {
+        Long projectId = assignment.projectId();
+        Long assigneeId = assignment.assigneeId();
+        if (projectId != null) {
+            removeFrom(storiesByProject, projectId, storyId);
+        }
+        if (assigneeId == null) {
+            return;
+        }
+        removeFrom(assignedStories, assigneeId, storyId);
+        if (projectId == null) {
+            return;
+        }
+        Map<Long, Integer> counts = assignedStoryCounts.get(assigneeId);
+        if (counts == null) {
+            return;
+        }
+        Integer remaining = counts.computeIfPresent(projectId, (k, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            removeFrom(assignedProjects, assigneeId, projectId);
+            if (counts.isEmpty()) {
+                assignedStoryCounts.remove(assigneeId);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<Long, IdBitmap> bitmaps, Long owner, long id) {
+        IdBitmap bitmap = bitmaps.get(owner);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            bitmaps.remove(owner);
+        }
+    }
+
+    private static IdBitmap bitmap(Map<Long, IdBitmap> bitmaps, long owner) {
+        return bitmaps.getOrDefault(owner, EMPTY);
+    }
+}
@@ -0,0 +1,384 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.htc.enter.dto.ActivityPoint;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.event.TimeLogChangedEvent;
+import com.htc.enter.event.TimeLogSnapshot;
+import com.htc.enter.model.ActivityBucket;
+import com.htc.enter.model.ActivityBucket.Granularity;
+import com.htc.enter.model.ActivityBucket.ScopeType;
+import com.htc.enter.repository.ActivityBucketRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.TimeLogRepository;
+import com.htc.enter.service.ActivityRollupService;
+
+@Service
+public class ActivityRollupServiceImpl implements ActivityRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityRollupServiceImpl.class);
+
+    private final ActivityBucketRepository bucketRepository;
+    private final StoryRepository storyRepository;
+    private final TimeLogRepository timeLogRepository;
+    private final CounterRowUpserter counterRows;
+    private final TransactionTemplate transaction;
+
+    @Value("${analytics.activity.day-retention-days:90}")
+    private int dayRetentionDays;
+
+    public ActivityRollupServiceImpl(ActivityBucketRepository bucketRepository,
+                                     StoryRepository storyRepository,
+                                     TimeLogRepository timeLogRepository,
+                                     CounterRowUpserter counterRows,
+                                     PlatformTransactionManager transactionManager) {
+        this.bucketRepository = bucketRepository;
+        this.storyRepository = storyRepository;
+        this.timeLogRepository = timeLogRepository;
+        this.counterRows = counterRows;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ActivityPoint> getMonthlyTrend(ScopeType scopeType, Long scopeId, int months) {
+        if (months < 1) {
+            throw new IllegalArgumentException("Months must be at least 1");
+        }
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(months - 1L);
+
+        Map<YearMonth, Delta> series = new LinkedHashMap<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            series.put(month, new Delta());
+        }
+        // Month rows and not-yet-compacted day rows both count towards their month
+        for (ActivityBucket bucket : bucketRepository.findScopeRange(scopeType, scopeId,
+                first.atDay(1), current.atEndOfMonth())) {
+            Delta delta = series.get(YearMonth.from(bucket.getBucketStart()));
+            if (delta != null) {
+                delta.add(bucket);
+            }
+        }
+
+        List<ActivityPoint> points = new ArrayList<>(series.size());
+        series.forEach((month, delta) -> points.add(delta.toPoint(month.toString())));
+        return points;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ActivityPoint> getDailyActivity(ScopeType scopeType, Long scopeId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        Map<LocalDate, Delta> series = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.put(day, new Delta());
+        }
+        // Month rows start on the 1st, so the range is widened to catch the one covering from
+        LocalDate cutoff = dayCutoff();
+        for (ActivityBucket bucket : bucketRepository.findScopeRange(scopeType, scopeId, from.withDayOfMonth(1), to)) {
+            if (bucket.getGranularity() == Granularity.DAY) {
+                Delta delta = series.get(bucket.getBucketStart());
+                if (delta != null) {
+                    delta.add(bucket);
+                }
+            } else {
+                spreadMonth(series, bucket, cutoff);
+            }
+        }
+
+        List<ActivityPoint> points = new ArrayList<>(series.size());
+        series.forEach((day, delta) -> points.add(delta.toPoint(day.toString())));
+        return points;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ActivityPoint getActivityTotal(ScopeType scopeType, Long scopeId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        LocalDate cutoff = dayCutoff();
+        Delta total = new Delta();
+        for (ActivityBucket bucket : bucketRepository.findScopeRange(scopeType, scopeId, from.withDayOfMonth(1), to)) {
+            LocalDate start = bucket.getBucketStart();
+            if (bucket.getGranularity() == Granularity.DAY) {
+                if (!start.isBefore(from)) {
+                    total.add(bucket);
+                }
+                continue;
+            }
+            LocalDate last = lastCompactedDay(start, cutoff);
+            if (!start.isBefore(from) && !last.isAfter(to)) {
+                total.add(bucket);
+                continue;
+            }
+            // Edge month: only the compacted days inside the range count
+            LocalDate overlapStart = start.isBefore(from) ? from : start;
+            LocalDate overlapEnd = last.isAfter(to) ? to : last;
+            if (overlapStart.isAfter(overlapEnd)) {
+                continue;
+            }
+            double share = (double) (ChronoUnit.DAYS.between(overlapStart, overlapEnd) + 1)
+                / (ChronoUnit.DAYS.between(start, last) + 1);
+            total.created += Math.round(bucket.getStoriesCreated() * share);
+            total.approved += Math.round(bucket.getStoriesApproved() * share);
+            total.hours += bucket.getHoursLogged() * share;
+        }
+        return total.toPoint(from + ".." + to);
+    }
+
+    /**
+     * Runs inside the story write transaction. Deletions leave history untouched:
+     * a story that was created last month still counts as created last month.
+     */
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        StorySnapshot before = event.before();
+        StorySnapshot after = event.after();
+        LocalDate today = LocalDate.now();
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+
+        if (event.isCreated()) {
+            LocalDate created = after.createdAt() != null ? after.createdAt().toLocalDate() : today;
+            addScopes(deltas, created, after.projectId(), after.assigneeId(), 1, 0, 0.0);
+        }
+
+        boolean wasApproved = before != null && before.approved();
+        boolean isApproved = after != null && after.approved();
+        if (!wasApproved && isApproved) {
+            LocalDate approvedOn = after.endDate() != null ? after.endDate() : today;
+            addScopes(deltas, approvedOn, after.projectId(), after.assigneeId(), 0, 1, 0.0);
+        } else if (wasApproved && after != null && !isApproved) {
+            LocalDate approvedOn = before.endDate() != null ? before.endDate() : today;
+            addScopes(deltas, approvedOn, before.projectId(), before.assigneeId(), 0, -1, 0.0);
+        }
+
+        apply(deltas);
+    }
+
+    /**
+     * Runs inside the time log write transaction
+     */
+    @EventListener
+    public void onTimeLogChanged(TimeLogChangedEvent event) {
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+        TimeLogSnapshot before = event.before();
+        TimeLogSnapshot after = event.after();
+        if (before != null) {
+            addScopes(deltas, before.workDate().toLocalDate(), before.projectId(), before.userId(),
+                0, 0, -before.hoursWorked());
+        }
+        if (after != null) {
+            addScopes(deltas, after.workDate().toLocalDate(), after.projectId(), after.userId(),
+                0, 0, after.hoursWorked());
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Nightly compaction: day rows older than the retention window become month rows
+     */
+    @Override
+    @Transactional
+    public void compact() {
+        LocalDate cutoff = dayCutoff();
+        List<ActivityBucket> days = bucketRepository.findByGranularityAndBucketStartBefore(Granularity.DAY, cutoff);
+        if (days.isEmpty()) {
+            return;
+        }
+
+        Map<BucketKey, Delta> months = new LinkedHashMap<>();
+        for (ActivityBucket day : days) {
+            BucketKey key = new BucketKey(Granularity.MONTH, day.getScopeType(), day.getScopeId(),
+                day.getBucketStart().withDayOfMonth(1));
+            months.computeIfAbsent(key, k -> new Delta()).add(day);
+        }
+        bucketRepository.deleteAllInBatch(days);
+        apply(months);
+        log.info("Compacted {} day activity buckets into {} month buckets", days.size(), months.size());
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+
+        for (Object[] row : storyRepository.findCreationActivity()) {
+            if (row[0] != null) {
+                addScopes(deltas, ((LocalDateTime) row[0]).toLocalDate(), (Long) row[1], (Long) row[2], 1, 0, 0.0);
+            }
+        }
+        for (Object[] row : storyRepository.findApprovalActivity()) {
+            if (row[0] != null) {
+                addScopes(deltas, (LocalDate) row[0], (Long) row[1], (Long) row[2], 0, 1, 0.0);
+            }
+        }
+        for (Object[] row : timeLogRepository.findLoggedHoursActivity()) {
+            if (row[0] != null && row[3] != null) {
+                addScopes(deltas, ((LocalDateTime) row[0]).toLocalDate(), (Long) row[1], (Long) row[2],
+                    0, 0, (Double) row[3]);
+            }
+        }
+
+        List<ActivityBucket> buckets = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> buckets.add(delta.toBucket(key)));
+        bucketRepository.deleteAllInBatch();
+        bucketRepository.saveAll(buckets);
+        log.info("Rebuilt {} activity buckets in {}ms", buckets.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Seed the table on first start so existing history shows up in trends.
+     * A self-call skips the @Transactional proxy, hence the template.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            if (bucketRepository.count() == 0
+                    && (storyRepository.count() > 0 || timeLogRepository.count() > 0)) {
+                transaction.executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception e) {
+            log.warn("Initial activity bucket build failed: {}", e.getMessage());
+        }
+    }
+
+    private LocalDate dayCutoff() {
+        return LocalDate.now().minusDays(dayRetentionDays);
+    }
+
+    /**
+     * Spread a month row evenly over the days it stands for: the days of its month
+     * before the cutoff, since later days still have their own day rows.
+     * Counts are split with the remainder going to the earliest days, so summing
+     * the whole month gives back the row exactly.
+     */
+    private static void spreadMonth(Map<LocalDate, Delta> series, ActivityBucket bucket, LocalDate cutoff) {
+        LocalDate first = bucket.getBucketStart();
+        LocalDate last = lastCompactedDay(first, cutoff);
+        int days = (int) ChronoUnit.DAYS.between(first, last) + 1;
+        long created = bucket.getStoriesCreated();
+        long approved = bucket.getStoriesApproved();
+        for (int i = 0; i < days; i++) {
+            Delta delta = series.get(first.plusDays(i));
+            if (delta != null) {
+                delta.created += created / days + (i < created % days ? 1 : 0);
+                delta.approved += approved / days + (i < approved % days ? 1 : 0);
+                delta.hours += bucket.getHoursLogged() / days;
+            }
+        }
+    }
+
+    /**
+     * Last day a month row covers. If the retention window was widened after compaction
+     * the whole month is assumed.
+     */
+    private static LocalDate lastCompactedDay(LocalDate monthStart, LocalDate cutoff) {
+        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+        LocalDate beforeCutoff = cutoff.minusDays(1);
+        return beforeCutoff.isBefore(monthStart) || beforeCutoff.isAfter(monthEnd) ? monthEnd : beforeCutoff;
+    }
+
+    /**
+     * Record one change against the global, project and user scopes.
+     * Dates already past the retention window go straight into their month bucket.
+     */
+    private void addScopes(Map<BucketKey, Delta> deltas, LocalDate date, Long projectId, Long userId,
+                           long created, long approved, double hours) {
+        Granularity granularity = date.isBefore(dayCutoff()) ? Granularity.MONTH : Granularity.DAY;
+        LocalDate bucketStart = granularity == Granularity.MONTH ? date.withDayOfMonth(1) : date;
+
+        addScope(deltas, new BucketKey(granularity, ScopeType.GLOBAL, ActivityBucket.GLOBAL_SCOPE_ID, bucketStart),
+            created, approved, hours);
+        if (projectId != null) {
+            addScope(deltas, new BucketKey(granularity, ScopeType.PROJECT, projectId, bucketStart),
+                created, approved, hours);
+        }
+        if (userId != null) {
+            addScope(deltas, new BucketKey(granularity, ScopeType.USER, userId, bucketStart),
+                created, approved, hours);
+        }
+    }
+
+    private void addScope(Map<BucketKey, Delta> deltas, BucketKey key, long created, long approved, double hours) {
+        Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+        delta.created += created;
+        delta.approved += approved;
+        delta.hours += hours;
+    }
+
+    private void apply(Map<BucketKey, Delta> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<BucketKey, Delta> entry : deltas.entrySet()) {
+            BucketKey key = entry.getKey();
+            Delta delta = entry.getValue();
+            if (delta.isZero()) {
+                continue;
+            }
+            boolean applied = counterRows.apply(
+                () -> bucketRepository.existsByGranularityAndScopeTypeAndScopeIdAndBucketStart(
+                    key.granularity(), key.scopeType(), key.scopeId(), key.bucketStart()),
+                () -> bucketRepository.saveAndFlush(new Delta().toBucket(key)),
+                () -> bucketRepository.applyDelta(key.granularity(), key.scopeType(), key.scopeId(),
+                    key.bucketStart(), delta.created, delta.approved, delta.hours, now),
+                delta.created >= 0 && delta.approved >= 0 && delta.hours >= 0);
+            if (!applied) {
+                log.debug("No activity bucket for {}; skipping negative delta", key);
+            }
+        }
+    }
+
+    private record BucketKey(Granularity granularity, ScopeType scopeType, Long scopeId, LocalDate bucketStart) {
+    }
+
+    private static final class Delta {
+        private long created;
+        private long approved;
+        private double hours;
+
+        private void add(ActivityBucket bucket) {
+            created += bucket.getStoriesCreated();
+            approved += bucket.getStoriesApproved();
+            hours += bucket.getHoursLogged();
+        }
+
+        private boolean isZero() {
+            return created == 0 && approved == 0 && hours == 0.0;
+        }
+
+        private ActivityPoint toPoint(String period) {
+            return new ActivityPoint(period, created, approved, Math.round(hours * 100.0) / 100.0);
+        }
+
+        private ActivityBucket toBucket(BucketKey key) {
+            ActivityBucket bucket = new ActivityBucket(key.granularity(), key.scopeType(), key.scopeId(), key.bucketStart());
+            bucket.setStoriesCreated(created);
+            bucket.setStoriesApproved(approved);
+            bucket.setHoursLogged(hours);
+            return bucket;
+        }
+    }
+}
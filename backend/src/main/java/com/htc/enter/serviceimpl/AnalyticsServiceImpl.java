@@ -2,25 +2,50 @@ package com.htc.enter.serviceimpl;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.htc.enter.model.Client;
-import com.htc.enter.model.Epic;
+import com.htc.enter.dto.ActivityPoint;
+import com.htc.enter.dto.DashboardMetrics;
+import com.htc.enter.model.ActivityBucket;
 import com.htc.enter.model.Project;
+import com.htc.enter.model.ProjectSnapshot;
 import com.htc.enter.model.Story;
+import com.htc.enter.model.StoryRollup;
 import com.htc.enter.model.User;
 import com.htc.enter.repository.ClientRepository;
 import com.htc.enter.repository.EpicRepository;
 import com.htc.enter.repository.ProjectRepository;
 import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.TimeLogRepository;
 import com.htc.enter.repository.UserRepository;
+import com.htc.enter.repository.projection.ClientRanking;
+import com.htc.enter.repository.projection.DashboardCounts;
+import com.htc.enter.repository.projection.EpicCounts;
+import com.htc.enter.repository.projection.ProjectStoryAggregate;
+import com.htc.enter.repository.projection.StoryStatusCounts;
+import com.htc.enter.repository.projection.UserHoursRow;
+import com.htc.enter.repository.projection.UserWorkloadRow;
+import com.htc.enter.service.ActivityRollupService;
 import com.htc.enter.service.AnalyticsService;
+import com.htc.enter.service.ProjectSnapshotService;
+import com.htc.enter.service.SlaComplianceService;
+import com.htc.enter.service.StoryIndexService;
+import com.htc.enter.service.WeeklyHoursService;
+import com.htc.enter.util.BottleneckForecaster;
+import com.htc.enter.util.CompletionForecaster;
+import com.htc.enter.util.LongLongMap;
 
 @Service
 public class AnalyticsServiceImpl implements AnalyticsService {
@@ -30,101 +55,143 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     private final EpicRepository epicRepository;
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
+    private final ActivityRollupService activityRollupService;
+    private final ProjectSnapshotService projectSnapshotService;
+    private final StoryIndexService storyIndexService;
+    private final TimeLogRepository timeLogRepository;
+    private final SlaComplianceService slaComplianceService;
+    private final WeeklyHoursService weeklyHoursService;
+    private final ReportComposer reportComposer;
+
+    @Value("${analytics.velocity.window-days:28}")
+    private int velocityWindowDays;
+
+    @Value("${analytics.forecast.history-days:28}")
+    private int forecastHistoryDays;
+
+    @Value("${analytics.forecast.default-daily-hours:6.0}")
+    private double defaultDailyHours;
+
+    @Value("${analytics.forecast.simulations:10000}")
+    private int forecastSimulations;
+
+    @Value("${analytics.forecast.throughput-weeks:12}")
+    private int forecastThroughputWeeks;
+
+    @Value("${analytics.forecast.min-samples:10}")
+    private int minForecastSamples;
+
+    @Value("${analytics.forecast.default-story-hours:8.0}")
+    private double defaultStoryHours;
+
+    @Value("${analytics.capacity.weekly-hours:40.0}")
+    private double weeklyCapacityHours;
+
+    @Value("${analytics.capacity.utilization-weeks:4}")
+    private int utilizationWeeks;
+
+    @Value("${analytics.capacity.planning-weeks:13}")
+    private int planningWeeks;
 
     public AnalyticsServiceImpl(ProjectRepository projectRepository, 
                           StoryRepository storyRepository,
                           EpicRepository epicRepository,
                           ClientRepository clientRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ActivityRollupService activityRollupService,
+                          ProjectSnapshotService projectSnapshotService,
+                          StoryIndexService storyIndexService,
+                          TimeLogRepository timeLogRepository,
+                          SlaComplianceService slaComplianceService,
+                          WeeklyHoursService weeklyHoursService,
+                          ReportComposer reportComposer) {
         this.projectRepository = projectRepository;
         this.storyRepository = storyRepository;
         this.epicRepository = epicRepository;
         this.clientRepository = clientRepository;
         this.userRepository = userRepository;
+        this.activityRollupService = activityRollupService;
+        this.projectSnapshotService = projectSnapshotService;
+        this.storyIndexService = storyIndexService;
+        this.timeLogRepository = timeLogRepository;
+        this.slaComplianceService = slaComplianceService;
+        this.weeklyHoursService = weeklyHoursService;
+        this.reportComposer = reportComposer;
     }
 
     @Override
-    public Map<String, Object> getDashboardMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Get all entities
-        List<Project> allProjects = projectRepository.findAll();
-        List<Story> allStories = storyRepository.findAll();
-        List<Epic> allEpics = epicRepository.findAll();
-        List<Client> allClients = clientRepository.findAll();
-        List<User> allUsers = userRepository.findAll();
-        
-        // Basic counts
-        metrics.put("totalProjects", allProjects.size());
-        metrics.put("totalStories", allStories.size());
-        metrics.put("totalEpics", allEpics.size());
-        metrics.put("totalClients", allClients.size());
-        metrics.put("totalUsers", allUsers.size());
-        
-        // Project statistics
-        long approvedProjects = allProjects.stream()
-            .filter(Project::isIs_approved)
-            .count();
-        metrics.put("approvedProjects", approvedProjects);
-        metrics.put("pendingProjects", allProjects.size() - approvedProjects);
-        
-        // Story statistics
-        long approvedStories = allStories.stream()
-            .filter(Story::isIs_approved)
-            .count();
-        metrics.put("approvedStories", approvedStories);
-        metrics.put("pendingStories", allStories.size() - approvedStories);
-        
-        // Stories assigned vs unassigned
-        long assignedStories = allStories.stream()
-            .filter(s -> s.getAssigned_to() != null)
-            .count();
-        metrics.put("assignedStories", assignedStories);
-        metrics.put("unassignedStories", allStories.size() - assignedStories);
-        
-        // Overdue items
-        LocalDate now = LocalDate.now();
-        long overdueProjects = allProjects.stream()
-            .filter(p -> !p.isIs_approved() && p.getDeadline() != null && p.getDeadline().isBefore(now))
-            .count();
-        metrics.put("overdueProjects", overdueProjects);
-        
-        long overdueStories = allStories.stream()
-            .filter(s -> !s.isIs_approved() && s.getDueDate() != null && s.getDueDate().isBefore(now))
-            .count();
-        metrics.put("overdueStories", overdueStories);
-        
-        return metrics;
+    @Transactional(readOnly = true)
+    public DashboardMetrics getDashboardMetrics() {
+        LocalDate today = LocalDate.now();
+        
+        // Two aggregate round trips instead of loading every entity table
+        DashboardCounts counts = projectRepository.aggregateDashboardCounts(today);
+        StoryStatusCounts stories = storyIndexService.isReady()
+            ? storyIndexService.statusCounts(today)
+            : storyRepository.aggregateStatusCounts(today);
+        
+        return new DashboardMetrics(
+            counts.getTotalProjects(),
+            stories.getTotal(),
+            counts.getTotalEpics(),
+            counts.getTotalClients(),
+            counts.getTotalUsers(),
+            counts.getApprovedProjects(),
+            counts.getTotalProjects() - counts.getApprovedProjects(),
+            stories.getApproved(),
+            stories.getTotal() - stories.getApproved(),
+            stories.getAssigned(),
+            stories.getTotal() - stories.getAssigned(),
+            counts.getOverdueProjects(),
+            stories.getOverdue()
+        );
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getProjectAnalytics(Long projectId) {
-        Map<String, Object> analytics = new HashMap<>();
+        if (!projectRepository.existsById(projectId)) {
+            return new HashMap<>();
+        }
+        return projectAnalytics(epicRepository.countByProject(projectId), projectAggregate(projectId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProjectSummary(Long projectId) {
+        Map<String, Object> summary = new HashMap<>();
         
         Project project = projectRepository.findById(projectId).orElse(null);
         if (project == null) {
-            return analytics;
+            return summary;
         }
         
-        List<Epic> projectEpics = epicRepository.findByProjectId(projectId);
-        analytics.put("totalEpics", projectEpics.size());
+        // One epic count and one story aggregate feed all four sections
+        ProjectStoryAggregate stories = projectAggregate(projectId);
+        summary.put("projectId", projectId);
+        summary.put("projectName", project.getName());
+        summary.put("analytics", projectAnalytics(epicRepository.countByProject(projectId), stories));
+        summary.put("estimationAccuracy", estimationAccuracy(stories));
+        summary.put("onTimeDeliveryRate", Math.round(onTimeRate(stories) * 100.0) / 100.0);
+        summary.put("riskAnalysis", riskAnalysis(stories));
         
-        long approvedEpics = projectEpics.stream()
-            .filter(Epic::isIs_approved)
-            .count();
-        analytics.put("approvedEpics", approvedEpics);
-        analytics.put("pendingEpics", projectEpics.size() - approvedEpics);
-        
-        // Count stories across all epics
-        int totalStories = 0;
-        int approvedStories = 0;
-        for (Epic epic : projectEpics) {
-            List<Story> epicStories = storyRepository.findByEpicId(epic.getEpicId());
-            totalStories += epicStories.size();
-            approvedStories += (int) epicStories.stream()
-                .filter(Story::isIs_approved)
-                .count();
-        }
+        return summary;
+    }
+
+    private ProjectStoryAggregate projectAggregate(Long projectId) {
+        LocalDate today = LocalDate.now();
+        return storyRepository.aggregateForProject(projectId, today.plusDays(3), today.plusDays(7));
+    }
+
+    private Map<String, Object> projectAnalytics(EpicCounts epics, ProjectStoryAggregate stories) {
+        Map<String, Object> analytics = new HashMap<>();
+        
+        analytics.put("totalEpics", epics.getTotal());
+        analytics.put("approvedEpics", epics.getApproved());
+        analytics.put("pendingEpics", epics.getTotal() - epics.getApproved());
+        
+        long totalStories = stories.getTotal();
+        long approvedStories = stories.getApproved();
         analytics.put("totalStories", totalStories);
         analytics.put("approvedStories", approvedStories);
         analytics.put("pendingStories", totalStories - approvedStories);
@@ -174,16 +241,9 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         }
         
         // Count stories assigned to this user
-        List<Story> allStories = storyRepository.findAll();
-        long assignedStories = allStories.stream()
-            .filter(s -> s.getAssigned_to() != null && s.getAssigned_to().getId().equals(userId))
-            .count();
-        
-        long completedStories = allStories.stream()
-            .filter(s -> s.getAssigned_to() != null && 
-                        s.getAssigned_to().getId().equals(userId) && 
-                        s.isIs_approved())
-            .count();
+        UserWorkloadRow workload = storyRepository.workloadForUser(userId).orElse(null);
+        long completedStories = workload != null ? workload.getClosedStories() : 0;
+        long assignedStories = workload != null ? completedStories + workload.getOpenStories() : 0;
         
         analytics.put("assignedStories", assignedStories);
         analytics.put("completedStories", completedStories);
@@ -193,22 +253,52 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getMonthlyTrends(int months) {
-        // Placeholder implementation
+        // Served from the activity buckets; never touches ewt_story or time_logs
+        List<ActivityPoint> trend = activityRollupService.getMonthlyTrend(
+            ActivityBucket.ScopeType.GLOBAL, ActivityBucket.GLOBAL_SCOPE_ID, months);
         Map<String, Object> trends = new HashMap<>();
         trends.put("months", months);
-        trends.put("message", "Monthly trends analysis coming soon");
+        trends.put("trend", trend);
+        trends.putAll(summarizeActivity(trend));
         return trends;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getWeeklyActivity() {
-        // Placeholder implementation
+        LocalDate today = LocalDate.now();
+        List<ActivityPoint> days = activityRollupService.getDailyActivity(
+            ActivityBucket.ScopeType.GLOBAL, ActivityBucket.GLOBAL_SCOPE_ID, today.minusDays(6), today);
         Map<String, Object> activity = new HashMap<>();
-        activity.put("message", "Weekly activity analysis coming soon");
+        activity.put("from", today.minusDays(6));
+        activity.put("to", today);
+        activity.put("days", days);
+        activity.putAll(summarizeActivity(days));
+        days.stream()
+            .max(Comparator.comparingDouble(ActivityPoint::hoursLogged))
+            .filter(day -> day.hoursLogged() > 0)
+            .ifPresent(day -> activity.put("busiestDay", day.period()));
         return activity;
     }
 
+    private Map<String, Object> summarizeActivity(List<ActivityPoint> points) {
+        long created = 0;
+        long approved = 0;
+        double hours = 0.0;
+        for (ActivityPoint point : points) {
+            created += point.storiesCreated();
+            approved += point.storiesApproved();
+            hours += point.hoursLogged();
+        }
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalStoriesCreated", created);
+        totals.put("totalStoriesApproved", approved);
+        totals.put("totalHoursLogged", Math.round(hours * 100.0) / 100.0);
+        return totals;
+    }
+
     @Override
     public List<Map<String, Object>> getProjectTimeline(Long projectId) {
         // Placeholder implementation
@@ -222,40 +312,190 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double calculateVelocity(Long projectId) {
-        // Placeholder implementation
-        return 0.0;
+        return velocity(recentSnapshots(projectId, velocityWindowDays));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double calculateBurndownRate(Long projectId) {
-        // Placeholder implementation
-        return 0.0;
+        return burndownRate(recentSnapshots(projectId, velocityWindowDays));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCompletionForecast(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+            .orElseThrow(() -> new IllegalArgumentException("Project not found with id: " + projectId));
+        LocalDate today = LocalDate.now();
+        
+        // Open work; unestimated stories are sized at the median of the estimated ones
+        List<Object[]> open = storyRepository.findOpenHoursForProject(projectId);
+        double[] known = open.stream()
+            .map(row -> (Double) row[0])
+            .filter(estimate -> estimate != null && estimate > 0)
+            .mapToDouble(Double::doubleValue)
+            .sorted()
+            .toArray();
+        double fallbackEstimate = known.length > 0 ? known[known.length / 2] : defaultStoryHours;
+        int n = open.size();
+        double[] estimates = new double[n];
+        double[] spent = new double[n];
+        double remainingHours = 0.0;
+        for (int i = 0; i < n; i++) {
+            Double estimate = (Double) open.get(i)[0];
+            Double actual = (Double) open.get(i)[1];
+            estimates[i] = estimate != null && estimate > 0 ? estimate : fallbackEstimate;
+            spent[i] = actual != null ? actual : 0.0;
+            remainingHours += Math.max(estimates[i] - spent[i], 0.0);
+        }
+        
+        // Estimation error from the project's own history, or organisation-wide while it is too young
+        List<Double> ratioSamples = storyRepository.findEstimateRatiosForProject(projectId);
+        String ratioSource = "project";
+        if (ratioSamples.size() < minForecastSamples) {
+            ratioSamples = storyRepository.findEstimateRatios(PageRequest.of(0, 5000));
+            ratioSource = "organization";
+        }
+        double[] ratios = ratioSamples.stream().mapToDouble(Double::doubleValue).toArray();
+        if (ratios.length == 0) {
+            ratios = new double[] {1.0};
+            ratioSource = "none";
+        }
+        
+        // Weekly throughput from the project's daily logged-hours buckets
+        List<ActivityPoint> daily = activityRollupService.getDailyActivity(ActivityBucket.ScopeType.PROJECT,
+            projectId, today.minusWeeks(forecastThroughputWeeks), today.minusDays(1));
+        double[] weeklyHours = new double[forecastThroughputWeeks];
+        for (int d = 0; d < daily.size(); d++) {
+            weeklyHours[Math.min(d / 7, forecastThroughputWeeks - 1)] += daily.get(d).hoursLogged();
+        }
+        double averageWeeklyHours = Arrays.stream(weeklyHours).average().orElse(0.0);
+        
+        Map<String, Object> forecast = new HashMap<>();
+        forecast.put("projectId", projectId);
+        forecast.put("projectName", project.getName());
+        forecast.put("remainingStories", n);
+        forecast.put("remainingHours", round2(remainingHours));
+        forecast.put("ratioSamples", ratioSamples.size());
+        forecast.put("ratioSource", ratioSource);
+        forecast.put("throughputWeeks", forecastThroughputWeeks);
+        forecast.put("averageWeeklyHours", round2(averageWeeklyHours));
+        forecast.put("deadline", project.getDeadline());
+        
+        if (n > 0 && averageWeeklyHours <= 0) {
+            forecast.put("forecastable", false);
+            forecast.put("reason", "No hours logged on this project in the last " + forecastThroughputWeeks + " weeks");
+            return forecast;
+        }
+        
+        // Seeded per project and day so repeated requests agree
+        int[] outcomes = CompletionForecaster.simulate(estimates, spent, ratios, weeklyHours,
+            forecastSimulations, projectId * 31 + today.toEpochDay());
+        int p50 = CompletionForecaster.percentile(outcomes, 50);
+        int p85 = CompletionForecaster.percentile(outcomes, 85);
+        int p95 = CompletionForecaster.percentile(outcomes, 95);
+        
+        forecast.put("forecastable", true);
+        forecast.put("simulations", forecastSimulations);
+        forecast.put("p50Date", today.plusDays(p50));
+        forecast.put("p85Date", today.plusDays(p85));
+        forecast.put("p95Date", today.plusDays(p95));
+        forecast.put("p50Days", p50);
+        forecast.put("p85Days", p85);
+        forecast.put("p95Days", p95);
+        if (project.getDeadline() != null) {
+            int daysToDeadline = (int) ChronoUnit.DAYS.between(today, project.getDeadline());
+            forecast.put("onTimeProbability", daysToDeadline < 0
+                ? 0.0
+                : round2(CompletionForecaster.probabilityWithin(outcomes, daysToDeadline) * 100.0));
+        }
+        return forecast;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBurndown(Long projectId, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Days must be at least 1");
+        }
+        List<ProjectSnapshot> snapshots = recentSnapshots(projectId, days);
+
+        List<Map<String, Object>> series = new ArrayList<>(snapshots.size());
+        for (ProjectSnapshot snapshot : snapshots) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", snapshot.getSnapshotDate());
+            point.put("totalStories", snapshot.getTotalStories());
+            point.put("completedStories", snapshot.getCompletedStories());
+            point.put("remainingStories", snapshot.getRemainingStories());
+            point.put("remainingEstimatedHours", snapshot.getRemainingEstimatedHours());
+            series.add(point);
+        }
+
+        Map<String, Object> burndown = new HashMap<>();
+        burndown.put("projectId", projectId);
+        burndown.put("days", days);
+        burndown.put("series", series);
+        double rate = burndownRate(snapshots);
+        burndown.put("velocity", velocity(snapshots));
+        burndown.put("burndownRate", rate);
+        if (!snapshots.isEmpty() && rate > 0) {
+            ProjectSnapshot latest = snapshots.get(snapshots.size() - 1);
+            long daysLeft = (long) Math.ceil(latest.getRemainingStories() / rate);
+            burndown.put("projectedCompletionDate", latest.getSnapshotDate().plusDays(daysLeft));
+        }
+        return burndown;
+    }
+
+    private List<ProjectSnapshot> recentSnapshots(Long projectId, int days) {
+        LocalDate today = LocalDate.now();
+        return projectSnapshotService.getSnapshots(projectId, today.minusDays(days - 1L), today);
+    }
+
+    /**
+     * Stories completed per week between the first and last snapshot
+     */
+    private double velocity(List<ProjectSnapshot> snapshots) {
+        if (snapshots.size() < 2) {
+            return 0.0;
+        }
+        ProjectSnapshot first = snapshots.get(0);
+        ProjectSnapshot last = snapshots.get(snapshots.size() - 1);
+        long elapsedDays = ChronoUnit.DAYS.between(first.getSnapshotDate(), last.getSnapshotDate());
+        double perWeek = (last.getCompletedStories() - first.getCompletedStories()) * 7.0 / elapsedDays;
+        return Math.round(perWeek * 100.0) / 100.0;
+    }
+
+    /**
+     * Remaining stories burned per day between the first and last snapshot
+     */
+    private double burndownRate(List<ProjectSnapshot> snapshots) {
+        if (snapshots.size() < 2) {
+            return 0.0;
+        }
+        ProjectSnapshot first = snapshots.get(0);
+        ProjectSnapshot last = snapshots.get(snapshots.size() - 1);
+        long elapsedDays = ChronoUnit.DAYS.between(first.getSnapshotDate(), last.getSnapshotDate());
+        double perDay = (double) (first.getRemainingStories() - last.getRemainingStories()) / elapsedDays;
+        return Math.round(perDay * 100.0) / 100.0;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getEstimationAccuracy(Long projectId) {
+        return estimationAccuracy(projectAggregate(projectId));
+    }
+
+    private Map<String, Object> estimationAccuracy(ProjectStoryAggregate stories) {
         Map<String, Object> accuracy = new HashMap<>();
         
-        List<Epic> projectEpics = epicRepository.findByProjectId(projectId);
-        double totalEstimated = 0.0;
-        double totalActual = 0.0;
-        int storyCount = 0;
-        
-        for (Epic epic : projectEpics) {
-            List<Story> stories = storyRepository.findByEpicId(epic.getEpicId());
-            for (Story story : stories) {
-                if (story.getEstimatedHours() != null && story.getActualHours() != null) {
-                    totalEstimated += story.getEstimatedHours();
-                    totalActual += story.getActualHours();
-                    storyCount++;
-                }
-            }
-        }
+        double totalEstimated = stories.getTrackedEstimatedHours();
+        double totalActual = stories.getTrackedActualHours();
         
         accuracy.put("totalEstimatedHours", totalEstimated);
         accuracy.put("totalActualHours", totalActual);
-        accuracy.put("storiesWithTimeTracking", storyCount);
+        accuracy.put("storiesWithTimeTracking", stories.getTrackedStories());
         
         if (totalEstimated > 0) {
             double accuracyPercentage = (totalActual / totalEstimated) * 100;
@@ -268,180 +508,148 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getWorkloadDistribution() {
         Map<String, Object> distribution = new HashMap<>();
-        List<User> allUsers = userRepository.findAll();
-        List<Story> allStories = storyRepository.findAll();
-        
-        Map<Long, Long> storiesPerUser = allStories.stream()
-            .filter(s -> s.getAssigned_to() != null)
-            .collect(Collectors.groupingBy(
-                s -> s.getAssigned_to().getId(),
-                Collectors.counting()
-            ));
+        List<UserWorkloadRow> rows = storyRepository.workloadByAssignee();
+        
+        // One grouped row per assignee, kept primitive end to end; totals are summed in the same pass
+        LongLongMap storiesPerUser = new LongLongMap(rows.size());
+        long totalStories = 0;
+        long totalOpen = 0;
+        for (UserWorkloadRow row : rows) {
+            if (row.getUserId() == null) {
+                continue;
+            }
+            long stories = row.getOpenStories() + row.getClosedStories();
+            storiesPerUser.add(row.getUserId(), stories);
+            totalStories += stories;
+            totalOpen += row.getOpenStories();
+        }
         
         distribution.put("storiesPerUser", storiesPerUser);
-        distribution.put("totalUsers", allUsers.size());
-        distribution.put("totalAssignedStories", storiesPerUser.values().stream().mapToLong(Long::longValue).sum());
+        distribution.put("totalUsers", userRepository.count());
+        distribution.put("totalAssignedStories", totalStories);
+        distribution.put("totalOpenStories", totalOpen);
         
         return distribution;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserWorkload(Long userId) {
         Map<String, Object> workload = new HashMap<>();
         
-        List<Story> allStories = storyRepository.findAll();
-        List<Story> userStories = allStories.stream()
-            .filter(s -> s.getAssigned_to() != null && s.getAssigned_to().getId().equals(userId))
-            .collect(Collectors.toList());
-        
-        workload.put("totalStories", userStories.size());
-        workload.put("completedStories", userStories.stream().filter(Story::isIs_approved).count());
-        workload.put("pendingStories", userStories.stream().filter(s -> !s.isIs_approved()).count());
+        long open = 0;
+        long closed = 0;
+        double totalEstimatedHours = 0.0;
+        UserWorkloadRow row = storyRepository.workloadForUser(userId).orElse(null);
+        if (row != null) {
+            open = row.getOpenStories();
+            closed = row.getClosedStories();
+            totalEstimatedHours = row.getEstimatedHours();
+        }
         
-        double totalEstimatedHours = userStories.stream()
-            .filter(s -> s.getEstimatedHours() != null)
-            .mapToDouble(Story::getEstimatedHours)
-            .sum();
+        workload.put("totalStories", open + closed);
+        workload.put("completedStories", closed);
+        workload.put("pendingStories", open);
         workload.put("totalEstimatedHours", totalEstimatedHours);
         
         return workload;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getOverloadedUsers(int threshold) {
-        List<Map<String, Object>> overloaded = new ArrayList<>();
-        List<User> allUsers = userRepository.findAll();
-        List<Story> allStories = storyRepository.findAll();
-        
-        for (User user : allUsers) {
-            long storyCount = allStories.stream()
-                .filter(s -> s.getAssigned_to() != null && s.getAssigned_to().getId().equals(user.getId()))
-                .filter(s -> !s.isIs_approved())
-                .count();
-            
-            if (storyCount > threshold) {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("userId", user.getId());
-                userInfo.put("username", user.getUsername());
-                userInfo.put("email", user.getEmail());
-                userInfo.put("storyCount", storyCount);
-                overloaded.add(userInfo);
-            }
-        }
-        
-        return overloaded;
+        return toUserInfo(storyRepository.findOverloadedUsers(threshold));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getUnderutilizedUsers(int threshold) {
-        List<Map<String, Object>> underutilized = new ArrayList<>();
-        List<User> allUsers = userRepository.findAll();
-        List<Story> allStories = storyRepository.findAll();
-        
-        for (User user : allUsers) {
-            long storyCount = allStories.stream()
-                .filter(s -> s.getAssigned_to() != null && s.getAssigned_to().getId().equals(user.getId()))
-                .filter(s -> !s.isIs_approved())
-                .count();
-            
-            if (storyCount < threshold) {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("userId", user.getId());
-                userInfo.put("username", user.getUsername());
-                userInfo.put("email", user.getEmail());
-                userInfo.put("storyCount", storyCount);
-                underutilized.add(userInfo);
-            }
+        return toUserInfo(storyRepository.findUnderutilizedUsers(threshold));
+    }
+
+    private List<Map<String, Object>> toUserInfo(List<UserWorkloadRow> rows) {
+        List<Map<String, Object>> users = new ArrayList<>(rows.size());
+        for (UserWorkloadRow row : rows) {
+            Map<String, Object> userInfo = new HashMap<>();
+            userInfo.put("userId", row.getUserId());
+            userInfo.put("username", row.getUsername());
+            userInfo.put("email", row.getEmail());
+            userInfo.put("storyCount", row.getOpenStories());
+            userInfo.put("estimatedHours", row.getEstimatedHours());
+            users.add(userInfo);
         }
-        
-        return underutilized;
+        return users;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double calculateOnTimeDeliveryRate(Long projectId) {
-        List<Epic> projectEpics = epicRepository.findByProjectId(projectId);
-        int totalStories = 0;
-        int onTimeStories = 0;
-        LocalDate now = LocalDate.now();
-        
-        for (Epic epic : projectEpics) {
-            List<Story> stories = storyRepository.findByEpicId(epic.getEpicId());
-            for (Story story : stories) {
-                if (story.isIs_approved() && story.getDueDate() != null) {
-                    totalStories++;
-                    if (story.getIs_end() != null && !story.getIs_end().isAfter(story.getDueDate())) {
-                        onTimeStories++;
-                    }
-                }
-            }
-        }
-        
-        if (totalStories > 0) {
-            return (onTimeStories * 100.0) / totalStories;
+        return onTimeRate(projectAggregate(projectId));
+    }
+
+    private double onTimeRate(ProjectStoryAggregate stories) {
+        if (stories.getDeliveredWithDueDate() > 0) {
+            return (stories.getDeliveredOnTime() * 100.0) / stories.getDeliveredWithDueDate();
         }
         return 0.0;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getQualityMetrics(Long projectId) {
         Map<String, Object> metrics = new HashMap<>();
         
-        Double onTimeRate = calculateOnTimeDeliveryRate(projectId);
-        metrics.put("onTimeDeliveryRate", Math.round(onTimeRate * 100.0) / 100.0);
-        
-        Map<String, Object> estimationAccuracy = getEstimationAccuracy(projectId);
-        metrics.put("estimationAccuracy", estimationAccuracy);
+        ProjectStoryAggregate stories = projectAggregate(projectId);
+        metrics.put("onTimeDeliveryRate", Math.round(onTimeRate(stories) * 100.0) / 100.0);
+        metrics.put("estimationAccuracy", estimationAccuracy(stories));
         
         return metrics;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getRiskAnalysis(Long projectId) {
+        return riskAnalysis(projectAggregate(projectId));
+    }
+
+    /**
+     * Open stories bucketed by days until due: high < 3, medium < 7, low otherwise
+     */
+    private Map<String, Object> riskAnalysis(ProjectStoryAggregate stories) {
         Map<String, Object> risks = new HashMap<>();
         
-        List<Epic> projectEpics = epicRepository.findByProjectId(projectId);
-        LocalDate now = LocalDate.now();
-        int highRiskStories = 0;
-        int mediumRiskStories = 0;
-        int lowRiskStories = 0;
-        
-        for (Epic epic : projectEpics) {
-            List<Story> stories = storyRepository.findByEpicId(epic.getEpicId());
-            for (Story story : stories) {
-                if (!story.isIs_approved() && story.getDueDate() != null) {
-                    long daysUntilDue = java.time.temporal.ChronoUnit.DAYS.between(now, story.getDueDate());
-                    if (daysUntilDue < 3) {
-                        highRiskStories++;
-                    } else if (daysUntilDue < 7) {
-                        mediumRiskStories++;
-                    } else {
-                        lowRiskStories++;
-                    }
-                }
-            }
-        }
-        
-        risks.put("highRiskStories", highRiskStories);
-        risks.put("mediumRiskStories", mediumRiskStories);
-        risks.put("lowRiskStories", lowRiskStories);
+        risks.put("highRiskStories", stories.getHighRisk());
+        risks.put("mediumRiskStories", stories.getMediumRisk());
+        risks.put("lowRiskStories", stories.getLowRisk());
         
         return risks;
     }
 
     @Override
     public Map<String, Object> generateTeamReport() {
+        LocalDate today = LocalDate.now();
+        ReportComposer.Composition parts = reportComposer.compose()
+            .branch("users", userRepository::count)
+            .branch("projects", projectRepository::count)
+            .branch("stories", () -> storyRepository.aggregateStatusCounts(today))
+            .branch("teamAnalytics", this::getTeamAnalytics)
+            .branch("workload", this::getWorkloadDistribution)
+            .branch("utilization", this::getResourceUtilization)
+            .join();
+        
+        StoryStatusCounts stories = parts.get("stories");
         Map<String, Object> report = new HashMap<>();
-        
-        List<User> users = userRepository.findAll();
-        List<Project> projects = projectRepository.findAll();
-        List<Story> stories = storyRepository.findAll();
-        
-        report.put("totalUsers", users.size());
-        report.put("totalProjects", projects.size());
-        report.put("totalStories", stories.size());
-        report.put("completedStories", stories.stream().filter(Story::isIs_approved).count());
+        report.put("totalUsers", parts.get("users"));
+        report.put("totalProjects", parts.get("projects"));
+        report.put("totalStories", stories.getTotal());
+        report.put("completedStories", stories.getApproved());
+        report.put("teamAnalytics", parts.get("teamAnalytics"));
+        report.put("workloadDistribution", parts.get("workload"));
+        report.put("resourceUtilization", parts.get("utilization"));
+        report.put("timings", parts.timings());
         
         return report;
     }
@@ -449,61 +657,103 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Override
     public Map<String, Object> generateProjectReport(Long projectId) {
         Map<String, Object> report = new HashMap<>();
-        
-        Project project = projectRepository.findById(projectId).orElse(null);
-        if (project == null) {
+        if (!projectRepository.existsById(projectId)) {
             return report;
         }
         
+        ReportComposer.Composition parts = reportComposer.compose()
+            .branch("project", () -> projectRepository.findById(projectId).orElse(null))
+            .branch("epics", () -> epicRepository.countByProject(projectId))
+            .branch("stories", () -> projectAggregate(projectId))
+            .branch("burndown", () -> getBurndown(projectId, velocityWindowDays))
+            .branch("slaComplianceRate", () -> getSLAComplianceRate(projectId))
+            .join();
+        
+        Project project = parts.get("project");
+        ProjectStoryAggregate stories = parts.get("stories");
         report.put("projectId", projectId);
-        report.put("projectName", project.getName());
-        report.put("analytics", getProjectAnalytics(projectId));
-        report.put("riskAnalysis", getRiskAnalysis(projectId));
+        report.put("projectName", project != null ? project.getName() : null);
+        report.put("analytics", projectAnalytics(parts.get("epics"), stories));
+        report.put("riskAnalysis", riskAnalysis(stories));
+        report.put("burndown", parts.get("burndown"));
+        report.put("slaComplianceRate", parts.get("slaComplianceRate"));
+        report.put("timings", parts.timings());
         
         return report;
     }
 
     @Override
     public Map<String, Object> generateExecutiveReport(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> report = new HashMap<>();
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be on or before end date");
+        }
+        
+        // Independent sections, each in its own read-only transaction
+        ReportComposer.Composition parts = reportComposer.compose()
+            .branch("dashboardMetrics", this::getDashboardMetrics)
+            .branch("teamAnalytics", this::getTeamAnalytics)
+            .branch("periodActivity", () -> periodActivity(startDate, endDate))
+            .branch("slaCompliance", this::getSLACompliance)
+            .branch("topClients", () -> getTopClients(5))
+            .branch("capacityPlanning", this::getCapacityPlanning)
+            .join();
         
+        Map<String, Object> report = new HashMap<>();
         report.put("period", Map.of("startDate", startDate, "endDate", endDate));
-        report.put("dashboardMetrics", getDashboardMetrics());
-        report.put("teamAnalytics", getTeamAnalytics());
+        report.put("dashboardMetrics", parts.get("dashboardMetrics"));
+        report.put("teamAnalytics", parts.get("teamAnalytics"));
+        report.put("periodActivity", parts.get("periodActivity"));
+        report.put("slaCompliance", parts.get("slaCompliance"));
+        report.put("topClients", parts.get("topClients"));
+        report.put("capacityPlanning", parts.get("capacityPlanning"));
+        report.put("timings", parts.timings());
         
         return report;
     }
 
+    private Map<String, Object> periodActivity(LocalDate startDate, LocalDate endDate) {
+        // Day rows and compacted month rows alike, so older periods don't read as zero
+        ActivityPoint total = activityRollupService.getActivityTotal(
+            ActivityBucket.ScopeType.GLOBAL, ActivityBucket.GLOBAL_SCOPE_ID, startDate, endDate);
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("storiesCreated", total.storiesCreated());
+        activity.put("storiesApproved", total.storiesApproved());
+        activity.put("hoursLogged", total.hoursLogged());
+        return activity;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getClientMetrics(Long clientId) {
         Map<String, Object> metrics = new HashMap<>();
         
-        Client client = clientRepository.findById(clientId).orElse(null);
+        ClientRanking client = clientRepository.findClientRanking(
+            clientId, LocalDate.now(), StoryRollup.ScopeType.CLIENT).orElse(null);
         if (client == null) {
             return metrics;
         }
         
-        List<Project> clientProjects = projectRepository.findByClientId(clientId);
-        metrics.put("totalProjects", clientProjects.size());
-        metrics.put("clientName", client.getName());
+        metrics.put("clientName", client.getClientName());
+        metrics.put("totalProjects", client.getTotalProjects());
+        metrics.put("approvedProjects", client.getApprovedProjects());
+        metrics.put("pendingProjects", client.getTotalProjects() - client.getApprovedProjects());
+        metrics.put("overdueProjects", client.getOverdueProjects());
+        metrics.put("totalStories", client.getTotalStories());
+        metrics.put("approvedStories", client.getApprovedStories());
+        metrics.put("completionPercentage", client.getTotalStories() > 0
+            ? round2(client.getApprovedStories() * 100.0 / client.getTotalStories())
+            : 0.0);
         
         return metrics;
     }
 
     @Override
-    public List<Map<String, Object>> getTopClients(int limit) {
-        List<Client> clients = clientRepository.findAll();
-        List<Map<String, Object>> topClients = new ArrayList<>();
-        
-        for (Client client : clients) {
-            if (topClients.size() >= limit) break;
-            Map<String, Object> clientData = new HashMap<>();
-            clientData.put("clientId", client.getClientId());
-            clientData.put("clientName", client.getName());
-            topClients.add(clientData);
+    @Transactional(readOnly = true)
+    public List<ClientRanking> getTopClients(int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("Limit must be between 1 and 100");
         }
-        
-        return topClients;
+        return clientRepository.findTopClients(LocalDate.now(), StoryRollup.ScopeType.CLIENT, PageRequest.of(0, limit));
     }
 
     @Override
@@ -514,28 +764,224 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getResourceUtilization() {
+        LocalDate currentWeek = WeeklyHoursService.weekStart(LocalDate.now());
+        long teamSize = userRepository.count();
+        double weeklyTeamCapacity = teamSize * weeklyCapacityHours;
+        
+        // One cached aggregate per week; the current week is week-to-date
+        List<Map<String, Object>> weeks = new ArrayList<>();
+        Map<Long, Double> userHours = new HashMap<>();
+        double totalLogged = 0.0;
+        for (int w = utilizationWeeks - 1; w >= 0; w--) {
+            LocalDate weekStart = currentWeek.minusWeeks(w);
+            Map<Long, Double> hours = weeklyHoursService.getHoursByUser(weekStart);
+            double logged = 0.0;
+            for (Map.Entry<Long, Double> entry : hours.entrySet()) {
+                logged += entry.getValue();
+                userHours.merge(entry.getKey(), entry.getValue(), Double::sum);
+            }
+            totalLogged += logged;
+            
+            Map<String, Object> week = new HashMap<>();
+            week.put("weekStart", weekStart);
+            week.put("loggedHours", round2(logged));
+            week.put("activeUsers", hours.size());
+            week.put("utilization", percentage(logged, weeklyTeamCapacity));
+            weeks.add(week);
+        }
+        
+        double userCapacity = weeklyCapacityHours * utilizationWeeks;
+        Map<Long, String> usernames = new HashMap<>();
+        for (User user : userRepository.findAllById(userHours.keySet())) {
+            usernames.put(user.getId(), user.getUsername());
+        }
+        List<Map<String, Object>> users = new ArrayList<>();
+        long overutilized = 0;
+        long halfUtilized = 0;
+        for (Map.Entry<Long, Double> entry : userHours.entrySet()) {
+            double hours = entry.getValue();
+            overutilized += hours > userCapacity ? 1 : 0;
+            halfUtilized += hours >= userCapacity / 2 ? 1 : 0;
+            
+            Map<String, Object> user = new HashMap<>();
+            user.put("userId", entry.getKey());
+            user.put("username", usernames.get(entry.getKey()));
+            user.put("loggedHours", round2(hours));
+            user.put("capacityHours", round2(userCapacity));
+            user.put("utilization", percentage(hours, userCapacity));
+            users.add(user);
+        }
+        users.sort(Comparator.comparingDouble((Map<String, Object> m) -> (Double) m.get("loggedHours")).reversed());
+        
         Map<String, Object> metrics = new HashMap<>();
-        List<User> users = userRepository.findAll();
-        metrics.put("totalUsers", users.size());
+        metrics.put("totalUsers", teamSize);
+        metrics.put("weeklyCapacityHours", weeklyCapacityHours);
+        metrics.put("weeks", weeks);
+        metrics.put("loggedHours", round2(totalLogged));
+        metrics.put("capacityHours", round2(weeklyTeamCapacity * utilizationWeeks));
+        metrics.put("utilization", percentage(totalLogged, weeklyTeamCapacity * utilizationWeeks));
+        metrics.put("overutilizedUsers", overutilized);
+        metrics.put("underutilizedUsers", teamSize - halfUtilized);
+        metrics.put("users", users);
         return metrics;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> predictBottlenecks(int daysAhead) {
-        // Placeholder implementation
-        return new ArrayList<>();
+        if (daysAhead < 1 || daysAhead > 365) {
+            throw new IllegalArgumentException("Days ahead must be between 1 and 365");
+        }
+        LocalDate today = LocalDate.now();
+        List<Object[]> work = storyRepository.findOpenWorkTuples();
+        List<Map<String, Object>> bottlenecks = new ArrayList<>();
+        if (work.isEmpty()) {
+            return bottlenecks;
+        }
+        
+        // Dense user indexes and per-story primitive columns
+        Map<Long, Integer> userIndex = new HashMap<>();
+        List<Long> userIds = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        Map<Long, String> projectNames = new HashMap<>();
+        int n = work.size();
+        int[] storyUser = new int[n];
+        int[] storyDue = new int[n];
+        double[] storyRemaining = new double[n];
+        long[] storyProject = new long[n];
+        for (int i = 0; i < n; i++) {
+            Object[] row = work.get(i);
+            Long userId = (Long) row[0];
+            Integer index = userIndex.get(userId);
+            if (index == null) {
+                index = userIds.size();
+                userIndex.put(userId, index);
+                userIds.add(userId);
+                usernames.add((String) row[1]);
+            }
+            storyUser[i] = index;
+            if (row[2] != null) {
+                storyProject[i] = (Long) row[2];
+                projectNames.putIfAbsent(storyProject[i], (String) row[3]);
+            }
+            LocalDate dueDate = (LocalDate) row[4];
+            // Work without a due date is spread across the whole horizon
+            storyDue[i] = dueDate != null ? (int) ChronoUnit.DAYS.between(today, dueDate) : daysAhead - 1;
+            double actual = row[6] != null ? (Double) row[6] : 0.0;
+            storyRemaining[i] = Math.max((Double) row[5] - actual, 0.0);
+        }
+        
+        // Capacity is each user's recent logged hours per calendar day
+        Map<Long, Double> loggedHours = new HashMap<>();
+        for (UserHoursRow row : timeLogRepository.sumHoursByUserSince(today.minusDays(forecastHistoryDays).atStartOfDay())) {
+            loggedHours.put(row.getUserId(), row.getHours());
+        }
+        double[] capacity = new double[userIds.size()];
+        for (int u = 0; u < capacity.length; u++) {
+            Double logged = loggedHours.get(userIds.get(u));
+            capacity[u] = logged != null && logged > 0 ? logged / forecastHistoryDays : defaultDailyHours;
+        }
+        
+        BottleneckForecaster.Result forecast = BottleneckForecaster.forecast(
+            daysAhead, capacity, storyUser, storyDue, storyRemaining);
+        
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (int u = 0; u < capacity.length; u++) {
+            if (forecast.overloadedDays(u) == 0) {
+                continue;
+            }
+            double capacityHours = capacity[u] * daysAhead;
+            Map<String, Object> user = new HashMap<>();
+            user.put("type", "USER");
+            user.put("userId", userIds.get(u));
+            user.put("username", usernames.get(u));
+            user.put("dailyCapacity", round2(capacity[u]));
+            user.put("peakDailyDemand", round2(forecast.peakDemand(u)));
+            user.put("demandHours", round2(forecast.totalDemand(u)));
+            user.put("capacityHours", round2(capacityHours));
+            user.put("utilization", round2(forecast.totalDemand(u) * 100.0 / capacityHours));
+            user.put("overloadedDays", forecast.overloadedDays(u));
+            user.put("firstOverloadDate", today.plusDays(forecast.firstOverloadDay(u)));
+            users.add(user);
+        }
+        users.sort(Comparator.comparingInt((Map<String, Object> m) -> (Integer) m.get("overloadedDays")).reversed());
+        
+        // Project demand inside the horizon and the share of it sitting on overloaded days
+        Map<Long, double[]> projectLoad = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (storyProject[i] == 0L) {
+                continue;
+            }
+            int span = Math.max(storyDue[i], 0) + 1;
+            double[] load = projectLoad.computeIfAbsent(storyProject[i], id -> new double[2]);
+            load[0] += storyRemaining[i] * Math.min(span, daysAhead) / span;
+            load[1] += forecast.storyAtRisk(i);
+        }
+        List<Map<String, Object>> projects = new ArrayList<>();
+        projectLoad.forEach((projectId, load) -> {
+            if (load[1] <= 0.0) {
+                return;
+            }
+            Map<String, Object> project = new HashMap<>();
+            project.put("type", "PROJECT");
+            project.put("projectId", projectId);
+            project.put("projectName", projectNames.get(projectId));
+            project.put("demandHours", round2(load[0]));
+            project.put("hoursAtRisk", round2(load[1]));
+            project.put("riskPercentage", round2(load[0] > 0 ? load[1] * 100.0 / load[0] : 0.0));
+            projects.add(project);
+        });
+        projects.sort(Comparator.comparingDouble((Map<String, Object> m) -> (Double) m.get("hoursAtRisk")).reversed());
+        
+        bottlenecks.addAll(users);
+        bottlenecks.addAll(projects);
+        return bottlenecks;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static double percentage(double part, double whole) {
+        return whole > 0 ? round2(part * 100.0 / whole) : 0.0;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getCapacityPlanning() {
-        Map<String, Object> metrics = new HashMap<>();
-        List<User> users = userRepository.findAll();
-        List<Project> projects = projectRepository.findAll();
+        LocalDate currentWeek = WeeklyHoursService.weekStart(LocalDate.now());
+        long teamSize = userRepository.count();
+        double plannedCapacity = teamSize * weeklyCapacityHours * planningWeeks;
+        
+        // Throughput from the same number of completed weeks that is being planned
+        double historyLogged = 0.0;
+        for (int w = 1; w <= planningWeeks; w++) {
+            for (double hours : weeklyHoursService.getHoursByUser(currentWeek.minusWeeks(w)).values()) {
+                historyLogged += hours;
+            }
+        }
+        double averageWeeklyLogged = historyLogged / planningWeeks;
+        double backlogHours = storyRepository.sumOpenRemainingHours();
+        double capacityGap = backlogHours - plannedCapacity;
+        double userPlanningCapacity = weeklyCapacityHours * planningWeeks;
         
-        metrics.put("totalUsers", users.size());
-        metrics.put("totalProjects", projects.size());
-        metrics.put("capacity", users.size() * 40); // Assuming 40 hours per user per week
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("totalUsers", teamSize);
+        metrics.put("weeklyCapacityHours", weeklyCapacityHours);
+        metrics.put("planningWeeks", planningWeeks);
+        metrics.put("planningStart", currentWeek);
+        metrics.put("planningEnd", currentWeek.plusWeeks(planningWeeks).minusDays(1));
+        metrics.put("capacityHours", round2(plannedCapacity));
+        metrics.put("averageWeeklyLoggedHours", round2(averageWeeklyLogged));
+        metrics.put("historicalUtilization", percentage(historyLogged, plannedCapacity));
+        metrics.put("projectedDeliveredHours", round2(averageWeeklyLogged * planningWeeks));
+        metrics.put("openBacklogHours", round2(backlogHours));
+        metrics.put("weeksToClearBacklog", averageWeeklyLogged > 0 ? round2(backlogHours / averageWeeklyLogged) : null);
+        metrics.put("capacityGapHours", round2(capacityGap));
+        metrics.put("additionalUsersNeeded", capacityGap > 0 && userPlanningCapacity > 0
+            ? (long) Math.ceil(capacityGap / userPlanningCapacity) : 0L);
         
         return metrics;
     }
@@ -545,18 +991,23 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         List<Map<String, Object>> highRiskStories = new ArrayList<>();
         LocalDate now = LocalDate.now();
         
-        List<Story> allStories = storyRepository.findAll();
-        for (Story story : allStories) {
-            if (!story.isIs_approved() && story.getDueDate() != null) {
-                long daysUntilDue = java.time.temporal.ChronoUnit.DAYS.between(now, story.getDueDate());
-                if (daysUntilDue < 3 && daysUntilDue >= 0) {
-                    Map<String, Object> storyData = new HashMap<>();
-                    storyData.put("storyId", story.getStoryId());
-                    storyData.put("title", story.getTitle());
-                    storyData.put("daysUntilDue", daysUntilDue);
-                    highRiskStories.add(storyData);
-                }
-            }
+        // Open stories due within the next three days
+        List<Story> dueSoon;
+        if (storyIndexService.isReady()) {
+            long[] ids = storyIndexService.storyIds(StoryIndexService.Query.all()
+                .approved(false).dueFrom(now).dueBefore(now.plusDays(3)));
+            dueSoon = storyRepository.findAllById(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+        } else {
+            dueSoon = storyRepository.findOpenDueBetween(now, now.plusDays(3));
+        }
+        
+        for (Story story : dueSoon) {
+            long daysUntilDue = ChronoUnit.DAYS.between(now, story.getDueDate());
+            Map<String, Object> storyData = new HashMap<>();
+            storyData.put("storyId", story.getStoryId());
+            storyData.put("title", story.getTitle());
+            storyData.put("daysUntilDue", daysUntilDue);
+            highRiskStories.add(storyData);
         }
         
         return highRiskStories;
@@ -567,13 +1018,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return new ArrayList<>();
     }
 
+    @Override
     public Map<String, Object> getSLACompliance() {
-        // Placeholder implementation
-        return new HashMap<>();
+        return slaComplianceService.getComplianceReport();
     }
 
+    @Override
     public Double getSLAComplianceRate(Long projectId) {
-        // Placeholder implementation
-        return 95.0;
+        return round2(slaComplianceService.getComplianceRate(projectId));
     }
 }
@@ -0,0 +1,206 @@
+package com.htc.enter.serviceimpl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.htc.enter.cache.AnalyticsDataVersion;
+import com.htc.enter.dto.DashboardSnapshot;
+import com.htc.enter.event.ProjectChangedEvent;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.exception.ServiceUnavailableException;
+import com.htc.enter.service.AnalyticsStreamService;
+import com.htc.enter.service.DashboardSnapshotService;
+
+@Service
+public class AnalyticsStreamServiceImpl implements AnalyticsStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsStreamServiceImpl.class);
+
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final AnalyticsDataVersion dataVersion;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    // Slots are reserved before a connection is set up so concurrent subscribers cannot overshoot the cap
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+
+    @Value("${analytics.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${analytics.stream.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${analytics.stream.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    @Value("${analytics.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    public AnalyticsStreamServiceImpl(DashboardSnapshotService dashboardSnapshotService,
+                                      AnalyticsDataVersion dataVersion) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.dataVersion = dataVersion;
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        if (reservedSlots.incrementAndGet() > maxConnections) {
+            reservedSlots.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live analytics connections, please retry later",
+                "ERR_STREAM_LIMIT", retryAfterSeconds);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(emitter);
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(e -> close(connection));
+        // Registered before the snapshot is read so no write falls in between; its deltas
+        // queue up and are only flushed once the snapshot has gone out
+        connections.add(connection);
+
+        try {
+            // The version the figures were computed at, so a client can tell which deltas they already include
+            DashboardSnapshot global = dashboardSnapshotService.getSnapshot(DashboardSnapshotService.GLOBAL_SCOPE);
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("version", global.version());
+            snapshot.put("metrics", global.metrics());
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot));
+            connection.snapshotSent = true;
+        } catch (IOException | RuntimeException e) {
+            close(connection);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private void close(Connection connection) {
+        connections.remove(connection);
+        if (connection.closed.compareAndSet(false, true)) {
+            reservedSlots.decrementAndGet();
+        }
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        if (event.before() != null) {
+            addStory(deltas, event.before(), -1, today);
+        }
+        if (event.after() != null) {
+            addStory(deltas, event.after(), 1, today);
+        }
+        broadcast(deltas);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (event.created()) {
+            deltas.put("totalProjects", 1L);
+        } else if (event.deleted()) {
+            deltas.put("totalProjects", -1L);
+        } else {
+            // Field changes we cannot express as a counter delta; clients refetch on this hint
+            deltas.put("projectsUpdated", 1L);
+        }
+        broadcast(deltas);
+    }
+
+    private void addStory(Map<String, Long> deltas, StorySnapshot story, long sign, LocalDate today) {
+        deltas.merge("totalStories", sign, Long::sum);
+        deltas.merge(story.approved() ? "approvedStories" : "pendingStories", sign, Long::sum);
+        deltas.merge(story.assigneeId() != null ? "assignedStories" : "unassignedStories", sign, Long::sum);
+        if (story.isOverdue(today)) {
+            deltas.merge("overdueStories", sign, Long::sum);
+        }
+    }
+
+    private void broadcast(Map<String, Long> deltas) {
+        deltas.values().removeIf(v -> v == 0L);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        for (Connection connection : connections) {
+            deltas.forEach((key, value) -> connection.pending.merge(key, value, Long::sum));
+        }
+    }
+
+    /**
+     * One push per connection per interval, however many writes landed in it
+     */
+    @Scheduled(fixedRateString = "${analytics.stream.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Connection connection : connections) {
+            if (!connection.snapshotSent) {
+                continue;
+            }
+            Map<String, Long> drained = connection.drain();
+            try {
+                if (!drained.isEmpty()) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("version", dataVersion.current());
+                    payload.put("deltas", drained);
+                    connection.emitter.send(SseEmitter.event().name("delta").data(payload));
+                    connection.lastSentAt = now;
+                } else if (now - connection.lastSentAt >= heartbeatMs) {
+                    connection.emitter.send(SseEmitter.event().comment("keepalive"));
+                    connection.lastSentAt = now;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping analytics stream connection: {}", e.getMessage());
+                close(connection);
+                connection.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final SseEmitter emitter;
+        private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean snapshotSent;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private Map<String, Long> drain() {
+            Map<String, Long> drained = new HashMap<>();
+            for (String key : pending.keySet()) {
+                Long value = pending.remove(key);
+                if (value != null && value != 0L) {
+                    drained.put(key, value);
+                }
+            }
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.htc.enter.serviceimpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.htc.enter.model.AuditLog;
+import com.htc.enter.model.AuditSketch;
+import com.htc.enter.repository.AuditSketchRepository;
+import com.htc.enter.service.AuditSketchService;
+import com.htc.enter.util.HyperLogLog;
+import com.htc.enter.util.TopKSketch;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Each running instance records into its own day sketches and persists them
+ * under a writer id of its own, so no two instances ever write the same row
+ * and a flush never has to merge. Reads combine this instance's sketches with
+ * the other writers' rows, which are re-read on every flush when their
+ * updated_at has moved. A restart starts a new writer; the rows of the
+ * previous one are read like any other instance's.
+ */
+@Service
+public class AuditSketchServiceImpl implements AuditSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSketchServiceImpl.class);
+
+    // 2 KB per HyperLogLog (~2.3% error) and 2 KB per Count-Min sketch
+    private static final int HLL_PRECISION = 11;
+    private static final int CMS_DEPTH = 4;
+    private static final int CMS_WIDTH = 128;
+    private static final int HEAVY_HITTERS = 32;
+    private static final int PAYLOAD_VERSION = 1;
+
+    private record StoredSketch(LocalDate day, LocalDateTime updatedAt, DaySketch sketch) {
+    }
+
+    private final AuditSketchRepository sketchRepository;
+    private final String writerId = UUID.randomUUID().toString();
+    // Events recorded by this instance
+    private final Map<LocalDate, DaySketch> daySketches = new ConcurrentHashMap<>();
+    // Other writers' rows by id, and their per-day union that reads use
+    private final Map<Long, StoredSketch> otherRows = new HashMap<>();
+    private volatile Map<LocalDate, DaySketch> otherDays = Map.of();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${analytics.sketch.retention-days:35}")
+    private int retentionDays;
+
+    public AuditSketchServiceImpl(AuditSketchRepository sketchRepository) {
+        this.sketchRepository = sketchRepository;
+    }
+
+    @Override
+    public void record(AuditLog entry) {
+        if (entry.getTimestamp() == null) {
+            return;
+        }
+        LocalDate day = entry.getTimestamp().atZone(zone).toLocalDate();
+        String entityKey = entry.getEntityType() + ":" + entry.getEntityId();
+        boolean edit = entry.getOperation() != AuditLog.OperationType.READ;
+        daySketches.computeIfAbsent(day, d -> new DaySketch()).record(entry.getUsername(), entityKey, edit);
+    }
+
+    @Override
+    public Map<String, Object> getActivity(int days) {
+        validateDays(days);
+        List<Map<String, Object>> daily = new ArrayList<>();
+        HyperLogLog users = new HyperLogLog(HLL_PRECISION);
+        HyperLogLog entities = new HyperLogLog(HLL_PRECISION);
+        long events = 0;
+        long edits = 0;
+
+        for (LocalDate day : window(days)) {
+            HyperLogLog dayUsers = new HyperLogLog(HLL_PRECISION);
+            HyperLogLog dayEntities = new HyperLogLog(HLL_PRECISION);
+            long dayEvents = 0;
+            long dayEdits = 0;
+            for (DaySketch sketch : sketchesOn(day)) {
+                synchronized (sketch) {
+                    dayUsers.merge(sketch.users);
+                    dayEntities.merge(sketch.entities);
+                    dayEvents += sketch.events;
+                    dayEdits += sketch.edits;
+                }
+            }
+            users.merge(dayUsers);
+            entities.merge(dayEntities);
+            events += dayEvents;
+            edits += dayEdits;
+
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", day);
+            point.put("activeUsers", dayUsers.estimate());
+            point.put("touchedEntities", dayEntities.estimate());
+            point.put("events", dayEvents);
+            point.put("edits", dayEdits);
+            daily.add(point);
+        }
+
+        Map<String, Object> activity = new LinkedHashMap<>();
+        activity.put("days", days);
+        activity.put("activeUsers", users.estimate());
+        activity.put("touchedEntities", entities.estimate());
+        activity.put("events", events);
+        activity.put("edits", edits);
+        activity.put("daily", daily);
+        return activity;
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopEntities(int days, String entityType, int limit) {
+        validateDays(days);
+        validateLimit(limit);
+        String prefix = entityType != null && !entityType.isBlank() ? entityType + ":" : null;
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : topAcrossDays(days, true, prefix, limit)) {
+            String key = entry.getKey();
+            int separator = key.lastIndexOf(':');
+            Map<String, Object> entity = new LinkedHashMap<>();
+            entity.put("entityType", key.substring(0, separator));
+            entity.put("entityId", parseId(key.substring(separator + 1)));
+            entity.put("edits", entry.getValue());
+            result.add(entity);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopEditors(int days, int limit) {
+        validateDays(days);
+        validateLimit(limit);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : topAcrossDays(days, false, null, limit)) {
+            Map<String, Object> editor = new LinkedHashMap<>();
+            editor.put("username", entry.getKey());
+            editor.put("edits", entry.getValue());
+            result.add(editor);
+        }
+        return result;
+    }
+
+    /**
+     * Union of each day's candidates, each scored by the sum of its daily estimates
+     */
+    private List<Map.Entry<String, Long>> topAcrossDays(int days, boolean entitySketch, String prefix, int limit) {
+        List<DaySketch> sketches = new ArrayList<>();
+        for (LocalDate day : window(days)) {
+            sketches.addAll(sketchesOn(day));
+        }
+
+        Map<String, Long> totals = new HashMap<>();
+        for (DaySketch sketch : sketches) {
+            synchronized (sketch) {
+                TopKSketch topK = entitySketch ? sketch.entityEdits : sketch.editors;
+                for (String key : topK.candidateKeys()) {
+                    if (prefix == null || key.startsWith(prefix)) {
+                        totals.putIfAbsent(key, 0L);
+                    }
+                }
+            }
+        }
+        for (DaySketch sketch : sketches) {
+            synchronized (sketch) {
+                TopKSketch topK = entitySketch ? sketch.entityEdits : sketch.editors;
+                totals.replaceAll((key, total) -> total + topK.estimate(key));
+            }
+        }
+
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.sketch.flush-ms:60000}")
+    @Override
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        int flushed = 0;
+        for (Map.Entry<LocalDate, DaySketch> entry : daySketches.entrySet()) {
+            byte[] payload = entry.getValue().serializeIfDirty();
+            if (payload == null) {
+                continue;
+            }
+            AuditSketch sketch = sketchRepository.findBySketchDateAndWriterId(entry.getKey(), writerId)
+                .orElseGet(() -> new AuditSketch(entry.getKey(), writerId));
+            sketch.setPayload(payload);
+            sketch.setUpdatedAt(now);
+            sketchRepository.save(sketch);
+            flushed++;
+        }
+
+        LocalDate oldest = LocalDate.now(zone).minusDays(retentionDays - 1L);
+        daySketches.keySet().removeIf(day -> day.isBefore(oldest));
+        int pruned = sketchRepository.deleteOlderThan(oldest);
+        if (flushed > 0 || pruned > 0) {
+            log.debug("Flushed {} audit sketches, pruned {}", flushed, pruned);
+        }
+        refreshOtherWriters(oldest);
+    }
+
+    /**
+     * Read the retained rows of every other writer, including this
+     * instance's rows from before a restart
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refreshOtherWriters(LocalDate.now(zone).minusDays(retentionDays - 1L));
+        } catch (Exception e) {
+            log.warn("Loading audit sketches failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads only the rows whose updated_at moved since the last call
+     */
+    private synchronized void refreshOtherWriters(LocalDate oldest) {
+        Set<Long> present = new HashSet<>();
+        List<Long> changed = new ArrayList<>();
+        for (Object[] row : sketchRepository.findOtherWriterVersions(oldest, writerId)) {
+            Long id = (Long) row[0];
+            present.add(id);
+            StoredSketch known = otherRows.get(id);
+            if (known == null || !Objects.equals(known.updatedAt(), row[1])) {
+                changed.add(id);
+            }
+        }
+        boolean removed = otherRows.keySet().retainAll(present);
+        if (changed.isEmpty() && !removed) {
+            return;
+        }
+        for (AuditSketch stored : sketchRepository.findAllById(changed)) {
+            try {
+                otherRows.put(stored.getId(), new StoredSketch(stored.getSketchDate(), stored.getUpdatedAt(),
+                    DaySketch.deserialize(stored.getPayload())));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable audit sketch {}: {}", stored.getId(), e.getMessage());
+            }
+        }
+
+        Map<LocalDate, DaySketch> days = new HashMap<>();
+        for (StoredSketch stored : otherRows.values()) {
+            days.computeIfAbsent(stored.day(), day -> new DaySketch()).merge(stored.sketch());
+        }
+        otherDays = days;
+    }
+
+    /**
+     * This instance's sketch and the other writers' union for one day, where present
+     */
+    private List<DaySketch> sketchesOn(LocalDate day) {
+        List<DaySketch> sketches = new ArrayList<>(2);
+        DaySketch local = daySketches.get(day);
+        if (local != null) {
+            sketches.add(local);
+        }
+        DaySketch others = otherDays.get(day);
+        if (others != null) {
+            sketches.add(others);
+        }
+        return sketches;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Final audit sketch flush failed: {}", e.getMessage());
+        }
+    }
+
+    private List<LocalDate> window(int days) {
+        LocalDate today = LocalDate.now(zone);
+        List<LocalDate> window = new ArrayList<>();
+        for (int i = days - 1; i >= 0; i--) {
+            window.add(today.minusDays(i));
+        }
+        return window;
+    }
+
+    private void validateDays(int days) {
+        if (days < 1 || days > retentionDays) {
+            throw new IllegalArgumentException("Days must be between 1 and " + retentionDays);
+        }
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > HEAVY_HITTERS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + HEAVY_HITTERS);
+        }
+    }
+
+    private static Object parseId(String id) {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return id;
+        }
+    }
+
+    /**
+     * All sketches for one day, guarded by the instance monitor
+     */
+    private static final class DaySketch {
+        private final HyperLogLog users;
+        private final HyperLogLog entities;
+        private final TopKSketch entityEdits;
+        private final TopKSketch editors;
+        private long events;
+        private long edits;
+        private boolean dirty;
+
+        private DaySketch() {
+            this(new HyperLogLog(HLL_PRECISION), new HyperLogLog(HLL_PRECISION),
+                new TopKSketch(CMS_DEPTH, CMS_WIDTH, HEAVY_HITTERS),
+                new TopKSketch(CMS_DEPTH, CMS_WIDTH, HEAVY_HITTERS));
+        }
+
+        private DaySketch(HyperLogLog users, HyperLogLog entities, TopKSketch entityEdits, TopKSketch editors) {
+            this.users = users;
+            this.entities = entities;
+            this.entityEdits = entityEdits;
+            this.editors = editors;
+        }
+
+        private synchronized void record(String username, String entityKey, boolean edit) {
+            events++;
+            if (username != null) {
+                users.add(username);
+            }
+            entities.add(entityKey);
+            if (edit) {
+                edits++;
+                entityEdits.add(entityKey);
+                if (username != null) {
+                    editors.add(username);
+                }
+            }
+            dirty = true;
+        }
+
+        private synchronized void merge(DaySketch other) {
+            users.merge(other.users);
+            entities.merge(other.entities);
+            entityEdits.merge(other.entityEdits);
+            editors.merge(other.editors);
+            events += other.events;
+            edits += other.edits;
+            dirty = true;
+        }
+
+        private synchronized byte[] serializeIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(PAYLOAD_VERSION);
+                out.writeLong(events);
+                out.writeLong(edits);
+                writeRegisters(out, users);
+                writeRegisters(out, entities);
+                entityEdits.writeTo(out);
+                editors.writeTo(out);
+                out.flush();
+                dirty = false;
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialize audit sketch", e);
+            }
+        }
+
+        private static DaySketch deserialize(byte[] payload) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int version = in.readInt();
+            if (version != PAYLOAD_VERSION) {
+                throw new IOException("Unsupported audit sketch version " + version);
+            }
+            long events = in.readLong();
+            long edits = in.readLong();
+            DaySketch sketch = new DaySketch(readRegisters(in), readRegisters(in),
+                TopKSketch.readFrom(in), TopKSketch.readFrom(in));
+            sketch.events = events;
+            sketch.edits = edits;
+            return sketch;
+        }
+
+        private static void writeRegisters(DataOutputStream out, HyperLogLog sketch) throws IOException {
+            byte[] registers = sketch.toBytes();
+            out.writeInt(registers.length);
+            out.write(registers);
+        }
+
+        private static HyperLogLog readRegisters(DataInputStream in) throws IOException {
+            byte[] registers = new byte[in.readInt()];
+            in.readFully(registers);
+            return HyperLogLog.fromBytes(registers);
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.htc.enter.serviceimpl;
 
+import com.htc.enter.dto.ValidationBatchRequest;
+import com.htc.enter.dto.ValidationResult;
+import com.htc.enter.exception.BadRequestException;
 import com.htc.enter.model.*;
 import com.htc.enter.repository.*;
+import com.htc.enter.service.AccessControlIndexService;
 import com.htc.enter.service.BusinessValidationService;
+import com.htc.enter.service.StoryIndexService;
+import com.htc.enter.service.StoryRollupService;
+import com.htc.enter.util.IdBitmap;
+import com.htc.enter.util.NameNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +51,12 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final SlaRuleRepository slaRuleRepository;
+    private final StoryRollupService storyRollupService;
+    private final StoryIndexService storyIndexService;
+    private final AccessControlIndexService accessControlIndexService;
+    
+    @Value("${validation.batch.max-checks:500}")
+    private int maxBatchChecks;
     
     public BusinessValidationServiceImpl(
             ProjectRepository projectRepository,
@@ -49,13 +64,19 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
             EpicRepository epicRepository,
             UserRepository userRepository,
             ClientRepository clientRepository,
-            SlaRuleRepository slaRuleRepository) {
+            SlaRuleRepository slaRuleRepository,
+            StoryRollupService storyRollupService,
+            StoryIndexService storyIndexService,
+            AccessControlIndexService accessControlIndexService) {
         this.projectRepository = projectRepository;
         this.storyRepository = storyRepository;
         this.epicRepository = epicRepository;
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
         this.slaRuleRepository = slaRuleRepository;
+        this.storyRollupService = storyRollupService;
+        this.storyIndexService = storyIndexService;
+        this.accessControlIndexService = accessControlIndexService;
     }
     
     // ==================== PROJECT VALIDATION ====================
@@ -77,12 +98,12 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
             throw new IllegalArgumentException("Project name must not exceed 200 characters");
         }
         
-        // Check for duplicate project names for the same client
+        // Check for duplicate project names for the same client (indexed by uk_project_client_name)
         if (project.getClient_id() != null) {
-            boolean duplicateExists = projectRepository.findAll().stream()
-                .anyMatch(p -> p.getName().equalsIgnoreCase(project.getName())
-                    && p.getClient_id() != null
-                    && p.getClient_id().getClient_id() == project.getClient_id().getClient_id());
+            Long clientId = project.getClient_id().getClient_id();
+            String normalizedName = NameNormalizer.normalize(project.getName());
+            boolean duplicateExists = projectRepository.existsByClientAndNormalizedName(
+                clientId, normalizedName, project.getProjectId());
 
             if (duplicateExists) {
                 throw new IllegalArgumentException("A project with this name already exists for this client");
@@ -159,9 +180,11 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     
     @Override
     public boolean canApproveProject(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId).orElse(null);
-        User user = userRepository.findById(userId).orElse(null);
-        
+        return canApproveProject(projectRepository.findById(projectId).orElse(null),
+            userRepository.findById(userId).orElse(null));
+    }
+    
+    private boolean canApproveProject(Project project, User user) {
         if (project == null || user == null) {
             return false;
         }
@@ -172,32 +195,30 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         }
         
         // All stories in the project must be approved
-        List<Story> stories = storyRepository.findAll().stream()
-            .filter(s -> s.getProjectId() != null && s.getProjectId().getProjectId() == projectId)
-            .collect(Collectors.toList());
-
-        return stories.stream().allMatch(Story::isIs_approved);
+        return storyRollupService.getProjectRollup(project.getProjectId()).isAllApproved();
     }
     
     @Override
     public boolean canDeleteProject(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId).orElse(null);
-        User user = userRepository.findById(userId).orElse(null);
-        
+        return canDeleteProject(projectRepository.findById(projectId).orElse(null),
+            userRepository.findById(userId).orElse(null));
+    }
+    
+    private boolean canDeleteProject(Project project, User user) {
         if (project == null || user == null) {
             return false;
         }
         
         // Cannot delete approved projects
         if (project.isIs_approved()) {
-            log.warn("Cannot delete approved project: {}", projectId);
+            log.warn("Cannot delete approved project: {}", project.getProjectId());
             return false;
         }
         
         // Only admins (level 3) or project managers can delete
     return user.getAccessLevel() == 3 ||
            (project.getManager_id() != null &&
-        Objects.equals(project.getManager_id().getId(), userId));
+        Objects.equals(project.getManager_id().getId(), user.getId()));
     }
     
     // ==================== STORY VALIDATION ====================
@@ -300,9 +321,11 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     
     @Override
     public boolean canApproveStory(Long storyId, Long userId) {
-        Story story = storyRepository.findById(storyId).orElse(null);
-        User user = userRepository.findById(userId).orElse(null);
-        
+        return canApproveStory(storyRepository.findById(storyId).orElse(null),
+            userRepository.findById(userId).orElse(null));
+    }
+    
+    private boolean canApproveStory(Story story, User user) {
         if (story == null || user == null) {
             return false;
         }
@@ -314,7 +337,7 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         
      // Only managers and admins can approve, or the story assignee
      return user.getAccessLevel() >= 2 ||
-         (story.getAssigned_to() != null && Objects.equals(story.getAssigned_to().getId(), userId));
+         (story.getAssigned_to() != null && Objects.equals(story.getAssigned_to().getId(), user.getId()));
     }
     
     @Override
@@ -379,35 +402,31 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         validateEpicCreation(epic);
         
         // If epic has approved stories, it should be marked as complete
-        List<Story> epicStories = storyRepository.findAll().stream()
-            .filter(s -> s.getEpicId() != null && s.getEpicId().getEpicId() == epic.getEpicId())
-            .collect(Collectors.toList());
-
-        if (!epicStories.isEmpty()) {
-            long approvedCount = epicStories.stream().filter(Story::isIs_approved).count();
-            if (approvedCount == epicStories.size()) {
-                log.info("All stories in epic {} are approved", epic.getName());
-            }
+        StoryRollup epicRollup = storyRollupService.getEpicRollup(epic.getEpicId());
+        if (epicRollup.getTotalStories() > 0 && epicRollup.isAllApproved()) {
+            log.info("All stories in epic {} are approved", epic.getName());
         }
     }
     
     @Override
     public boolean canCloseEpic(Long epicId) {
-        List<Story> epicStories = storyRepository.findAll().stream()
-            .filter(s -> s.getEpicId() != null && s.getEpicId().getEpicId() == epicId)
-            .collect(Collectors.toList());
-
         // Can close if all stories are approved
-        return epicStories.stream().allMatch(Story::isIs_approved);
+        return storyRollupService.getEpicRollup(epicId).isAllApproved();
     }
     
     // ==================== ACCESS CONTROL ====================
     
     @Override
     public boolean hasAccessToProject(Long userId, Long projectId) {
-        User user = userRepository.findById(userId).orElse(null);
-        Project project = projectRepository.findById(projectId).orElse(null);
+        if (accessControlIndexService.isCurrent()) {
+            return hasIndexedProjectAccess(userRepository.findAccessLevelById(userId).orElse(null), userId, projectId);
+        }
         
+        return hasAccessToProject(userRepository.findById(userId).orElse(null),
+            projectRepository.findById(projectId).orElse(null));
+    }
+    
+    private boolean hasAccessToProject(User user, Project project) {
         if (user == null || project == null) {
             return false;
         }
@@ -419,23 +438,42 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         
         // Project manager has access
         if (project.getManager_id() != null &&
-            Objects.equals(project.getManager_id().getId(), userId)) {
+            Objects.equals(project.getManager_id().getId(), user.getId())) {
             return true;
         }
         
-        // Check if user is assigned to any story in the project
-        return storyRepository.findAll().stream()
-            .anyMatch(s -> s.getProjectId() != null &&
-                          s.getProjectId().getProjectId() == projectId &&
-                          s.getAssigned_to() != null &&
-                          Objects.equals(s.getAssigned_to().getId(), userId));
+        // Check if user is assigned to any story in the project; read from the
+        // database, since per-node indexes may lag writes made on other nodes
+        return storyRepository.existsByProjectAndAssignee(project.getProjectId(), user.getId());
     }
     
     @Override
     public boolean hasAccessToStory(Long userId, Long storyId) {
-        User user = userRepository.findById(userId).orElse(null);
-        Story story = storyRepository.findById(storyId).orElse(null);
+        if (accessControlIndexService.isCurrent()) {
+            return hasIndexedStoryAccess(userRepository.findAccessLevelById(userId).orElse(null), userId, storyId);
+        }
         
+        return hasAccessToStory(userRepository.findById(userId).orElse(null),
+            storyRepository.findById(storyId).orElse(null));
+    }
+    
+    private boolean hasIndexedProjectAccess(Integer accessLevel, Long userId, Long projectId) {
+        if (accessLevel == null || !accessControlIndexService.projectExists(projectId)) {
+            return false;
+        }
+        // Admins have access to all projects, otherwise manager or story assignee
+        return accessLevel == 3 || accessControlIndexService.isProjectMember(userId, projectId);
+    }
+    
+    private boolean hasIndexedStoryAccess(Integer accessLevel, Long userId, Long storyId) {
+        if (accessLevel == null || !accessControlIndexService.storyExists(storyId)) {
+            return false;
+        }
+        // Admins and managers have access, otherwise only the assignee
+        return accessLevel >= 2 || accessControlIndexService.isStoryAssignee(userId, storyId);
+    }
+    
+    private static boolean hasAccessToStory(User user, Story story) {
         if (user == null || story == null) {
             return false;
         }
@@ -446,19 +484,56 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         }
         
         // Assignee has access
-        return story.getAssigned_to() != null && Objects.equals(story.getAssigned_to().getId(), userId);
+        return story.getAssigned_to() != null && Objects.equals(story.getAssigned_to().getId(), user.getId());
     }
     
     @Override
     public boolean hasAccessToEpic(Long userId, Long epicId) {
-        User user = userRepository.findById(userId).orElse(null);
-        
-        if (user == null) {
-            return false;
-        }
+        Integer accessLevel = userRepository.findAccessLevelById(userId).orElse(null);
         
         // Admins and managers have access
-        return user.getAccessLevel() >= 2;
+        return accessLevel != null && accessLevel >= 2;
+    }
+    
+    @Override
+    public List<Long> filterAccessibleProjects(Long userId, Collection<Long> projectIds) {
+        if (!accessControlIndexService.isCurrent()) {
+            return projectIds.stream()
+                .filter(projectId -> hasAccessToProject(userId, projectId))
+                .collect(Collectors.toList());
+        }
+        Integer accessLevel = userRepository.findAccessLevelById(userId).orElse(null);
+        if (accessLevel == null) {
+            return List.of();
+        }
+        IdBitmap visible = accessLevel == 3
+            ? accessControlIndexService.existingProjects(projectIds)
+            : accessControlIndexService.memberProjects(userId, projectIds);
+        return retainInOrder(projectIds, visible);
+    }
+    
+    @Override
+    public List<Long> filterAccessibleStories(Long userId, Collection<Long> storyIds) {
+        if (!accessControlIndexService.isCurrent()) {
+            return storyIds.stream()
+                .filter(storyId -> hasAccessToStory(userId, storyId))
+                .collect(Collectors.toList());
+        }
+        Integer accessLevel = userRepository.findAccessLevelById(userId).orElse(null);
+        if (accessLevel == null) {
+            return List.of();
+        }
+        IdBitmap visible = accessLevel >= 2
+            ? accessControlIndexService.existingStories(storyIds)
+            : accessControlIndexService.assignedStories(userId, storyIds);
+        return retainInOrder(storyIds, visible);
+    }
+    
+    // Keeps the caller's ordering of the ids that survived the bitmap filter
+    private static List<Long> retainInOrder(Collection<Long> ids, IdBitmap visible) {
+        return ids.stream()
+            .filter(id -> id != null && visible.contains(id))
+            .collect(Collectors.toList());
     }
     
     @Override
@@ -488,8 +563,8 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         }
         
         // Check for duplicate client names
-        boolean duplicateExists = clientRepository.findAll().stream()
-            .anyMatch(c -> c.getName().equalsIgnoreCase(client.getName()));
+        boolean duplicateExists = clientRepository.existsByNormalizedName(
+            NameNormalizer.normalize(client.getName()), client.getClient_id());
         
         if (duplicateExists) {
             throw new IllegalArgumentException("A client with this name already exists");
@@ -511,10 +586,7 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     @Override
     public boolean canDeleteClient(Long clientId) {
         // Cannot delete client if they have projects
-        boolean hasProjects = projectRepository.findAll().stream()
-            .anyMatch(p -> p.getClient_id() != null && p.getClient_id().getClient_id() == clientId);
-        
-        return !hasProjects;
+        return !projectRepository.existsByClientId(clientId);
     }
     
     // ==================== SLA VALIDATION ====================
@@ -553,6 +625,12 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         return daysUntilDue <= SLA_WARNING_DAYS && !story.isIs_approved();
     }
     
+    @Override
+    public boolean isStorySlaViolated(Long storyId) {
+        Story story = storyRepository.findById(storyId).orElse(null);
+        return story != null && isSlaViolated(story);
+    }
+    
     @Override
     public Map<String, Object> calculateSlaMetrics(Long projectId) {
         List<Story> projectStories = storyRepository.findAll().stream()
@@ -626,8 +704,7 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         }
         
         // Check for duplicate emails
-        boolean duplicateExists = userRepository.findAll().stream()
-            .anyMatch(u -> u.getEmail() != null && u.getEmail().equalsIgnoreCase(email));
+        boolean duplicateExists = userRepository.existsByNormalizedEmail(NameNormalizer.normalize(email));
         
         if (duplicateExists) {
             throw new IllegalArgumentException("This email address is already registered");
@@ -643,7 +720,10 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     
     @Override
     public boolean isProjectOverdue(Long projectId) {
-        Project project = projectRepository.findById(projectId).orElse(null);
+        return isProjectOverdue(projectRepository.findById(projectId).orElse(null));
+    }
+    
+    private static boolean isProjectOverdue(Project project) {
         if (project == null || project.isIs_approved()) {
             return false;
         }
@@ -652,7 +732,10 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     
     @Override
     public boolean isStoryOverdue(Long storyId) {
-        Story story = storyRepository.findById(storyId).orElse(null);
+        return isStoryOverdue(storyRepository.findById(storyId).orElse(null));
+    }
+    
+    private static boolean isStoryOverdue(Story story) {
         if (story == null || story.isIs_approved()) {
             return false;
         }
@@ -675,26 +758,15 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
     
     @Override
     public Double calculateProjectProgress(Long projectId) {
-        List<Story> projectStories = storyRepository.findAll().stream()
-            .filter(s -> s.getProjectId() != null && s.getProjectId().getProjectId() == projectId)
-            .collect(Collectors.toList());
-        
-        if (projectStories.isEmpty()) {
-            return 0.0;
-        }
-        
-        long completedStories = projectStories.stream().filter(Story::isIs_approved).count();
-        return (completedStories * 100.0) / projectStories.size();
+        return storyRollupService.getProjectRollup(projectId).getCompletionPercentage();
     }
     
     @Override
     public Double calculateTeamWorkload(Long userId) {
-        return storyRepository.findAll().stream()
-            .filter(s -> !s.isIs_approved() &&
-                        s.getAssigned_to() != null &&
-                        Objects.equals(s.getAssigned_to().getId(), userId))
-            .mapToDouble(s -> s.getEstimatedHours() != null ? s.getEstimatedHours() : 0.0)
-            .sum();
+        if (storyIndexService.isReady()) {
+            return storyIndexService.sumEstimatedHours(StoryIndexService.Query.all().approved(false).assignee(userId));
+        }
+        return storyRepository.sumOpenEstimatedHours(userId);
     }
     
     // ==================== DATA INTEGRITY ====================
@@ -758,4 +830,96 @@ public class BusinessValidationServiceImpl implements BusinessValidationService
         
         visitedEpics.remove(epicId);
     }
+    
+    // ==================== BATCH VALIDATION ====================
+    
+    @Override
+    public List<ValidationResult> validateBatch(ValidationBatchRequest request) {
+        if (request.getUserId() == null) {
+            throw new BadRequestException("userId is required");
+        }
+        List<ValidationBatchRequest.Check> checks = request.getChecks() != null ? request.getChecks() : List.of();
+        if (checks.size() > maxBatchChecks) {
+            throw new BadRequestException("A validation batch may contain at most " + maxBatchChecks + " checks");
+        }
+        
+        BatchLookup lookup = new BatchLookup(request.getUserId(), checks);
+        List<ValidationResult> results = new ArrayList<>(checks.size());
+        for (ValidationBatchRequest.Check check : checks) {
+            if (check == null || check.getCheck() == null || check.getId() == null) {
+                results.add(new ValidationResult(check != null ? check.getCheck() : null,
+                    check != null ? check.getId() : null, null, "check and id are required"));
+                continue;
+            }
+            try {
+                boolean result = lookup.results.computeIfAbsent(check.getCheck() + "|" + check.getId(),
+                    k -> evaluate(check.getCheck(), check.getId(), lookup));
+                results.add(new ValidationResult(check.getCheck(), check.getId(), result, null));
+            } catch (IllegalArgumentException e) {
+                results.add(new ValidationResult(check.getCheck(), check.getId(), null, e.getMessage()));
+            }
+        }
+        log.debug("Evaluated {} validation checks with {} projects and {} stories loaded",
+            checks.size(), lookup.projects.size(), lookup.stories.size());
+        return results;
+    }
+    
+    private boolean evaluate(String check, Long id, BatchLookup lookup) {
+        User user = lookup.user;
+        return switch (check) {
+            case "project.can-approve" -> canApproveProject(lookup.projects.get(id), user);
+            case "project.can-delete" -> canDeleteProject(lookup.projects.get(id), user);
+            case "project.has-access" -> lookup.indexCurrent
+                ? user != null && hasIndexedProjectAccess(user.getAccessLevel(), user.getId(), id)
+                : hasAccessToProject(user, lookup.projects.get(id));
+            case "project.is-overdue" -> isProjectOverdue(lookup.projects.get(id));
+            case "story.can-approve" -> canApproveStory(lookup.stories.get(id), user);
+            case "story.has-access" -> lookup.indexCurrent
+                ? user != null && hasIndexedStoryAccess(user.getAccessLevel(), user.getId(), id)
+                : hasAccessToStory(user, lookup.stories.get(id));
+            case "story.is-overdue" -> isStoryOverdue(lookup.stories.get(id));
+            case "story.sla-violated" -> lookup.stories.get(id) != null && isSlaViolated(lookup.stories.get(id));
+            case "epic.has-access" -> user != null && user.getAccessLevel() >= 2;
+            case "epic.can-close" -> canCloseEpic(id);
+            case "client.can-delete" -> canDeleteClient(id);
+            default -> throw new IllegalArgumentException("Unknown validation check: " + check);
+        };
+    }
+    
+    /**
+     * Identity map for one batch: the user, every referenced project and story
+     * are fetched up front with one query per entity type, and repeated checks
+     * on the same id reuse the first result.
+     */
+    private final class BatchLookup {
+        
+        private final User user;
+        private final boolean indexCurrent;
+        private final Map<Long, Project> projects = new HashMap<>();
+        private final Map<Long, Story> stories = new HashMap<>();
+        private final Map<String, Boolean> results = new HashMap<>();
+        
+        private BatchLookup(Long userId, List<ValidationBatchRequest.Check> checks) {
+            this.user = userRepository.findById(userId).orElse(null);
+            this.indexCurrent = accessControlIndexService.isCurrent();
+            Set<Long> projectIds = new HashSet<>();
+            Set<Long> storyIds = new HashSet<>();
+            for (ValidationBatchRequest.Check check : checks) {
+                if (check == null || check.getCheck() == null || check.getId() == null) {
+                    continue;
+                }
+                if (check.getCheck().startsWith("project.")) {
+                    projectIds.add(check.getId());
+                } else if (check.getCheck().startsWith("story.")) {
+                    storyIds.add(check.getId());
+                }
+            }
+            if (!projectIds.isEmpty()) {
+                projectRepository.findAllById(projectIds).forEach(p -> projects.put(p.getProjectId(), p));
+            }
+            if (!storyIds.isEmpty()) {
+                storyRepository.findAllById(storyIds).forEach(st -> stories.put(st.getStoryId(), st));
+            }
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.htc.enter.serviceimpl;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies an atomic counter increment to a row identified by a unique key,
+ * creating the row on first use. A missing row is inserted zeroed in its own
+ * short transaction and a duplicate key from a concurrent writer is ignored,
+ * so racing writers both end up incrementing the one committed row and the
+ * caller's transaction never sees a constraint violation. The insert comes
+ * before the caller's UPDATE because on MySQL an UPDATE that matches nothing
+ * leaves a gap lock the separate insert would wait on.
+ *
+ * Shared by the story rollups, activity buckets and SLA compliance counters.
+ */
+@Component
+public class CounterRowUpserter {
+
+    private final TransactionTemplate newTransaction;
+
+    public CounterRowUpserter(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs increment (an UPDATE returning the rows it matched), first creating
+     * the row through insertEmpty if exists says it is missing and create is
+     * set. Pass create = false for pure removals, which have nothing to add to
+     * a missing row. Returns false if the increment matched no row.
+     */
+    public boolean apply(BooleanSupplier exists, Runnable insertEmpty, IntSupplier increment, boolean create) {
+        if (create && !exists.getAsBoolean()) {
+            try {
+                newTransaction.executeWithoutResult(status -> insertEmpty.run());
+            } catch (DataIntegrityViolationException e) {
+                // Another writer created it first; the increment below lands on theirs
+            }
+        }
+        return increment.getAsInt() > 0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.htc.enter.cache.AnalyticsDataVersion;
+import com.htc.enter.dto.DashboardMetrics;
+import com.htc.enter.dto.DashboardSnapshot;
+import com.htc.enter.repository.EpicRepository;
+import com.htc.enter.repository.ProjectRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.projection.ManagerProjectCounts;
+import com.htc.enter.repository.projection.ManagerStoryCounts;
+import com.htc.enter.service.AnalyticsService;
+import com.htc.enter.service.DashboardSnapshotService;
+import com.htc.enter.service.WebSocketNotificationService;
+
+@Service
+public class DashboardSnapshotServiceImpl implements DashboardSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotServiceImpl.class);
+
+    private static final DashboardMetrics EMPTY = new DashboardMetrics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final AnalyticsService analyticsService;
+    private final ProjectRepository projectRepository;
+    private final StoryRepository storyRepository;
+    private final EpicRepository epicRepository;
+    private final AnalyticsDataVersion dataVersion;
+    private final WebSocketNotificationService webSocketNotificationService;
+
+    private final Object refreshLock = new Object();
+    private volatile Map<String, DashboardSnapshot> snapshots = Collections.emptyMap();
+    private volatile long computedVersion = -1;
+    private volatile LocalDate computedOn;
+    private volatile long computedAtMillis;
+
+    // Upper bound on snapshot age: covers writes on other nodes, which never bump this node's version
+    @Value("${analytics.dashboard.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    public DashboardSnapshotServiceImpl(AnalyticsService analyticsService,
+                                        ProjectRepository projectRepository,
+                                        StoryRepository storyRepository,
+                                        EpicRepository epicRepository,
+                                        AnalyticsDataVersion dataVersion,
+                                        WebSocketNotificationService webSocketNotificationService) {
+        this.analyticsService = analyticsService;
+        this.projectRepository = projectRepository;
+        this.storyRepository = storyRepository;
+        this.epicRepository = epicRepository;
+        this.dataVersion = dataVersion;
+        this.webSocketNotificationService = webSocketNotificationService;
+    }
+
+    @Override
+    public DashboardMetrics getGlobal() {
+        return current().get(GLOBAL_SCOPE).metrics();
+    }
+
+    @Override
+    public DashboardMetrics getForManager(Long managerId) {
+        DashboardSnapshot snapshot = current().get(DashboardSnapshotService.managerScope(managerId));
+        return snapshot != null ? snapshot.metrics() : EMPTY;
+    }
+
+    @Override
+    public DashboardSnapshot getSnapshot(String scope) {
+        return current().get(scope);
+    }
+
+    /**
+     * Snapshots are normally ready; only a read before the first refresh computes inline
+     */
+    private Map<String, DashboardSnapshot> current() {
+        Map<String, DashboardSnapshot> current = snapshots;
+        if (current.isEmpty()) {
+            refresh();
+            current = snapshots;
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.dashboard.refresh-ms:10000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Dashboard snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Overdue counts move with the calendar, so a snapshot from an earlier day
+     * is stale even if nothing was written since
+     */
+    @Override
+    public boolean refresh() {
+        synchronized (refreshLock) {
+            // Read the version first: a write during the computation bumps it and triggers the next refresh
+            long version = dataVersion.current();
+            LocalDate today = LocalDate.now();
+            long nowMillis = System.currentTimeMillis();
+            if (version == computedVersion && today.equals(computedOn)
+                    && nowMillis - computedAtMillis < maxAgeMs && !snapshots.isEmpty()) {
+                return false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+
+            Map<String, DashboardSnapshot> next = new HashMap<>();
+            next.put(GLOBAL_SCOPE, new DashboardSnapshot(GLOBAL_SCOPE, version, now, analyticsService.getDashboardMetrics()));
+            managerMetrics(today).forEach((managerId, metrics) -> {
+                String scope = DashboardSnapshotService.managerScope(managerId);
+                next.put(scope, new DashboardSnapshot(scope, version, now, metrics));
+            });
+
+            Map<String, DashboardSnapshot> previous = snapshots;
+            snapshots = Collections.unmodifiableMap(next);
+            computedVersion = version;
+            computedOn = today;
+            computedAtMillis = nowMillis;
+            publishChanges(previous, next, version, now);
+            return true;
+        }
+    }
+
+    /**
+     * Three grouped queries cover every manager at once
+     */
+    private Map<Long, DashboardMetrics> managerMetrics(LocalDate today) {
+        Map<Long, ManagerStoryCounts> stories = new HashMap<>();
+        for (ManagerStoryCounts row : storyRepository.aggregateStatusByManager(today)) {
+            stories.put(row.getManagerId(), row);
+        }
+        Map<Long, Long> epics = new HashMap<>();
+        for (Object[] row : epicRepository.countByManager()) {
+            epics.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<Long, DashboardMetrics> metrics = new HashMap<>();
+        for (ManagerProjectCounts projects : projectRepository.aggregateByManager(today)) {
+            ManagerStoryCounts story = stories.get(projects.getManagerId());
+            long total = story != null ? story.getTotal() : 0;
+            long approved = story != null ? story.getApproved() : 0;
+            long assigned = story != null ? story.getAssigned() : 0;
+            metrics.put(projects.getManagerId(), new DashboardMetrics(
+                projects.getTotalProjects(),
+                total,
+                epics.getOrDefault(projects.getManagerId(), 0L),
+                projects.getTotalClients(),
+                story != null ? story.getAssignees() : 0,
+                projects.getApprovedProjects(),
+                projects.getTotalProjects() - projects.getApprovedProjects(),
+                approved,
+                total - approved,
+                assigned,
+                total - assigned,
+                projects.getOverdueProjects(),
+                story != null ? story.getOverdue() : 0
+            ));
+        }
+        return metrics;
+    }
+
+    private void publishChanges(Map<String, DashboardSnapshot> previous, Map<String, DashboardSnapshot> next,
+                                long version, LocalDateTime now) {
+        for (DashboardSnapshot snapshot : next.values()) {
+            DashboardSnapshot before = previous.get(snapshot.scope());
+            if (before == null || !before.metrics().equals(snapshot.metrics())) {
+                webSocketNotificationService.sendDashboard(snapshot.scope(), snapshot);
+            }
+        }
+        // A manager who no longer has projects gets one final all-zero snapshot
+        for (String scope : previous.keySet()) {
+            if (!next.containsKey(scope)) {
+                webSocketNotificationService.sendDashboard(scope, new DashboardSnapshot(scope, version, now, EMPTY));
+            }
+        }
+    }
+}
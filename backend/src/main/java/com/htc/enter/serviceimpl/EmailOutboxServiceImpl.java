@@ -0,0 +1,331 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.EmailOutboxMessage;
+import com.htc.enter.model.EmailOutboxMessage.Status;
+import com.htc.enter.repository.EmailOutboxRepository;
+import com.htc.enter.service.EmailOutboxService;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * A due batch is cut into at most email.outbox.connections slices, sent side
+ * by side on a pool of the same size. Each slice is handed to
+ * JavaMailSender.send(MimeMessage...) in one call, which opens a single SMTP
+ * transport, sends every message over it and reports failures per message,
+ * so one bad recipient does not fail its neighbours. Statuses are saved after
+ * the whole batch, outside any transaction held open during SMTP traffic.
+ *
+ * Runs on one node at a time under the job lease. A node that dies mid-batch
+ * leaves its messages pending, so delivery is at-least-once.
+ */
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private final int connections;
+
+    @Value("${email.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository outboxRepository,
+                                  ObjectProvider<JavaMailSender> mailSenderProvider,
+                                  @Value("${email.outbox.connections:2}") int connections) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSenderProvider.getIfAvailable();
+        this.connections = Math.max(1, connections);
+        this.sendExecutor = new ThreadPoolTaskExecutor();
+        this.sendExecutor.setCorePoolSize(this.connections);
+        this.sendExecutor.setMaxPoolSize(this.connections);
+        this.sendExecutor.setThreadNamePrefix("email-outbox-");
+        this.sendExecutor.initialize();
+        if (this.mailSender == null) {
+            log.warn("JavaMailSender bean not found — outbox messages will stay pending until a mail server is configured.");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sendExecutor.shutdown();
+    }
+
+    // Not @Transactional: a rejected recipient must not mark the caller's transaction rollback-only.
+    // The save joins the caller's transaction on its own.
+    @Override
+    public void enqueue(String from, String to, String subject, String body) {
+        enqueue(from, to, subject, body, null, null);
+    }
+
+    @Override
+    public void enqueue(String from, String to, String subject, String body,
+                        String attachmentName, byte[] attachment) {
+        EmailOutboxMessage message = newMessage(from, to, subject, body);
+        if (attachment != null) {
+            message.setAttachmentName(attachmentName != null ? attachmentName : "attachment");
+            message.setAttachment(attachment);
+        }
+        outboxRepository.save(message);
+        log.debug("Queued email to {} subject={}", to, subject);
+    }
+
+    @Override
+    public Long enqueueHeld(String from, String to, String subject, String body, String attachmentName) {
+        EmailOutboxMessage message = newMessage(from, to, subject, body);
+        message.setAttachmentName(attachmentName != null ? attachmentName : "attachment");
+        message.setStatus(Status.HELD);
+        outboxRepository.save(message);
+        log.debug("Held email to {} subject={} until its attachment is ready", to, subject);
+        return message.getId();
+    }
+
+    // Called after the writing transaction commits, so it must not join that finished transaction
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean release(Long id, byte[] attachment) {
+        EmailOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null || message.getStatus() != Status.HELD) {
+            return false;
+        }
+        message.setAttachment(attachment);
+        message.setStatus(Status.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean abandon(Long id, String reason) {
+        EmailOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null || message.getStatus() != Status.HELD) {
+            return false;
+        }
+        message.setStatus(Status.DEAD);
+        message.setLastError(truncate(reason));
+        log.warn("Held email {} to {} was abandoned: {}", id, message.getRecipient(), reason);
+        return true;
+    }
+
+    @Override
+    public int dispatch() {
+        if (mailSender == null) {
+            // Nothing is marked: the messages go out once a mail server is configured
+            log.debug("[NO-SMTP] Leaving due outbox emails pending");
+            return 0;
+        }
+        int sent = 0;
+        List<EmailOutboxMessage> batch;
+        do {
+            batch = outboxRepository.findDue(Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            sent += sendBatch(batch);
+            outboxRepository.saveAll(batch);
+        } while (batch.size() == batchSize);
+        if (sent > 0) {
+            log.info("Sent {} outbox emails", sent);
+        }
+        return sent;
+    }
+
+    @Override
+    public int purgeSent() {
+        int purged = outboxRepository.deleteByStatusBefore(Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} sent outbox emails older than {} days", purged, retentionDays);
+        }
+        return purged;
+    }
+
+    @Override
+    public boolean requeue(Long id) {
+        return outboxRepository.requeue(id, LocalDateTime.now(), Status.PENDING, Status.DEAD) == 1;
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Status s : Status.values()) {
+            status.put(s.name().toLowerCase(), 0L);
+        }
+        for (Object[] row : outboxRepository.countByStatus()) {
+            status.put(((Status) row[0]).name().toLowerCase(), row[1]);
+        }
+        List<Map<String, Object>> dead = new ArrayList<>();
+        for (EmailOutboxMessage message : outboxRepository.findByStatusOrderByIdDesc(Status.DEAD, PageRequest.of(0, 20))) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", message.getId());
+            entry.put("recipient", message.getRecipient());
+            entry.put("subject", message.getSubject());
+            entry.put("attempts", message.getAttempts());
+            entry.put("lastError", message.getLastError());
+            entry.put("createdAt", message.getCreatedAt());
+            dead.add(entry);
+        }
+        status.put("recentDead", dead);
+        return status;
+    }
+
+    private int sendBatch(List<EmailOutboxMessage> batch) {
+        int slices = Math.min(connections, batch.size());
+        int sliceSize = (batch.size() + slices - 1) / slices;
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += sliceSize) {
+            List<EmailOutboxMessage> slice = batch.subList(from, Math.min(from + sliceSize, batch.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> sendSlice(slice), sendExecutor));
+        }
+        int sent = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            sent += future.join();
+        }
+        return sent;
+    }
+
+    /**
+     * Sends one slice over a single SMTP connection
+     */
+    private int sendSlice(List<EmailOutboxMessage> slice) {
+        Map<MimeMessage, EmailOutboxMessage> byMime = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : slice) {
+            try {
+                byMime.put(toMimeMessage(message), message);
+            } catch (MessagingException | RuntimeException e) {
+                // A message that cannot be built never will be; no point retrying
+                markDead(message, e);
+            }
+        }
+        if (byMime.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            mailSender.send(byMime.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // No per-message detail means nothing in the slice is known to have gone out
+                batchFailure = e;
+            }
+        } catch (Exception e) {
+            // Authentication and similar errors fail every message in the slice
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : byMime.entrySet()) {
+            EmailOutboxMessage message = entry.getValue();
+            Exception failure = batchFailure != null ? batchFailure : failures.get(entry.getKey());
+            if (failure == null) {
+                message.setStatus(Status.SENT);
+                message.setSentAt(now);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError(null);
+                sent++;
+            } else if (failure instanceof MailParseException || failure instanceof MailPreparationException) {
+                markDead(message, failure);
+            } else {
+                retryLater(message, failure, now);
+            }
+        }
+        return sent;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        boolean multipart = message.getAttachment() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, multipart, "UTF-8");
+        if (message.getFromAddress() != null && !message.getFromAddress().isBlank()) {
+            helper.setFrom(message.getFromAddress());
+        }
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody() != null ? message.getBody() : "");
+        if (multipart) {
+            helper.addAttachment(message.getAttachmentName(), new ByteArrayResource(message.getAttachment()));
+        }
+        return mimeMessage;
+    }
+
+    private void retryLater(EmailOutboxMessage message, Exception failure, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            message.setStatus(Status.DEAD);
+            log.warn("Email {} to {} failed {} times and was marked dead: {}",
+                message.getId(), message.getRecipient(), attempts, failure.getMessage());
+            return;
+        }
+        // Exponential backoff: backoff-ms, then doubled per attempt up to max-backoff-ms
+        long delay = Math.min(maxBackoffMs, backoffMs << Math.min(attempts - 1, 20));
+        message.setNextAttemptAt(now.plus(Duration.ofMillis(delay)));
+        log.debug("Email {} to {} failed (attempt {}), retrying in {}ms: {}",
+            message.getId(), message.getRecipient(), attempts, delay, failure.getMessage());
+    }
+
+    private void markDead(EmailOutboxMessage message, Exception failure) {
+        message.setAttempts(message.getAttempts() + 1);
+        message.setStatus(Status.DEAD);
+        message.setLastError(truncate(failure.getMessage()));
+        log.warn("Email {} to {} cannot be sent and was marked dead: {}",
+            message.getId(), message.getRecipient(), failure.getMessage());
+    }
+
+    private static EmailOutboxMessage newMessage(String from, String to, String subject, String body) {
+        if (to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Email recipient is required");
+        }
+        return new EmailOutboxMessage(from, to, truncate(subject != null ? subject : ""), body);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -4,10 +4,12 @@ import java.util.List;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.htc.enter.dto.EpicDTO;
+import com.htc.enter.event.EpicChangedEvent;
 import com.htc.enter.model.Epic;
 import com.htc.enter.model.Project;
 import com.htc.enter.model.User;
@@ -30,22 +32,27 @@ public class EpicServImpl implements EpicService {
     private final UserRepository userRepo;
     private final NotificationService notificationService;
     private final NotificationDatabaseService notificationDatabaseService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EpicServImpl(EpicRepository repo, ProjectRepository projectRepo, 
                        UserRepository userRepo, NotificationService notificationService,
-                       NotificationDatabaseService notificationDatabaseService) {
+                       NotificationDatabaseService notificationDatabaseService,
+                       ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.projectRepo = projectRepo;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
         this.notificationDatabaseService = notificationDatabaseService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(value = "epics", allEntries = true)
     public Epic save(Epic workflowStates) {
-        return repo.save(workflowStates);
+        Epic saved = repo.save(workflowStates);
+        publishChange(saved);
+        return saved;
     }
 
     @Override
@@ -66,7 +73,11 @@ public class EpicServImpl implements EpicService {
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(value = "epics", allEntries = true)
     public void deleteById(Long id) {
+        Long projectId = repo.findById(id)
+            .map(e -> e.getProjectId() != null ? e.getProjectId().getProjectId() : null)
+            .orElse(null);
         repo.deleteById(id);
+        eventPublisher.publishEvent(new EpicChangedEvent(id, projectId, true));
     }
 
     @Override
@@ -93,6 +104,7 @@ public class EpicServImpl implements EpicService {
             ws.setCreated_by(creator);
         }
         Epic saved = repo.save(ws);
+        publishChange(saved);
         // Create database notification for epic creation
         try {
             User manager = saved.getManager_id();
@@ -156,6 +168,7 @@ public class EpicServImpl implements EpicService {
             existing.setCreated_by(creator);
         }
         Epic saved = repo.save(existing);
+        publishChange(saved);
         if (!wasApproved && saved.isIs_approved()) notificationService.notifyEpicApproved(saved);
         if (!wasApproved && saved.isIs_approved()) {
             try {
@@ -194,4 +207,9 @@ public class EpicServImpl implements EpicService {
         }
         return saved;
     }
-}
\ No newline at end of file
+
+    private void publishChange(Epic saved) {
+        Long projectId = saved.getProjectId() != null ? saved.getProjectId().getProjectId() : null;
+        eventPublisher.publishEvent(new EpicChangedEvent(saved.getEpicId(), projectId, false));
+    }
+}
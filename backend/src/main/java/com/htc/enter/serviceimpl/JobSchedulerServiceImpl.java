@@ -0,0 +1,261 @@
+package com.htc.enter.serviceimpl;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.htc.enter.model.JobLock;
+import com.htc.enter.repository.JobLockRepository;
+import com.htc.enter.service.JobSchedulerService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * A poller on the job pool looks for due jobs every jobs.poll-ms and races
+ * the other nodes for each one with a conditional update; only the winner
+ * submits the job. While it runs, a heartbeat extends the lease every third
+ * of its length, so a crashed node's lease simply expires and the job becomes
+ * due again for the rest of the cluster. Lease times use each node's clock,
+ * so node clocks must agree to well within the shortest lease.
+ */
+@Service
+public class JobSchedulerServiceImpl implements JobSchedulerService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSchedulerServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JobLockRepository jobLockRepository;
+    private final ThreadPoolTaskScheduler jobScheduler;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+    // Jobs currently executing on this node
+    private final Map<String, Boolean> running = new ConcurrentHashMap<>();
+    private final String nodeId;
+    private final int maxConcurrentJobs;
+
+    @Value("${jobs.poll-ms:5000}")
+    private long pollMs;
+
+    private volatile boolean started;
+
+    private static final class JobStats {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalMs = new AtomicLong();
+        private final AtomicLong maxMs = new AtomicLong();
+        private volatile long lastMs;
+
+        private void record(long durationMs, boolean failed) {
+            runs.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            totalMs.addAndGet(durationMs);
+            maxMs.accumulateAndGet(durationMs, Math::max);
+            lastMs = durationMs;
+        }
+    }
+
+    public JobSchedulerServiceImpl(JobLockRepository jobLockRepository,
+                                   List<JobSource> jobSources,
+                                   @Value("${jobs.pool-size:4}") int poolSize,
+                                   @Value("${jobs.node-id:}") String configuredNodeId) {
+        this.jobLockRepository = jobLockRepository;
+        // Own pool rather than a TaskScheduler bean, which would replace Spring's default @Scheduled one
+        this.jobScheduler = new ThreadPoolTaskScheduler();
+        this.maxConcurrentJobs = Math.max(1, poolSize);
+        // One thread beyond the job limit keeps polls and lease heartbeats running while the pool is busy
+        this.jobScheduler.setPoolSize(maxConcurrentJobs + 1);
+        this.jobScheduler.setThreadNamePrefix("cluster-job-");
+        this.jobScheduler.initialize();
+        this.nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+        jobSources.forEach(source -> source.jobs().forEach(job -> jobs.put(job.name(), job)));
+    }
+
+    @Override
+    public void register(Job job) {
+        if (jobs.putIfAbsent(job.name(), job) != null) {
+            throw new IllegalArgumentException("A job named '" + job.name() + "' is already registered");
+        }
+        if (started) {
+            ensureRow(job.name(), firstRunAt(job));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        jobs.values().forEach(job -> ensureRow(job.name(), firstRunAt(job)));
+        started = true;
+        jobScheduler.scheduleWithFixedDelay(this::poll, Duration.ofMillis(pollMs));
+        log.info("Job scheduler started on node {} with {} jobs", nodeId, jobs.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobScheduler.shutdown();
+    }
+
+    @Override
+    public boolean holdsLease(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            ensureRow(name, null);
+            return jobLockRepository.acquireLease(name, nodeId, now, now.plus(lease)) == 1;
+        } catch (Exception e) {
+            log.warn("Lease check for {} failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getJobs() {
+        Map<String, JobLock> locks = new LinkedHashMap<>();
+        jobLockRepository.findAll().forEach(lock -> locks.put(lock.getJobName(), lock));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (JobLock lock : locks.values()) {
+            Map<String, Object> job = new LinkedHashMap<>();
+            job.put("name", lock.getJobName());
+            job.put("registered", jobs.containsKey(lock.getJobName()));
+            job.put("owner", lock.getOwner());
+            job.put("leaseUntil", lock.getLeaseUntil());
+            job.put("nextRunAt", lock.getNextRunAt());
+            job.put("lastStartedAt", lock.getLastStartedAt());
+            job.put("lastFinishedAt", lock.getLastFinishedAt());
+            job.put("lastDurationMs", lock.getLastDurationMs());
+            job.put("lastStatus", lock.getLastStatus());
+            job.put("lastError", lock.getLastError());
+            job.put("lastOwner", lock.getLastOwner());
+            job.put("runCount", lock.getRunCount());
+            job.put("failureCount", lock.getFailureCount());
+
+            JobStats local = stats.get(lock.getJobName());
+            if (local != null) {
+                Map<String, Object> node = new LinkedHashMap<>();
+                long runs = local.runs.get();
+                node.put("nodeId", nodeId);
+                node.put("runs", runs);
+                node.put("failures", local.failures.get());
+                node.put("avgDurationMs", runs > 0 ? local.totalMs.get() / runs : 0);
+                node.put("maxDurationMs", local.maxMs.get());
+                node.put("lastDurationMs", local.lastMs);
+                job.put("thisNode", node);
+            }
+            result.add(job);
+        }
+        return result;
+    }
+
+    private void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String name : jobLockRepository.findDueJobNames(now)) {
+                Job job = jobs.get(name);
+                if (running.size() >= maxConcurrentJobs) {
+                    return;
+                }
+                if (job == null || running.containsKey(name)) {
+                    continue;
+                }
+                if (jobLockRepository.acquireRun(name, nodeId, now, now.plus(job.lease())) == 1) {
+                    running.put(name, Boolean.TRUE);
+                    jobScheduler.execute(() -> execute(job));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Job poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void execute(Job job) {
+        Duration heartbeat = job.lease().dividedBy(3);
+        ScheduledFuture<?> renewal = jobScheduler.scheduleAtFixedRate(
+            () -> renew(job), Instant.now().plus(heartbeat), heartbeat);
+        long start = System.currentTimeMillis();
+        String error = null;
+        try {
+            job.task().run();
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Job {} failed: {}", job.name(), e.getMessage());
+        } finally {
+            renewal.cancel(false);
+            long duration = System.currentTimeMillis() - start;
+            boolean failed = error != null;
+            stats.computeIfAbsent(job.name(), k -> new JobStats()).record(duration, failed);
+            LocalDateTime finishedAt = LocalDateTime.now();
+            try {
+                int released = jobLockRepository.completeRun(job.name(), nodeId, finishedAt, duration,
+                    failed ? "FAILED" : "SUCCEEDED", truncate(error), job.nextRunAfter(finishedAt), failed ? 1 : 0);
+                if (released == 0) {
+                    log.warn("Job {} finished after its lease was lost; another node may have run it too", job.name());
+                }
+            } catch (Exception e) {
+                log.warn("Recording run of job {} failed, its lease will expire: {}", job.name(), e.getMessage());
+            }
+            running.remove(job.name());
+            log.debug("Job {} finished in {}ms", job.name(), duration);
+        }
+    }
+
+    private void renew(Job job) {
+        try {
+            jobLockRepository.renewLease(job.name(), nodeId, LocalDateTime.now().plus(job.lease()));
+        } catch (Exception e) {
+            log.warn("Renewing lease of job {} failed: {}", job.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts the job's row unless a node (this one or another) already has
+     */
+    private void ensureRow(String name, LocalDateTime nextRunAt) {
+        if (jobLockRepository.existsById(name)) {
+            return;
+        }
+        try {
+            jobLockRepository.saveAndFlush(new JobLock(name, nextRunAt));
+        } catch (DataIntegrityViolationException e) {
+            // Another node registered it first
+        }
+    }
+
+    private static LocalDateTime firstRunAt(Job job) {
+        LocalDateTime now = LocalDateTime.now();
+        // Fixed-delay jobs start right away, as @Scheduled(fixedDelay) did; cron jobs wait for their slot
+        return job.cron() != null ? job.nextRunAfter(now) : now;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,163 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.htc.enter.event.SlaRuleChangedEvent;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.NotificationLedgerEntry;
+import com.htc.enter.model.NotificationLedgerEntry.Kind;
+import com.htc.enter.repository.NotificationLedgerRepository;
+import com.htc.enter.service.NotificationLedgerService;
+
+/**
+ * A first alert is claimed by inserting its row; uk_notification_ledger lets
+ * exactly one node's insert commit, and the losers' duplicate key means the
+ * alert is already sent. A reminder is claimed by a conditional update of the
+ * last send time. The claim shares a new transaction with the send, so an
+ * email that fails to queue leaves no ledger row behind and is retried.
+ *
+ * Clears run after the story or rule change commits, in their own
+ * transaction, because the committed one can no longer take writes.
+ */
+@Service
+public class NotificationLedgerServiceImpl implements NotificationLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationLedgerServiceImpl.class);
+
+    // Bound on the IN list of one bulk lookup
+    private static final int LOOKUP_CHUNK = 500;
+
+    private record Key(long storyId, long ruleId) {
+    }
+
+    private final NotificationLedgerRepository ledgerRepository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${notification.renotify-hours:0}")
+    private long renotifyHours;
+
+    public NotificationLedgerServiceImpl(NotificationLedgerRepository ledgerRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.ledgerRepository = ledgerRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean sendOnce(long storyId, Kind kind, long ruleId, Runnable send) {
+        try {
+            return Boolean.TRUE.equals(newTransaction.execute(status -> {
+                if (!claim(storyId, kind, ruleId)) {
+                    return false;
+                }
+                send.run();
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same alert first
+            log.debug("{} alert for story {} already claimed by another node", kind, storyId);
+            return false;
+        }
+    }
+
+    private boolean claim(long storyId, Kind kind, long ruleId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (ledgerRepository.findLastSentAt(storyId, kind, ruleId).isEmpty()) {
+            ledgerRepository.saveAndFlush(new NotificationLedgerEntry(storyId, kind, ruleId, now));
+            return true;
+        }
+        return renotifyHours > 0
+            && ledgerRepository.touchIfSentBefore(storyId, kind, ruleId, now, now.minusHours(renotifyHours)) == 1;
+    }
+
+    @Override
+    public <T> List<T> filterUnsent(Kind kind, List<T> candidates,
+                                    ToLongFunction<T> storyId, ToLongFunction<T> ruleId) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<Long> storyIds = new LinkedHashSet<>();
+        candidates.forEach(c -> storyIds.add(storyId.applyAsLong(c)));
+
+        Map<Key, LocalDateTime> sent = new HashMap<>();
+        List<Long> ids = new ArrayList<>(storyIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size()));
+            for (NotificationLedgerEntry entry : ledgerRepository.findByKindAndStoryIdIn(kind, chunk)) {
+                sent.put(new Key(entry.getStoryId(), entry.getRuleId()), entry.getLastSentAt());
+            }
+        }
+
+        LocalDateTime reminderBefore = LocalDateTime.now().minusHours(renotifyHours);
+        List<T> unsent = new ArrayList<>();
+        for (T candidate : candidates) {
+            LocalDateTime lastSent = sent.get(new Key(storyId.applyAsLong(candidate), ruleId.applyAsLong(candidate)));
+            if (lastSent == null || (renotifyHours > 0 && !lastSent.isAfter(reminderBefore))) {
+                unsent.add(candidate);
+            }
+        }
+        return unsent;
+    }
+
+    /**
+     * Approval, deletion or a new due date ends the alerted condition,
+     * so the next occurrence is treated as a fresh transition. Runs before the
+     * deadline scheduler sees the same change, so an immediate alert is not cleared.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        StorySnapshot before = event.before();
+        StorySnapshot after = event.after();
+        long storyId = event.storyId();
+        if (after == null || (after.approved() && (before == null || !before.approved()))) {
+            clear(storyId, () -> ledgerRepository.deleteByStory(storyId));
+        } else if (before != null && !after.approved()) {
+            if (!Objects.equals(before.dueDate(), after.dueDate())) {
+                clear(storyId, () -> ledgerRepository.deleteByStoryAndKind(storyId, Kind.OVERDUE));
+            }
+            if (!Objects.equals(before.epicId(), after.epicId()) || !Objects.equals(before.projectId(), after.projectId())) {
+                clear(storyId, () -> ledgerRepository.deleteByStoryAndKind(storyId, Kind.SLA_BREACH));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSlaRuleChanged(SlaRuleChangedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> ledgerRepository.deleteByKindAndRule(Kind.SLA_BREACH, event.slaId()));
+        } catch (Exception e) {
+            log.warn("Clearing SLA alerts for rule {} failed: {}", event.slaId(), e.getMessage());
+        }
+    }
+
+    private void clear(long storyId, Runnable delete) {
+        try {
+            newTransaction.executeWithoutResult(status -> delete.run());
+        } catch (Exception e) {
+            log.warn("Clearing notification ledger for story {} failed: {}", storyId, e.getMessage());
+        }
+    }
+}
@@ -54,7 +54,6 @@ public class ProjectAppServiceImpl implements ProjectAppService {
             User manager = saved.getManager_id();
             if (manager != null && manager.getEmail() != null && !manager.getEmail().isBlank()) {
                 String password = manager.getUsername() + "123";
-                ByteArrayOutputStream docStream = documentService.generatePasswordProtectedProjectDocument(saved, password);
                 String subject = "New Project Assigned: " + saved.getName();
                 String status = saved.isIs_approved() ? "Approved" : "Pending Approval";
                 String body = String.format(
@@ -70,8 +69,8 @@ public class ProjectAppServiceImpl implements ProjectAppService {
                     saved.getDeliverables() != null ? saved.getDeliverables() : "Not specified",
                     password
                 );
-                String attachmentName = "project_" + saved.getProjectId() + "_details.docx";
-                notificationService.sendEmailWithAttachment(manager.getEmail(), subject, body, attachmentName, docStream);
+                // The document is built after this transaction commits
+                notificationService.sendProjectDocument(saved, subject, body, password);
             }
         } catch (Exception e) {
             log.warn("Failed to send project-created email: {}", e.getMessage());
@@ -107,7 +106,6 @@ public class ProjectAppServiceImpl implements ProjectAppService {
                 User manager = updated.getManager_id();
                 if (manager != null && manager.getEmail() != null && !manager.getEmail().isBlank()) {
                     String password = manager.getUsername() + "123";
-                    ByteArrayOutputStream docStream = documentService.generatePasswordProtectedProjectDocument(updated, password);
                     String subject = "Project Approved: " + updated.getName();
                     String body = String.format(
                         "Dear %s,\n\nA project has been approved with the following details:\n\n" +
@@ -120,8 +118,7 @@ public class ProjectAppServiceImpl implements ProjectAppService {
                         updated.getDeliverables() != null ? updated.getDeliverables() : "Not specified",
                         password
                     );
-                    String attachmentName = "project_" + updated.getProjectId() + "_details.docx";
-                    notificationService.sendEmailWithAttachment(manager.getEmail(), subject, body, attachmentName, docStream);
+                    notificationService.sendProjectDocument(updated, subject, body, password);
                 }
             } catch (Exception e) {
                 log.warn("Failed to send project-approved email: {}", e.getMessage());
@@ -1,148 +1,164 @@
 package com.htc.enter.serviceimpl;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.htc.enter.event.ProjectDocumentEmailQueued;
 import com.htc.enter.model.Project;
 import com.htc.enter.model.User;
+import com.htc.enter.repository.ProjectRepository;
+import com.htc.enter.service.EmailOutboxService;
 import com.htc.enter.service.ProjectDocumentService;
 import com.htc.enter.service.ProjectNotificationService;
 
-import jakarta.mail.internet.MimeMessage;
-
 @Service
 public class ProjectNotificationServiceImpl implements ProjectNotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectNotificationServiceImpl.class);
-    
-    private final JavaMailSender mailSender;
+
+    private final EmailOutboxService outboxService;
     private final ProjectDocumentService documentService;
+    private final ProjectRepository projectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
     private final String fromAddress;
     private final boolean notificationsEnabled;
 
     public ProjectNotificationServiceImpl(
-            ObjectProvider<JavaMailSender> mailSenderProvider,
+            EmailOutboxService outboxService,
             ProjectDocumentService documentService,
+            ProjectRepository projectRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
             @Value("${notification.from:}") String fromAddress,
             @Value("${notification.enabled:true}") boolean notificationsEnabled) {
-        this.mailSender = mailSenderProvider.getIfAvailable();
+        this.outboxService = outboxService;
         this.documentService = documentService;
+        this.projectRepository = projectRepository;
+        this.eventPublisher = eventPublisher;
+        // After commit the writing transaction is finished, so the document is read in a fresh one
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
         this.fromAddress = fromAddress;
         this.notificationsEnabled = notificationsEnabled;
-        
+
         if (!this.notificationsEnabled) {
             log.info("Project notification emails are disabled via 'notification.enabled' property; emails will be skipped.");
-        } else if (this.mailSender == null) {
-            log.warn("JavaMailSender bean not found — project notifications will be logged but not sent.");
         }
     }
 
-    @Async
+    // Runs in the caller's transaction so the email is queued only if the project commits
     @Override
     public void notifyManagerOnProjectCreation(Project project) {
-        if (!notificationsEnabled) {
-            log.debug("Skipping project creation notification because notifications are disabled.");
-            return;
-        }
         if (project == null || project.getManager_id() == null) {
             log.warn("Cannot send notification: project or manager is null");
             return;
         }
-        
+
         User manager = project.getManager_id();
-        if (manager.getEmail() == null || manager.getEmail().isBlank()) {
-            log.warn("Cannot send notification: manager {} has no email", manager.getUsername());
+        // Generate password: username + "123"
+        String password = manager.getUsername() + "123";
+        String subject = "New Project Assigned: " + project.getName();
+        String body = String.format(
+            "Dear %s,\n\n" +
+            "A new project has been assigned to you:\n\n" +
+            "Project Name: %s\n" +
+            "Project ID: %d\n" +
+            "Deadline: %s\n" +
+            "Deliverables: %s\n\n" +
+            "Please find the detailed project information in the attached password-protected document.\n" +
+            "Password: %s\n\n" +
+            "Best regards,\n" +
+            "Elara",
+            manager.getUsername(),
+            project.getName(),
+            project.getProjectId(),
+            project.getDeadline() != null ? project.getDeadline().toString() : "Not set",
+            project.getDeliverables() != null ? project.getDeliverables() : "Not specified",
+            password
+        );
+        sendProjectDocument(project, subject, body, password);
+    }
+
+    @Override
+    public void sendProjectDocument(Project project, String subject, String body, String password) {
+        if (!notificationsEnabled) {
+            log.debug("Skipping project document email because notifications are disabled.");
             return;
         }
-        
-        // Send notification to the manager's email address
-        String recipientEmail = manager.getEmail();
-        
+        User manager = project != null ? project.getManager_id() : null;
+        if (manager == null || manager.getEmail() == null || manager.getEmail().isBlank()) {
+            log.warn("Cannot send project document: project {} has no manager email",
+                     project != null ? project.getProjectId() : null);
+            return;
+        }
+
+        String attachmentName = "project_" + project.getProjectId() + "_details.docx";
+        Long messageId = outboxService.enqueueHeld(fromAddress, manager.getEmail(), subject, body, attachmentName);
+        eventPublisher.publishEvent(new ProjectDocumentEmailQueued(messageId, project.getProjectId(), password));
+        log.info("Project document email queued for manager {} for project {}",
+                 manager.getUsername(), project.getProjectId());
+    }
+
+    /**
+     * Builds the encrypted document once the project is committed and releases
+     * the held email. If the node stops first the message stays HELD, which the
+     * outbox status report shows.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectDocumentEmailQueued(ProjectDocumentEmailQueued event) {
         try {
-            // Generate password: username + "123"
-            String password = manager.getUsername() + "123";
-            
-            // Generate password-protected document
-            ByteArrayOutputStream docStream = documentService.generatePasswordProtectedProjectDocument(project, password);
-            
-            // Prepare email
-            String subject = "New Project Assigned: " + project.getName();
-            String body = String.format(
-                "Dear %s,\n\n" +
-                "A new project has been assigned to you:\n\n" +
-                "Project Name: %s\n" +
-                "Project ID: %d\n" +
-                "Deadline: %s\n" +
-                "Deliverables: %s\n\n" +
-                "Please find the detailed project information in the attached password-protected document.\n" +
-                "Password: %s\n\n" +
-                "Best regards,\n" +
-                "Elara",
-                manager.getUsername(),
-                project.getName(),
-                project.getProjectId(),
-                project.getDeadline() != null ? project.getDeadline().toString() : "Not set",
-                project.getDeliverables() != null ? project.getDeliverables() : "Not specified",
-                password
-            );
-            
-            String attachmentName = "project_" + project.getProjectId() + "_details.docx";
-            sendEmailWithAttachment(recipientEmail, subject, body, attachmentName, docStream);
-            
-            log.info("Project creation notification sent to manager {} for project {}", 
-                     manager.getUsername(), project.getProjectId());
-                     
+            byte[] document = readTransaction.execute(status -> {
+                Project project = projectRepository.findById(event.projectId()).orElse(null);
+                if (project == null) {
+                    return null;
+                }
+                try {
+                    return documentService.generatePasswordProtectedProjectDocument(project, event.password()).toByteArray();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            if (document == null) {
+                outboxService.abandon(event.messageId(), "Project " + event.projectId() + " no longer exists");
+                return;
+            }
+            outboxService.release(event.messageId(), document);
         } catch (Exception e) {
-            log.error("Failed to send project creation notification to manager {}: {}", 
-                     manager.getUsername(), e.getMessage(), e);
+            log.error("Failed to build project document for email {}: {}", event.messageId(), e.getMessage(), e);
+            outboxService.abandon(event.messageId(), "Project document could not be generated: " + e.getMessage());
         }
     }
 
     @Override
-    public void sendEmailWithAttachment(String to, String subject, String body, 
+    public void sendEmailWithAttachment(String to, String subject, String body,
                                        String attachmentName, ByteArrayOutputStream attachmentContent) {
         if (!notificationsEnabled) {
             log.debug("Skipping email to {} because notifications are disabled.", to);
             return;
         }
-        if (mailSender == null) {
-            log.info("[NO-SMTP] Would send email with attachment to {} subject={} attachment={}", 
-                    to, subject, attachmentName);
+        if (to == null || to.isBlank()) {
+            log.warn("No recipient; skipping email subject={}", subject);
             return;
         }
         if (attachmentContent == null) {
             log.warn("Attachment content is null; skipping email to {} subject={}", to, subject);
             return;
         }
-        
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            if (fromAddress != null && !fromAddress.isBlank()) {
-                helper.setFrom(fromAddress);
-            }
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body);
-            
-            // Add attachment
-            helper.addAttachment(attachmentName, () -> 
-                new java.io.ByteArrayInputStream(attachmentContent.toByteArray()));
-            
-            mailSender.send(message);
-            log.debug("Sent email with attachment to {} subject={} attachment={}", to, subject, attachmentName);
-            
-        } catch (Exception e) {
-            log.error("Failed to send email with attachment to {}: {}", to, e.getMessage(), e);
-        }
+
+        outboxService.enqueue(fromAddress, to, subject, body, attachmentName, attachmentContent.toByteArray());
+        log.debug("Queued email with attachment to {} subject={} attachment={}", to, subject, attachmentName);
     }
-}
\ No newline at end of file
+}
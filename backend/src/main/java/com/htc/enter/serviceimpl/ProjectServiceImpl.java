@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,7 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 
 import com.htc.enter.dto.ProjectDTO;
+import com.htc.enter.event.ProjectChangedEvent;
 import com.htc.enter.model.Project;
 import com.htc.enter.model.Client;
 import com.htc.enter.model.User;
@@ -43,16 +45,19 @@ public class ProjectServiceImpl implements ProjectService {
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
     private final ProjectNotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProjectServiceImpl(
             ProjectRepository projectRepository, 
             ClientRepository clientRepository, 
             UserRepository userRepository, 
-            ProjectNotificationService notificationService) {
+            ProjectNotificationService notificationService,
+            ApplicationEventPublisher eventPublisher) {
         this.projectRepository = projectRepository;
         this.clientRepository = clientRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -65,7 +70,10 @@ public class ProjectServiceImpl implements ProjectService {
     @CacheEvict(value = {"projects", "projectsByManager"}, allEntries = true)
     public Project save(Project project) {
         log.info("Saving project: {}", project.getName());
-        return projectRepository.save(project);
+        boolean created = project.getProjectId() == 0;
+        Project saved = projectRepository.save(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getProjectId(), managerIdOf(saved), created, false));
+        return saved;
     }
 
     /**
@@ -110,7 +118,16 @@ public class ProjectServiceImpl implements ProjectService {
     })
     public void deleteById(Long projectId) {
         log.info("Deleting project with ID: {}", projectId);
-        projectRepository.deleteById(projectId);
+        Project project = projectRepository.findById(projectId).orElse(null);
+        if (project == null) {
+            // Nothing was deleted, so listeners must not count a removal
+            log.info("Project {} not found, nothing to delete", projectId);
+            return;
+        }
+        projectRepository.delete(project);
+        // Surface constraint failures here, before anyone is told the project is gone
+        projectRepository.flush();
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId, null, false, true));
     }
 
     /**
@@ -188,9 +205,10 @@ public class ProjectServiceImpl implements ProjectService {
         // Save the project to the database
         Project savedProject = projectRepository.save(newProject);
         log.info("Project created successfully with ID: {}", savedProject.getProjectId());
+        eventPublisher.publishEvent(new ProjectChangedEvent(savedProject.getProjectId(), managerIdOf(savedProject), true, false));
         
         // Send email notification to the project manager
-        // This happens asynchronously so it won't block the response
+        // Queued in the email outbox within this transaction and sent after commit
         if (savedProject.isIs_approved()) {
             notificationService.notifyManagerOnProjectCreation(savedProject);
         }
@@ -281,6 +299,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         Project updatedProject = projectRepository.save(existingProject);
         log.info("Project updated successfully: {}", updatedProject.getName());
+        eventPublisher.publishEvent(new ProjectChangedEvent(updatedProject.getProjectId(), managerIdOf(updatedProject), false, false));
         
         return updatedProject;
     }
@@ -303,4 +322,8 @@ public class ProjectServiceImpl implements ProjectService {
     public Page<Project> findByManagerId(Long managerId, Pageable pageable) {
         return projectRepository.findByManagerId(managerId, pageable);
     }
+
+    private static Long managerIdOf(Project project) {
+        return project.getManager_id() != null ? project.getManager_id().getId() : null;
+    }
 }
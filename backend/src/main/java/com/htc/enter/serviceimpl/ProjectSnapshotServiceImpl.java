@@ -0,0 +1,105 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.htc.enter.model.ProjectSnapshot;
+import com.htc.enter.repository.ProjectRepository;
+import com.htc.enter.repository.ProjectSnapshotRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.projection.ProjectSnapshotRow;
+import com.htc.enter.service.ProjectSnapshotService;
+
+@Service
+public class ProjectSnapshotServiceImpl implements ProjectSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectSnapshotServiceImpl.class);
+
+    private final ProjectSnapshotRepository snapshotRepository;
+    private final StoryRepository storyRepository;
+    private final ProjectRepository projectRepository;
+
+    public ProjectSnapshotServiceImpl(ProjectSnapshotRepository snapshotRepository,
+                                      StoryRepository storyRepository,
+                                      ProjectRepository projectRepository) {
+        this.snapshotRepository = snapshotRepository;
+        this.storyRepository = storyRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    /**
+     * Nightly capture, shortly before midnight so the row reflects the day's end state
+     */
+    @Override
+    @Transactional
+    public int captureAll() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Map<Long, ProjectSnapshot> existing = snapshotRepository.findBySnapshotDate(today).stream()
+            .collect(Collectors.toMap(ProjectSnapshot::getProjectId, Function.identity()));
+
+        List<ProjectSnapshot> snapshots = new ArrayList<>();
+        for (ProjectSnapshotRow row : storyRepository.snapshotByProject()) {
+            if (row.getProjectId() == null) {
+                continue;
+            }
+            ProjectSnapshot snapshot = existing.getOrDefault(row.getProjectId(),
+                new ProjectSnapshot(row.getProjectId(), today));
+            fill(snapshot, row);
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+        log.info("Captured {} project snapshots in {}ms", snapshots.size(), System.currentTimeMillis() - start);
+        return snapshots.size();
+    }
+
+    @Override
+    @Transactional
+    public ProjectSnapshot captureProject(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new IllegalArgumentException("Project not found with id: " + projectId);
+        }
+        LocalDate today = LocalDate.now();
+        ProjectSnapshot snapshot = snapshotRepository.findByProjectIdAndSnapshotDate(projectId, today)
+            .orElseGet(() -> new ProjectSnapshot(projectId, today));
+
+        storyRepository.snapshotForProject(projectId).ifPresentOrElse(
+            row -> fill(snapshot, row),
+            () -> clear(snapshot));
+        return snapshotRepository.save(snapshot);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectSnapshot> getSnapshots(Long projectId, LocalDate from, LocalDate to) {
+        return snapshotRepository.findByProjectIdAndSnapshotDateBetweenOrderBySnapshotDate(projectId, from, to);
+    }
+
+    private void fill(ProjectSnapshot snapshot, ProjectSnapshotRow row) {
+        snapshot.setTotalStories(row.getTotal());
+        snapshot.setCompletedStories(row.getCompleted());
+        snapshot.setRemainingStories(row.getTotal() - row.getCompleted());
+        snapshot.setRemainingEstimatedHours(row.getRemainingEstimatedHours());
+        snapshot.setCompletedEstimatedHours(row.getCompletedEstimatedHours());
+        snapshot.setCapturedAt(LocalDateTime.now());
+    }
+
+    private void clear(ProjectSnapshot snapshot) {
+        snapshot.setTotalStories(0);
+        snapshot.setCompletedStories(0);
+        snapshot.setRemainingStories(0);
+        snapshot.setRemainingEstimatedHours(0.0);
+        snapshot.setCompletedEstimatedHours(0.0);
+        snapshot.setCapturedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,142 @@
+package com.htc.enter.serviceimpl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fans the independent parts of a report out onto the report executor and
+ * waits for all of them. Each branch runs in its own read-only transaction on
+ * its own thread (a JPA session must not be shared across threads), and its
+ * wall-clock time is recorded so slow parts of a report are visible.
+ *
+ * A report that overruns its timeout is abandoned as a whole: branches still
+ * queued are cancelled, running ones are interrupted, and each branch
+ * transaction carries the same timeout, which JPA applies to every query it
+ * issues, so a statement stuck in the database is aborted by the driver
+ * rather than left running after the caller gave up.
+ *
+ * <pre>
+ * ReportComposer.Composition parts = reportComposer.compose();
+ * parts.branch("dashboard", this::getDashboardMetrics);
+ * parts.branch("team", this::getTeamAnalytics);
+ * parts.join();
+ * parts.get("dashboard");
+ * </pre>
+ */
+@Component
+public class ReportComposer {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMs;
+
+    public ReportComposer(@Qualifier("reportExecutor") ThreadPoolTaskExecutor executor,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${analytics.report.timeout-ms:30000}") long timeoutMs) {
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Transaction timeouts are whole seconds; JPA turns this into each query's timeout hint
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+    }
+
+    public Composition compose() {
+        return new Composition();
+    }
+
+    public final class Composition {
+
+        private final long startedAt = System.nanoTime();
+        private final Map<String, Future<Object>> branches = new LinkedHashMap<>();
+        private final Map<String, Long> timings = new LinkedHashMap<>();
+        private final Map<String, Object> results = new LinkedHashMap<>();
+        private long totalMs;
+
+        private Composition() {
+        }
+
+        public Composition branch(String name, Supplier<?> work) {
+            // submit returns a FutureTask, whose cancel(true) interrupts the running branch
+            branches.put(name, executor.submit(() -> {
+                long start = System.nanoTime();
+                Object result = readOnlyTransaction.execute(status -> work.get());
+                synchronized (timings) {
+                    timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+                return result;
+            }));
+            return this;
+        }
+
+        /**
+         * Wait for every branch; the first failure is rethrown once all have settled
+         */
+        public Composition join() {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            Throwable failure = null;
+            for (Map.Entry<String, Future<Object>> branch : branches.entrySet()) {
+                try {
+                    results.put(branch.getKey(), branch.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                } catch (TimeoutException | CancellationException e) {
+                    cancelAll();
+                    throw new IllegalStateException("Report did not complete within " + timeoutMs + "ms");
+                } catch (InterruptedException e) {
+                    cancelAll();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Report composition was interrupted");
+                }
+            }
+            if (failure instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Report branch failed", failure);
+            }
+            totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            return this;
+        }
+
+        private void cancelAll() {
+            branches.values().forEach(branch -> branch.cancel(true));
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name) {
+            return (T) results.get(name);
+        }
+
+        /**
+         * Per-branch and total wall-clock milliseconds, in branch declaration order
+         */
+        public Map<String, Object> timings() {
+            Map<String, Object> ordered = new LinkedHashMap<>();
+            synchronized (timings) {
+                for (String name : branches.keySet()) {
+                    ordered.put(name, timings.get(name));
+                }
+            }
+            ordered.put("total", totalMs);
+            return ordered;
+        }
+    }
+}
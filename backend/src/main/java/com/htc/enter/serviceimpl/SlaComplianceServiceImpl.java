@@ -0,0 +1,346 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.htc.enter.event.SlaRuleChangedEvent;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.SlaCompliance;
+import com.htc.enter.model.SlaRule;
+import com.htc.enter.model.StorySlaStatus;
+import com.htc.enter.repository.SlaComplianceRepository;
+import com.htc.enter.repository.SlaRuleRepository;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.StorySlaStatusRepository;
+import com.htc.enter.repository.projection.ProjectCount;
+import com.htc.enter.repository.projection.SlaComplianceRow;
+import com.htc.enter.repository.projection.SlaStoryRow;
+import com.htc.enter.service.SlaComplianceService;
+
+@Service
+public class SlaComplianceServiceImpl implements SlaComplianceService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaComplianceServiceImpl.class);
+
+    private final StorySlaStatusRepository statusRepository;
+    private final SlaComplianceRepository complianceRepository;
+    private final SlaRuleRepository slaRuleRepository;
+    private final StoryRepository storyRepository;
+    private final CounterRowUpserter counterRows;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate newTransaction;
+
+    public SlaComplianceServiceImpl(StorySlaStatusRepository statusRepository,
+                                    SlaComplianceRepository complianceRepository,
+                                    SlaRuleRepository slaRuleRepository,
+                                    StoryRepository storyRepository,
+                                    CounterRowUpserter counterRows,
+                                    PlatformTransactionManager transactionManager) {
+        this.statusRepository = statusRepository;
+        this.complianceRepository = complianceRepository;
+        this.slaRuleRepository = slaRuleRepository;
+        this.storyRepository = storyRepository;
+        this.counterRows = counterRows;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getComplianceRate(Long projectId) {
+        return complianceRepository.findByProjectId(projectId)
+            .map(SlaCompliance::getComplianceRate)
+            .orElse(100.0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getComplianceReport() {
+        List<Map<String, Object>> projects = new ArrayList<>();
+        long tracked = 0;
+        long completed = 0;
+        long breached = 0;
+
+        for (SlaComplianceRow row : complianceRepository.findReport()) {
+            Map<String, Object> project = new LinkedHashMap<>();
+            project.put("projectId", row.getProjectId());
+            project.put("projectName", row.getProjectName());
+            project.put("tracked", row.getTracked());
+            project.put("completed", row.getCompleted());
+            project.put("breached", row.getBreached());
+            project.put("complianceRate", complianceRate(row.getTracked(), row.getBreached()));
+            projects.add(project);
+
+            tracked += row.getTracked();
+            completed += row.getCompleted();
+            breached += row.getBreached();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalTracked", tracked);
+        report.put("totalCompleted", completed);
+        report.put("totalBreached", breached);
+        report.put("complianceRate", complianceRate(tracked, breached));
+        report.put("projects", projects);
+        return report;
+    }
+
+    /**
+     * Runs inside the transaction that saved or deleted the story,
+     * so the evaluations commit or roll back together with the story itself.
+     */
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        reevaluateStory(event.storyId(), event.after());
+    }
+
+    /**
+     * A rule can cover many stories, so it is re-evaluated after the admin's
+     * write commits, in a transaction of its own. A failure here leaves the
+     * old evaluations in place until the nightly rebuild.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSlaRuleChanged(SlaRuleChangedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> reevaluateRule(event.slaId()));
+        } catch (Exception e) {
+            log.warn("Re-evaluating SLA rule {} failed: {}", event.slaId(), e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void reevaluateStory(long storyId, StorySnapshot story) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Delta> deltas = new HashMap<>();
+
+        List<StorySlaStatus> previous = statusRepository.findByStoryId(storyId);
+        if (!previous.isEmpty()) {
+            previous.forEach(status -> accumulate(deltas, status, -1));
+            statusRepository.deleteByStoryId(storyId);
+        }
+
+        if (story != null && story.projectId() != null) {
+            List<StorySlaStatus> current = new ArrayList<>();
+            for (SlaRule rule : slaRuleRepository.findApplicable(story.epicId(), story.projectId())) {
+                StorySlaStatus status = evaluate(rule, storyId, story.projectId(),
+                    story.createdAt(), story.approved(), story.endDate(), now);
+                if (status != null) {
+                    current.add(status);
+                    accumulate(deltas, status, 1);
+                }
+            }
+            statusRepository.saveAll(current);
+        }
+
+        applyDeltas(deltas, now);
+    }
+
+    @Override
+    @Transactional
+    public void reevaluateRule(Long slaId) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Delta> deltas = new HashMap<>();
+
+        List<StorySlaStatus> previous = statusRepository.findBySlaId(slaId);
+        if (!previous.isEmpty()) {
+            previous.forEach(status -> accumulate(deltas, status, -1));
+            statusRepository.deleteBySlaId(slaId);
+        }
+
+        SlaRule rule = slaRuleRepository.findById(slaId).orElse(null);
+        if (rule != null) {
+            List<StorySlaStatus> current = evaluateRule(rule, candidates(rule), now);
+            current.forEach(status -> accumulate(deltas, status, 1));
+            statusRepository.saveAll(current);
+        }
+
+        applyDeltas(deltas, now);
+    }
+
+    /**
+     * Open stories breach by the passage of time rather than by a write,
+     * so they are flagged here in one bulk update.
+     */
+    @Override
+    @Transactional
+    public int markBreaches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProjectCount> newBreaches = statusRepository.countNewBreaches(now);
+        if (newBreaches.isEmpty()) {
+            return 0;
+        }
+        int marked = statusRepository.markBreached(now);
+        Map<Long, Delta> deltas = new HashMap<>();
+        for (ProjectCount row : newBreaches) {
+            deltas.computeIfAbsent(row.getProjectId(), Delta::new).breached += row.getCount();
+        }
+        applyDeltas(deltas, now);
+        log.debug("Flagged {} SLA breaches", marked);
+        return marked;
+    }
+
+    /**
+     * Nightly drift repair. Each rule is evaluated once; rules sharing an epic
+     * or project reuse the same candidate rows.
+     */
+    @Override
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<SlaStoryRow>> byEpic = new HashMap<>();
+        Map<Long, List<SlaStoryRow>> byProject = new HashMap<>();
+
+        List<StorySlaStatus> statuses = new ArrayList<>();
+        for (SlaRule rule : slaRuleRepository.findAll()) {
+            List<SlaStoryRow> stories;
+            if (rule.getState() != null) {
+                stories = byEpic.computeIfAbsent(rule.getState().getEpicId(), storyRepository::findSlaCandidatesByEpic);
+            } else if (rule.getProject() != null) {
+                stories = byProject.computeIfAbsent(rule.getProject().getProjectId(), storyRepository::findSlaCandidatesByProject);
+            } else {
+                continue;
+            }
+            statuses.addAll(evaluateRule(rule, stories, now));
+        }
+
+        Map<Long, Delta> counters = new HashMap<>();
+        statuses.forEach(status -> accumulate(counters, status, 1));
+        List<SlaCompliance> compliance = new ArrayList<>();
+        for (Delta delta : counters.values()) {
+            SlaCompliance row = new SlaCompliance(delta.projectId);
+            row.setTrackedCount(delta.tracked);
+            row.setCompletedCount(delta.completed);
+            row.setBreachedCount(delta.breached);
+            compliance.add(row);
+        }
+
+        statusRepository.deleteAllInBatch();
+        complianceRepository.deleteAllInBatch();
+        statusRepository.saveAll(statuses);
+        complianceRepository.saveAll(compliance);
+        log.info("Rebuilt {} SLA evaluations across {} projects in {}ms",
+            statuses.size(), compliance.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Seed the tables on first start so existing stories are evaluated.
+     * A self-call skips the @Transactional proxy, hence the template.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            if (complianceRepository.count() == 0 && slaRuleRepository.count() > 0) {
+                transaction.executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception e) {
+            log.warn("Initial SLA compliance build failed: {}", e.getMessage());
+        }
+    }
+
+    private List<SlaStoryRow> candidates(SlaRule rule) {
+        if (rule.getState() != null) {
+            return storyRepository.findSlaCandidatesByEpic(rule.getState().getEpicId());
+        }
+        if (rule.getProject() != null) {
+            return storyRepository.findSlaCandidatesByProject(rule.getProject().getProjectId());
+        }
+        return new ArrayList<>();
+    }
+
+    private List<StorySlaStatus> evaluateRule(SlaRule rule, List<SlaStoryRow> stories, LocalDateTime now) {
+        List<StorySlaStatus> statuses = new ArrayList<>();
+        for (SlaStoryRow story : stories) {
+            StorySlaStatus status = evaluate(rule, story.getStoryId(), story.getProjectId(),
+                story.getCreatedAt(), story.isApproved(), story.getEndDate(), now);
+            if (status != null) {
+                statuses.add(status);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Stories carry no state-entry timestamp, so both start points measure from creation.
+     * A completed story breaches if its end date falls after the due date;
+     * an open one breaches once the due instant has passed.
+     */
+    private static StorySlaStatus evaluate(SlaRule rule, Long storyId, Long projectId,
+                                           LocalDateTime createdAt, boolean approved,
+                                           LocalDate endDate, LocalDateTime now) {
+        if (projectId == null || createdAt == null || rule.getDurationHours() <= 0) {
+            return null;
+        }
+        LocalDateTime dueAt = createdAt.plusHours(rule.getDurationHours());
+        StorySlaStatus status = new StorySlaStatus(storyId, rule.getSlaId(), projectId, dueAt);
+        status.setCompleted(approved);
+        status.setBreached(approved
+            ? endDate != null && endDate.isAfter(dueAt.toLocalDate())
+            : now.isAfter(dueAt));
+        return status;
+    }
+
+    private static void accumulate(Map<Long, Delta> deltas, StorySlaStatus status, int sign) {
+        Delta delta = deltas.computeIfAbsent(status.getProjectId(), Delta::new);
+        delta.tracked += sign;
+        delta.completed += status.isCompleted() ? sign : 0;
+        delta.breached += status.isBreached() ? sign : 0;
+    }
+
+    private void applyDeltas(Map<Long, Delta> deltas, LocalDateTime now) {
+        for (Delta delta : deltas.values()) {
+            if (delta.isZero()) {
+                continue;
+            }
+            boolean applied = counterRows.apply(
+                () -> complianceRepository.existsByProjectId(delta.projectId),
+                () -> complianceRepository.saveAndFlush(new SlaCompliance(delta.projectId)),
+                () -> complianceRepository.applyDelta(delta.projectId,
+                    delta.tracked, delta.completed, delta.breached, now),
+                delta.tracked > 0);
+            if (!applied) {
+                // Row missing for a removal: counters have drifted, the next rebuild repairs them
+                log.debug("No SLA compliance row for project {}; skipping negative delta", delta.projectId);
+            }
+        }
+    }
+
+    private static double complianceRate(long tracked, long breached) {
+        return tracked > 0 ? Math.round((tracked - breached) * 10000.0 / tracked) / 100.0 : 100.0;
+    }
+
+    private static final class Delta {
+        private final Long projectId;
+        private long tracked;
+        private long completed;
+        private long breached;
+
+        private Delta(Long projectId) {
+            this.projectId = projectId;
+        }
+
+        private boolean isZero() {
+            return tracked == 0 && completed == 0 && breached == 0;
+        }
+    }
+}
@@ -4,10 +4,12 @@ import java.util.List;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.htc.enter.dto.SlaRuleDTO;
+import com.htc.enter.event.SlaRuleChangedEvent;
 import com.htc.enter.model.SlaRule;
 import com.htc.enter.model.Project;
 import com.htc.enter.model.Epic;
@@ -22,18 +24,23 @@ public class SlaRuleServiceImpl implements SlaRuleService {
     private final SlaRuleRepository repo;
     private final ProjectRepository projectRepo;
     private final EpicRepository stateRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SlaRuleServiceImpl(SlaRuleRepository repo, ProjectRepository projectRepo, EpicRepository stateRepo) {
+    public SlaRuleServiceImpl(SlaRuleRepository repo, ProjectRepository projectRepo, EpicRepository stateRepo,
+                              ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.projectRepo = projectRepo;
         this.stateRepo = stateRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(value = "slaRules", allEntries = true)
     public SlaRule save(SlaRule sla) {
-        return repo.save(sla);
+        SlaRule saved = repo.save(sla);
+        publishChange(saved);
+        return saved;
     }
 
     @Override
@@ -55,6 +62,7 @@ public class SlaRuleServiceImpl implements SlaRuleService {
     @CacheEvict(value = "slaRules", allEntries = true)
     public void deleteById(Long id) {
         repo.deleteById(id);
+        eventPublisher.publishEvent(new SlaRuleChangedEvent(id, true));
     }
 
     @Override
@@ -79,7 +87,9 @@ public class SlaRuleServiceImpl implements SlaRuleService {
             Project er = projectRepo.findById(dto.getEscalationRoleId()).orElse(null);
             s.setEscalationRole(er);
         }
-        return repo.save(s);
+        SlaRule saved = repo.save(s);
+        publishChange(saved);
+        return saved;
     }
 
     @Override
@@ -105,6 +115,12 @@ public class SlaRuleServiceImpl implements SlaRuleService {
             Project er = projectRepo.findById(dto.getEscalationRoleId()).orElse(null);
             existing.setEscalationRole(er);
         }
-        return repo.save(existing);
+        SlaRule saved = repo.save(existing);
+        publishChange(saved);
+        return saved;
+    }
+
+    private void publishChange(SlaRule saved) {
+        eventPublisher.publishEvent(new SlaRuleChangedEvent(saved.getSlaId(), false));
     }
 }
\ No newline at end of file
@@ -0,0 +1,340 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.projection.StoryStatusCounts;
+import com.htc.enter.service.StoryIndexService;
+
+/**
+ * Columns are parallel primitive arrays indexed by slot; a story id maps to
+ * its slot through a small lookup map. Deletes move the last slot into the
+ * freed one so the arrays stay dense. Readers share a read lock, committed
+ * story changes take the write lock.
+ */
+@Service
+public class StoryIndexServiceImpl implements StoryIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoryIndexServiceImpl.class);
+
+    private static final long NONE = 0L;
+    private static final int NO_DUE_DATE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StoryRepository storyRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${analytics.columnar.enabled:false}")
+    private boolean enabled;
+
+    private long[] storyIds = new long[INITIAL_CAPACITY];
+    private long[] projectIds = new long[INITIAL_CAPACITY];
+    private long[] epicIds = new long[INITIAL_CAPACITY];
+    private long[] assigneeIds = new long[INITIAL_CAPACITY];
+    private int[] dueEpochDays = new int[INITIAL_CAPACITY];
+    private boolean[] approved = new boolean[INITIAL_CAPACITY];
+    private double[] estimatedHours = new double[INITIAL_CAPACITY];
+    private double[] actualHours = new double[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    // Changes committed while the initial load is running, replayed afterwards
+    private final List<StoryChangedEvent> pending = new ArrayList<>();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public StoryIndexServiceImpl(StoryRepository storyRepository) {
+        this.storyRepository = storyRepository;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (pending) {
+            loading = true;
+        }
+        try {
+            List<Object[]> rows = storyRepository.findIndexColumns();
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    upsert((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3],
+                        (LocalDate) row[4], (Boolean) row[5], (Double) row[6], (Double) row[7]);
+                }
+                synchronized (pending) {
+                    pending.forEach(this::applyLocked);
+                    pending.clear();
+                    loading = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Loaded {} stories into the columnar index in {}ms", size, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            loading = false;
+            log.warn("Columnar story index load failed, analytics will use the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Only committed changes are applied, so the index never shows rolled-back writes
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            if (loading) {
+                pending.add(event);
+                return;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            applyLocked(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(StoryChangedEvent event) {
+        StorySnapshot after = event.after();
+        if (after == null) {
+            remove(event.before().storyId());
+        } else {
+            upsert(after.storyId(), after.projectId(), after.epicId(), after.assigneeId(),
+                after.dueDate(), after.approved(), after.estimatedHours(), after.actualHours());
+        }
+    }
+
+    private void upsert(long storyId, Long projectId, Long epicId, Long assigneeId, LocalDate dueDate,
+                        Boolean isApproved, Double estimated, Double actual) {
+        Integer slot = slots.get(storyId);
+        int i;
+        if (slot != null) {
+            i = slot;
+        } else {
+            ensureCapacity(size + 1);
+            i = size++;
+            slots.put(storyId, i);
+        }
+        storyIds[i] = storyId;
+        projectIds[i] = projectId != null ? projectId : NONE;
+        epicIds[i] = epicId != null ? epicId : NONE;
+        assigneeIds[i] = assigneeId != null ? assigneeId : NONE;
+        dueEpochDays[i] = dueDate != null ? (int) dueDate.toEpochDay() : NO_DUE_DATE;
+        approved[i] = isApproved != null && isApproved;
+        estimatedHours[i] = estimated != null ? estimated : 0.0;
+        actualHours[i] = actual != null ? actual : 0.0;
+    }
+
+    private void remove(long storyId) {
+        Integer slot = slots.remove(storyId);
+        if (slot == null) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            int i = slot;
+            storyIds[i] = storyIds[last];
+            projectIds[i] = projectIds[last];
+            epicIds[i] = epicIds[last];
+            assigneeIds[i] = assigneeIds[last];
+            dueEpochDays[i] = dueEpochDays[last];
+            approved[i] = approved[last];
+            estimatedHours[i] = estimatedHours[last];
+            actualHours[i] = actualHours[last];
+            slots.put(storyIds[i], i);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= storyIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, storyIds.length * 2);
+        storyIds = Arrays.copyOf(storyIds, capacity);
+        projectIds = Arrays.copyOf(projectIds, capacity);
+        epicIds = Arrays.copyOf(epicIds, capacity);
+        assigneeIds = Arrays.copyOf(assigneeIds, capacity);
+        dueEpochDays = Arrays.copyOf(dueEpochDays, capacity);
+        approved = Arrays.copyOf(approved, capacity);
+        estimatedHours = Arrays.copyOf(estimatedHours, capacity);
+        actualHours = Arrays.copyOf(actualHours, capacity);
+    }
+
+    // ==================== QUERIES ====================
+
+    @Override
+    public long count(Query query) {
+        Scan scan = new Scan(query);
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                if (scan.matches(i)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(Query query) {
+        Scan scan = new Scan(query);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (scan.matches(i)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long[] storyIds(Query query) {
+        Scan scan = new Scan(query);
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[16];
+            int found = 0;
+            for (int i = 0; i < size; i++) {
+                if (scan.matches(i)) {
+                    if (found == ids.length) {
+                        ids = Arrays.copyOf(ids, found * 2);
+                    }
+                    ids[found++] = storyIds[i];
+                }
+            }
+            return Arrays.copyOf(ids, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double sumEstimatedHours(Query query) {
+        Scan scan = new Scan(query);
+        lock.readLock().lock();
+        try {
+            double sum = 0.0;
+            for (int i = 0; i < size; i++) {
+                if (scan.matches(i)) {
+                    sum += estimatedHours[i];
+                }
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public StoryStatusCounts statusCounts(LocalDate today) {
+        int todayEpochDay = (int) today.toEpochDay();
+        lock.readLock().lock();
+        try {
+            long approvedCount = 0;
+            long assignedCount = 0;
+            long overdueCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (approved[i]) {
+                    approvedCount++;
+                } else if (dueEpochDays[i] != NO_DUE_DATE && dueEpochDays[i] < todayEpochDay) {
+                    overdueCount++;
+                }
+                if (assigneeIds[i] != NONE) {
+                    assignedCount++;
+                }
+            }
+            return new Counts(size, approvedCount, assignedCount, overdueCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Counts(long total, long approved, long assigned, long overdue) implements StoryStatusCounts {
+        @Override public long getTotal() { return total; }
+        @Override public long getApproved() { return approved; }
+        @Override public long getAssigned() { return assigned; }
+        @Override public long getOverdue() { return overdue; }
+    }
+
+    /**
+     * Query criteria unpacked into primitives once, so the per-row check is
+     * plain array reads and comparisons.
+     */
+    private final class Scan {
+        private final boolean byProject;
+        private final long project;
+        private final boolean byEpic;
+        private final long epic;
+        private final boolean byAssignee;
+        private final long assignee;
+        private final boolean byApproved;
+        private final boolean approvedValue;
+        private final boolean byDue;
+        private final int dueFrom;
+        private final int dueBefore;
+
+        private Scan(Query query) {
+            byProject = query.getProjectId() != null;
+            project = byProject ? query.getProjectId() : NONE;
+            byEpic = query.getEpicId() != null;
+            epic = byEpic ? query.getEpicId() : NONE;
+            byAssignee = query.getAssigneeId() != null;
+            assignee = byAssignee ? query.getAssigneeId() : NONE;
+            byApproved = query.getApproved() != null;
+            approvedValue = byApproved && query.getApproved();
+            byDue = query.getDueFrom() != null || query.getDueBefore() != null;
+            dueFrom = query.getDueFrom() != null ? (int) query.getDueFrom().toEpochDay() : NO_DUE_DATE + 1;
+            dueBefore = query.getDueBefore() != null ? (int) query.getDueBefore().toEpochDay() : Integer.MAX_VALUE;
+        }
+
+        private boolean matches(int i) {
+            if (byProject && projectIds[i] != project) return false;
+            if (byEpic && epicIds[i] != epic) return false;
+            if (byAssignee && assigneeIds[i] != assignee) return false;
+            if (byApproved && approved[i] != approvedValue) return false;
+            if (byDue) {
+                int due = dueEpochDays[i];
+                if (due == NO_DUE_DATE || due < dueFrom || due >= dueBefore) return false;
+            }
+            return true;
+        }
+    }
+}
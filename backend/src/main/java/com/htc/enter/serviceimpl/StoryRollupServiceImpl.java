@@ -0,0 +1,239 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
+import com.htc.enter.model.StoryRollup;
+import com.htc.enter.model.StoryRollup.ScopeType;
+import com.htc.enter.repository.StoryRepository;
+import com.htc.enter.repository.StoryRollupRepository;
+import com.htc.enter.repository.projection.StoryRollupRow;
+import com.htc.enter.service.JobSchedulerService;
+import com.htc.enter.service.StoryRollupService;
+
+@Service
+public class StoryRollupServiceImpl implements StoryRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoryRollupServiceImpl.class);
+
+    private static final String INITIAL_BUILD_LEASE = "story-rollup-initial-build";
+
+    private final StoryRollupRepository rollupRepository;
+    private final StoryRepository storyRepository;
+    private final CounterRowUpserter counterRows;
+    private final TransactionTemplate transaction;
+    // Looked up lazily: the scheduler's job sources depend on this service
+    private final ObjectProvider<JobSchedulerService> jobScheduler;
+
+    @Value("${jobs.lease-ms:120000}")
+    private long leaseMs;
+
+    public StoryRollupServiceImpl(StoryRollupRepository rollupRepository, StoryRepository storyRepository,
+                                  CounterRowUpserter counterRows, PlatformTransactionManager transactionManager,
+                                  ObjectProvider<JobSchedulerService> jobScheduler) {
+        this.rollupRepository = rollupRepository;
+        this.storyRepository = storyRepository;
+        this.counterRows = counterRows;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.jobScheduler = jobScheduler;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StoryRollup getEpicRollup(Long epicId) {
+        return find(ScopeType.EPIC, epicId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StoryRollup getProjectRollup(Long projectId) {
+        return find(ScopeType.PROJECT, projectId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StoryRollup getClientRollup(Long clientId) {
+        return find(ScopeType.CLIENT, clientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoryRollup> getEpicRollups(Collection<Long> epicIds) {
+        if (epicIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<StoryRollup> rollups = rollupRepository.findByScopeTypeAndScopeIdIn(ScopeType.EPIC, epicIds);
+        Map<Long, Long> overdue = new HashMap<>();
+        for (Object[] row : storyRepository.countOverdueByEpic(epicIds, LocalDate.now())) {
+            overdue.put((Long) row[0], (Long) row[1]);
+        }
+        rollups.forEach(rollup -> rollup.setOverdueStories(overdue.getOrDefault(rollup.getScopeId(), 0L)));
+        return rollups;
+    }
+
+    private StoryRollup find(ScopeType scopeType, Long scopeId) {
+        StoryRollup rollup = rollupRepository.findByScopeTypeAndScopeId(scopeType, scopeId)
+            .orElseGet(() -> new StoryRollup(scopeType, scopeId));
+        if (rollup.getTotalStories() > rollup.getApprovedStories()) {
+            rollup.setOverdueStories(countOverdue(scopeType, scopeId, LocalDate.now()));
+        }
+        return rollup;
+    }
+
+    private long countOverdue(ScopeType scopeType, Long scopeId, LocalDate today) {
+        return switch (scopeType) {
+            case EPIC -> storyRepository.countOverdueInEpic(scopeId, today);
+            case PROJECT -> storyRepository.countOverdueInProject(scopeId, today);
+            case CLIENT -> storyRepository.countOverdueForClient(scopeId, today);
+        };
+    }
+
+    /**
+     * Runs inside the transaction that saved or deleted the story,
+     * so the counters commit or roll back together with the story itself.
+     */
+    @EventListener
+    public void onStoryChanged(StoryChangedEvent event) {
+        applyChange(event.before(), event.after());
+    }
+
+    @Override
+    @Transactional
+    public void applyChange(StorySnapshot before, StorySnapshot after) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            accumulate(deltas, before, -1);
+        }
+        if (after != null) {
+            accumulate(deltas, after, 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Delta delta : deltas.values()) {
+            if (delta.isZero()) {
+                continue;
+            }
+            boolean applied = counterRows.apply(
+                () -> rollupRepository.existsByScopeTypeAndScopeId(delta.scopeType, delta.scopeId),
+                () -> rollupRepository.saveAndFlush(new StoryRollup(delta.scopeType, delta.scopeId)),
+                () -> rollupRepository.applyDelta(delta.scopeType, delta.scopeId,
+                    delta.total, delta.approved, delta.estimatedHours, delta.actualHours, now),
+                delta.total > 0);
+            if (!applied) {
+                // Row missing for a removal: counters have drifted, the next rebuild repairs them
+                log.debug("No rollup row for {} {}; skipping negative delta", delta.scopeType, delta.scopeId);
+            }
+        }
+    }
+
+    private void accumulate(Map<String, Delta> deltas, StorySnapshot story, int sign) {
+        addScope(deltas, ScopeType.EPIC, story.epicId(), story, sign);
+        addScope(deltas, ScopeType.PROJECT, story.projectId(), story, sign);
+        addScope(deltas, ScopeType.CLIENT, story.clientId(), story, sign);
+    }
+
+    private void addScope(Map<String, Delta> deltas, ScopeType scopeType, Long scopeId,
+                          StorySnapshot story, int sign) {
+        if (scopeId == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(scopeType + ":" + scopeId, k -> new Delta(scopeType, scopeId));
+        delta.total += sign;
+        delta.approved += story.approved() ? sign : 0;
+        delta.estimatedHours += sign * story.estimatedHoursOrZero();
+        delta.actualHours += sign * story.actualHoursOrZero();
+    }
+
+    /**
+     * Drift repair, run under the cluster job lease. Rows are overwritten in
+     * place rather than deleted and reinserted, so story writes racing the
+     * rebuild always find their row; scopes whose stories are all gone are zeroed.
+     */
+    @Override
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        int rows = 0;
+        rows += overwrite(ScopeType.EPIC, storyRepository.rollupByEpic());
+        rows += overwrite(ScopeType.PROJECT, storyRepository.rollupByProject());
+        rows += overwrite(ScopeType.CLIENT, storyRepository.rollupByClient());
+        int emptied = rollupRepository.zeroNotUpdatedSince(startedAt, LocalDateTime.now());
+        log.info("Rebuilt {} story rollups ({} emptied) in {}ms", rows, emptied, System.currentTimeMillis() - start);
+    }
+
+    private int overwrite(ScopeType scopeType, List<StoryRollupRow> rows) {
+        int written = 0;
+        for (StoryRollupRow row : rows) {
+            if (row.getScopeId() == null) {
+                continue;
+            }
+            Long scopeId = row.getScopeId();
+            LocalDateTime now = LocalDateTime.now();
+            counterRows.apply(
+                () -> rollupRepository.existsByScopeTypeAndScopeId(scopeType, scopeId),
+                () -> rollupRepository.saveAndFlush(new StoryRollup(scopeType, scopeId)),
+                () -> rollupRepository.overwrite(scopeType, scopeId, row.getTotal(), row.getApproved(),
+                    row.getEstimatedHours(), row.getActualHours(), now),
+                true);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Seed the table on first start so existing stories are counted. Every node
+     * starts with an empty table, so only the one holding the lease builds it.
+     * A self-call skips the @Transactional proxy, hence the template.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0 && storyRepository.count() > 0
+                    && jobScheduler.getObject().holdsLease(INITIAL_BUILD_LEASE, Duration.ofMillis(leaseMs))) {
+                transaction.executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception e) {
+            log.warn("Initial story rollup build failed: {}", e.getMessage());
+        }
+    }
+
+    private static final class Delta {
+        private final ScopeType scopeType;
+        private final Long scopeId;
+        private long total;
+        private long approved;
+        private double estimatedHours;
+        private double actualHours;
+
+        private Delta(ScopeType scopeType, Long scopeId) {
+            this.scopeType = scopeType;
+            this.scopeId = scopeId;
+        }
+
+        private boolean isZero() {
+            return total == 0 && approved == 0
+                && estimatedHours == 0.0 && actualHours == 0.0;
+        }
+    }
+}
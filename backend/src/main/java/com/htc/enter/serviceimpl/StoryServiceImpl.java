@@ -4,10 +4,13 @@ import java.util.List;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.htc.enter.dto.StoryDTO;
+import com.htc.enter.event.StoryChangedEvent;
+import com.htc.enter.event.StorySnapshot;
 import com.htc.enter.model.Story;
 import com.htc.enter.model.Project;
 import com.htc.enter.model.User;
@@ -35,24 +38,33 @@ public class StoryServiceImpl implements StoryService {
     private final UserRepository userRepo;
     private final NotificationService notificationService;
     private final NotificationDatabaseService notificationDatabaseService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public StoryServiceImpl(StoryRepository repo, ProjectRepository projectRepo, 
                            EpicRepository stateRepo, UserRepository userRepo, 
                            NotificationService notificationService,
-                           NotificationDatabaseService notificationDatabaseService) {
+                           NotificationDatabaseService notificationDatabaseService,
+                           ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.projectRepo = projectRepo;
         this.stateRepo = stateRepo;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
         this.notificationDatabaseService = notificationDatabaseService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(value = "stories", allEntries = true)
     public Story save(Story story) {
-        return repo.save(story);
+        // Read from the database: findById would hand back the caller's already-edited managed instance
+        StorySnapshot before = story.getStoryId() != 0
+            ? repo.findSnapshotById(story.getStoryId()).orElse(null)
+            : null;
+        Story saved = repo.save(story);
+        publishChange(before, saved);
+        return saved;
     }
 
     @Override
@@ -73,7 +85,11 @@ public class StoryServiceImpl implements StoryService {
     @Transactional(rollbackFor = Exception.class)
     @CacheEvict(value = "stories", allEntries = true)
     public void deleteById(Long id) {
+        StorySnapshot before = repo.findById(id).map(StorySnapshot::of).orElse(null);
         repo.deleteById(id);
+        if (before != null) {
+            eventPublisher.publishEvent(new StoryChangedEvent(before, null));
+        }
     }
 
     @Override
@@ -107,6 +123,7 @@ public class StoryServiceImpl implements StoryService {
             t.setCreated_by(creator);
         }
         Story saved = repo.save(t);
+        publishChange(null, saved);
         // Notify assigned user immediately when story is created
         if (saved.getAssigned_to() != null) {
             notificationService.notifyStoryAssigned(saved);
@@ -151,6 +168,7 @@ public class StoryServiceImpl implements StoryService {
     public Story updateFromDTO(Long id, StoryDTO dto) {
         Story existing = findById(id);
         if (existing == null) throw new IllegalArgumentException("Task not found with id: " + id);
+        StorySnapshot before = StorySnapshot.of(existing);
         boolean wasAssigned = existing.getAssigned_to() != null;
         if (dto.getTitle() != null) existing.setTitle(dto.getTitle());
         if (dto.getDescription() != null) existing.setDeliverables(dto.getDescription());
@@ -181,7 +199,9 @@ public class StoryServiceImpl implements StoryService {
             if (existing.getIs_end() == null) existing.setIs_end(java.time.LocalDate.now());
             notificationService.notifyStoryCompleted(existing);
         }
-        return repo.save(existing);
+        Story saved = repo.save(existing);
+        publishChange(before, saved);
+        return saved;
     }
 
     @Override
@@ -196,9 +216,11 @@ public class StoryServiceImpl implements StoryService {
         }
 
         // Mark story complete
+        StorySnapshot before = StorySnapshot.of(story);
         story.setIs_approved(true);
         story.setIs_end(LocalDate.now());
         Story saved = repo.save(story);
+        publishChange(before, saved);
 
         // Notify
         notificationService.notifyStoryCompleted(saved);
@@ -226,6 +248,14 @@ public class StoryServiceImpl implements StoryService {
         return saved;
     }
 
+    /**
+     * Let derived read models (rollups, caches) follow the write.
+     * Published inside the current transaction.
+     */
+    private void publishChange(StorySnapshot before, Story saved) {
+        eventPublisher.publishEvent(new StoryChangedEvent(before, StorySnapshot.of(saved)));
+    }
+
     /**
      * Check if all stories under this epic are complete.
      * If so, mark the epic complete and cascade to the project.
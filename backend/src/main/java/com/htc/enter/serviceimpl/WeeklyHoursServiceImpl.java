@@ -0,0 +1,69 @@
+package com.htc.enter.serviceimpl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.htc.enter.event.TimeLogChangedEvent;
+import com.htc.enter.event.TimeLogSnapshot;
+import com.htc.enter.repository.TimeLogRepository;
+import com.htc.enter.repository.projection.UserHoursRow;
+import com.htc.enter.service.WeeklyHoursService;
+
+@Service
+public class WeeklyHoursServiceImpl implements WeeklyHoursService {
+
+    static final String CACHE_NAME = "weeklyHours";
+
+    private final TimeLogRepository timeLogRepository;
+    private final CacheManager cacheManager;
+
+    public WeeklyHoursServiceImpl(TimeLogRepository timeLogRepository, CacheManager cacheManager) {
+        this.timeLogRepository = timeLogRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "#weekStart")
+    public Map<Long, Double> getHoursByUser(LocalDate weekStart) {
+        if (weekStart.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new IllegalArgumentException("Week start must be a Monday");
+        }
+        Map<Long, Double> hours = new HashMap<>();
+        for (UserHoursRow row : timeLogRepository.sumHoursByUserBetween(
+                weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay())) {
+            hours.put(row.getUserId(), row.getHours());
+        }
+        return Collections.unmodifiableMap(hours);
+    }
+
+    /**
+     * Evict after commit so a concurrent read cannot cache the week before the log is visible
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeLogChanged(TimeLogChangedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        evictWeek(cache, event.before());
+        evictWeek(cache, event.after());
+    }
+
+    private void evictWeek(Cache cache, TimeLogSnapshot timeLog) {
+        if (timeLog != null && timeLog.workDate() != null) {
+            cache.evict(WeeklyHoursService.weekStart(timeLog.workDate().toLocalDate()));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.htc.enter.util;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Capacity-vs-demand forecast over a horizon of N days.
+ *
+ * Each open story's remaining hours are spread evenly from today until its
+ * due date (overdue work lands on day 0; work due past the horizon only
+ * contributes the days inside it). A user is overloaded on a day when the
+ * demand assigned to them exceeds their daily capacity; the excess share of
+ * each story on such days is reported as hours at risk for its project.
+ *
+ * Inputs and outputs are parallel primitive arrays. Users are independent,
+ * so the per-user pass runs on the common fork-join pool and each task only
+ * writes its own user's slots and its own stories' slots.
+ */
+public final class BottleneckForecaster {
+
+    private BottleneckForecaster() {
+    }
+
+    /**
+     * @param days           forecast horizon in days (day 0 is today)
+     * @param dailyCapacity  hours per day each user can absorb, indexed by user
+     * @param storyUser      user index of each open story
+     * @param storyDueOffset due date of each story as days from today (negative when overdue)
+     * @param storyRemaining remaining hours of each story
+     */
+    public static Result forecast(int days, double[] dailyCapacity,
+                                  int[] storyUser, int[] storyDueOffset, double[] storyRemaining) {
+        int users = dailyCapacity.length;
+        int stories = storyUser.length;
+
+        // Group stories by user (CSR layout) so each parallel task walks a contiguous slice
+        int[] offsets = new int[users + 1];
+        for (int s = 0; s < stories; s++) {
+            offsets[storyUser[s] + 1]++;
+        }
+        for (int u = 0; u < users; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] byUser = new int[stories];
+        int[] cursor = Arrays.copyOf(offsets, users);
+        for (int s = 0; s < stories; s++) {
+            byUser[cursor[storyUser[s]]++] = s;
+        }
+
+        Result result = new Result(users, stories);
+        IntStream.range(0, users).parallel().forEach(u ->
+            forecastUser(u, days, dailyCapacity[u], offsets[u], offsets[u + 1], byUser,
+                storyDueOffset, storyRemaining, result));
+        return result;
+    }
+
+    private static void forecastUser(int u, int days, double capacity, int from, int to, int[] byUser,
+                                     int[] storyDueOffset, double[] storyRemaining, Result result) {
+        if (from == to) {
+            return;
+        }
+        double[] demand = new double[days];
+        for (int k = from; k < to; k++) {
+            int s = byUser[k];
+            int span = span(storyDueOffset[s]);
+            double perDay = storyRemaining[s] / span;
+            int last = Math.min(span, days);
+            for (int d = 0; d < last; d++) {
+                demand[d] += perDay;
+            }
+        }
+
+        double peak = 0.0;
+        double total = 0.0;
+        int overloadedDays = 0;
+        int firstOverload = -1;
+        for (int d = 0; d < days; d++) {
+            total += demand[d];
+            if (demand[d] > peak) {
+                peak = demand[d];
+            }
+            if (demand[d] > capacity) {
+                overloadedDays++;
+                if (firstOverload < 0) {
+                    firstOverload = d;
+                }
+            }
+        }
+        result.peakDemand[u] = peak;
+        result.totalDemand[u] = total;
+        result.overloadedDays[u] = overloadedDays;
+        result.firstOverloadDay[u] = firstOverload;
+
+        if (overloadedDays == 0) {
+            return;
+        }
+        // Attribute the excess share of each overloaded day back to the stories that caused it
+        for (int k = from; k < to; k++) {
+            int s = byUser[k];
+            int span = span(storyDueOffset[s]);
+            double perDay = storyRemaining[s] / span;
+            int last = Math.min(span, days);
+            double atRisk = 0.0;
+            for (int d = 0; d < last; d++) {
+                if (demand[d] > capacity) {
+                    atRisk += perDay * (1.0 - capacity / demand[d]);
+                }
+            }
+            result.storyAtRisk[s] = atRisk;
+        }
+    }
+
+    /** Number of days (at least one) over which a story's remaining work is spread */
+    private static int span(int dueOffset) {
+        return Math.max(dueOffset, 0) + 1;
+    }
+
+    public static final class Result {
+        private final double[] peakDemand;
+        private final double[] totalDemand;
+        private final int[] overloadedDays;
+        private final int[] firstOverloadDay;
+        private final double[] storyAtRisk;
+
+        private Result(int users, int stories) {
+            this.peakDemand = new double[users];
+            this.totalDemand = new double[users];
+            this.overloadedDays = new int[users];
+            this.firstOverloadDay = new int[users];
+            this.storyAtRisk = new double[stories];
+            Arrays.fill(firstOverloadDay, -1);
+        }
+
+        public double peakDemand(int user) { return peakDemand[user]; }
+        public double totalDemand(int user) { return totalDemand[user]; }
+        public int overloadedDays(int user) { return overloadedDays[user]; }
+        /** First overloaded day as an offset from today, or -1 */
+        public int firstOverloadDay(int user) { return firstOverloadDay[user]; }
+        public double storyAtRisk(int story) { return storyAtRisk[story]; }
+    }
+}
@@ -0,0 +1,114 @@
+package com.htc.enter.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo forecast of the number of days until a set of open stories is done.
+ *
+ * Each run scales every story's estimate by an actual/estimate ratio drawn from
+ * history, subtracts the hours already spent, and burns the total down with
+ * weekly throughput drawn from recent weeks (both sampled with replacement).
+ * The last week is prorated by day.
+ *
+ * Runs are split into fixed chunks on the common fork-join pool. Each chunk has
+ * its own SplittableRandom, split up front from one root, so results are
+ * reproducible for a given seed. Each chunk also writes only its own slice of
+ * the outcome array.
+ */
+public final class CompletionForecaster {
+
+    /** Upper bound on simulated weeks, so runs that keep drawing zero-hour weeks still terminate */
+    private static final int MAX_WEEKS = 520;
+    private static final int CHUNK = 512;
+
+    private CompletionForecaster() {
+    }
+
+    /**
+     * @param estimates    estimated hours of each open story
+     * @param spent        hours already spent on each open story
+     * @param ratios       historical actual/estimate ratios, at least one
+     * @param weeklyHours  historical hours completed per week, at least one positive
+     * @param runs         number of simulations
+     * @param seed         root seed for the per-chunk generators
+     * @return days to completion of each run, sorted ascending
+     */
+    public static int[] simulate(double[] estimates, double[] spent, double[] ratios,
+                                 double[] weeklyHours, int runs, long seed) {
+        if (ratios.length == 0 || weeklyHours.length == 0) {
+            throw new IllegalArgumentException("Ratios and weekly hours must not be empty");
+        }
+        int[] outcomes = new int[runs];
+        int chunks = (runs + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            generators[c] = root.split();
+        }
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = generators[c];
+            int end = Math.min(runs, (c + 1) * CHUNK);
+            for (int run = c * CHUNK; run < end; run++) {
+                outcomes[run] = simulateRun(estimates, spent, ratios, weeklyHours, random);
+            }
+        });
+        Arrays.sort(outcomes);
+        return outcomes;
+    }
+
+    private static int simulateRun(double[] estimates, double[] spent, double[] ratios,
+                                   double[] weeklyHours, SplittableRandom random) {
+        double remaining = 0.0;
+        for (int s = 0; s < estimates.length; s++) {
+            double projected = estimates[s] * ratios[random.nextInt(ratios.length)];
+            if (projected > spent[s]) {
+                remaining += projected - spent[s];
+            }
+        }
+        if (remaining <= 0.0) {
+            return 0;
+        }
+        for (int week = 0; week < MAX_WEEKS; week++) {
+            double throughput = weeklyHours[random.nextInt(weeklyHours.length)];
+            if (throughput >= remaining) {
+                return week * 7 + (int) Math.ceil(7.0 * remaining / throughput);
+            }
+            remaining -= throughput;
+        }
+        return MAX_WEEKS * 7;
+    }
+
+    /**
+     * Value at the given percentile (0-100) of sorted outcomes
+     */
+    public static int percentile(int[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Share of sorted outcomes at or below the given number of days
+     */
+    public static double probabilityWithin(int[] sorted, int days) {
+        if (sorted.length == 0) {
+            return 1.0;
+        }
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= days) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (double) low / sorted.length;
+    }
+}
@@ -0,0 +1,350 @@
+package com.htc.enter.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed set of non-negative entity ids, laid out like a Roaring bitmap.
+ *
+ * Ids are split into a 16-bit low part and a high key. Each key owns one container:
+ * a sorted char array while it holds at most 4096 values, a 1024-word bitset above that.
+ * Sparse id ranges therefore cost two bytes per id and dense ranges one bit per id,
+ * and intersections work container by container instead of id by id.
+ *
+ * Not thread-safe; callers guard shared instances.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITSET_WORDS = 1024;
+    private static final long MAX_ID = (1L << 47) - 1;
+
+    private int[] keys = new int[4];
+    private char[][] arrays = new char[4][];
+    private long[][] bitsets = new long[4][];
+    private int[] cardinalities = new int[4];
+    private int size;
+    private long cardinality;
+
+    public static IdBitmap of(Iterable<Long> ids) {
+        IdBitmap bitmap = new IdBitmap();
+        for (Long id : ids) {
+            if (id != null) {
+                bitmap.add(id);
+            }
+        }
+        return bitmap;
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0 || id > MAX_ID) {
+            return false;
+        }
+        int i = indexOf(high(id));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) id;
+        if (bitsets[i] != null) {
+            return (bitsets[i][low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch(arrays[i], 0, cardinalities[i], low) >= 0;
+    }
+
+    public boolean add(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Id out of range for bitmap: " + id);
+        }
+        int key = high(id);
+        char low = (char) id;
+        int i = indexOf(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, key);
+        }
+        if (bitsets[i] != null) {
+            long[] words = bitsets[i];
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= bit;
+        } else {
+            int card = cardinalities[i];
+            int pos = Arrays.binarySearch(arrays[i], 0, card, low);
+            if (pos >= 0) {
+                return false;
+            }
+            if (card == ARRAY_MAX) {
+                bitsets[i] = toBitset(arrays[i], card);
+                arrays[i] = null;
+                bitsets[i][low >>> 6] |= 1L << low;
+            } else {
+                pos = -pos - 1;
+                char[] values = arrays[i];
+                if (card == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, card * 2)));
+                    arrays[i] = values;
+                }
+                System.arraycopy(values, pos, values, pos + 1, card - pos);
+                values[pos] = low;
+            }
+        }
+        cardinalities[i]++;
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        if (id < 0 || id > MAX_ID) {
+            return false;
+        }
+        int i = indexOf(high(id));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) id;
+        if (bitsets[i] != null) {
+            long[] words = bitsets[i];
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~bit;
+            if (cardinalities[i] - 1 <= ARRAY_MAX) {
+                arrays[i] = toArray(words, cardinalities[i] - 1);
+                bitsets[i] = null;
+            }
+        } else {
+            int card = cardinalities[i];
+            int pos = Arrays.binarySearch(arrays[i], 0, card, low);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(arrays[i], pos + 1, arrays[i], pos, card - pos - 1);
+        }
+        cardinality--;
+        if (--cardinalities[i] == 0) {
+            removeContainer(i);
+        }
+        return true;
+    }
+
+    /**
+     * Ids present in both bitmaps, as a new bitmap
+     */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIntersection(keys[i], this, i, other, j);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids present in either bitmap, as a new bitmap
+     */
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap result = copy();
+        for (int j = 0; j < other.size; j++) {
+            other.forEachInContainer(j, result::add);
+        }
+        return result;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap();
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.arrays = new char[arrays.length][];
+        copy.bitsets = new long[bitsets.length][];
+        copy.cardinalities = Arrays.copyOf(cardinalities, cardinalities.length);
+        for (int i = 0; i < size; i++) {
+            copy.arrays[i] = arrays[i] != null ? arrays[i].clone() : null;
+            copy.bitsets[i] = bitsets[i] != null ? bitsets[i].clone() : null;
+        }
+        copy.size = size;
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    /**
+     * Visits ids in ascending order
+     */
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            forEachInContainer(i, action);
+        }
+    }
+
+    public long[] toArray() {
+        long[] ids = new long[(int) cardinality];
+        int[] n = new int[1];
+        forEach(id -> ids[n[0]++] = id);
+        return ids;
+    }
+
+    private void forEachInContainer(int i, LongConsumer action) {
+        long base = ((long) keys[i]) << 16;
+        if (bitsets[i] != null) {
+            long[] words = bitsets[i];
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | ((long) w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        } else {
+            char[] values = arrays[i];
+            for (int k = 0; k < cardinalities[i]; k++) {
+                action.accept(base | values[k]);
+            }
+        }
+    }
+
+    private void appendIntersection(int key, IdBitmap a, int i, IdBitmap b, int j) {
+        long[] wordsA = a.bitsets[i];
+        long[] wordsB = b.bitsets[j];
+        if (wordsA != null && wordsB != null) {
+            long[] words = new long[BITSET_WORDS];
+            int card = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                words[w] = wordsA[w] & wordsB[w];
+                card += Long.bitCount(words[w]);
+            }
+            if (card == 0) {
+                return;
+            }
+            if (card <= ARRAY_MAX) {
+                appendContainer(key, toArray(words, card), null, card);
+            } else {
+                appendContainer(key, null, words, card);
+            }
+            return;
+        }
+        char[] values = new char[Math.min(a.cardinalities[i], b.cardinalities[j])];
+        int card = 0;
+        if (wordsA != null || wordsB != null) {
+            // One side is a bitset: probe it with the other side's sorted values
+            long[] words = wordsA != null ? wordsA : wordsB;
+            char[] probe = wordsA != null ? b.arrays[j] : a.arrays[i];
+            int probeCard = wordsA != null ? b.cardinalities[j] : a.cardinalities[i];
+            for (int k = 0; k < probeCard; k++) {
+                char low = probe[k];
+                if ((words[low >>> 6] & (1L << low)) != 0) {
+                    values[card++] = low;
+                }
+            }
+        } else {
+            char[] x = a.arrays[i];
+            char[] y = b.arrays[j];
+            int p = 0;
+            int q = 0;
+            while (p < a.cardinalities[i] && q < b.cardinalities[j]) {
+                if (x[p] < y[q]) {
+                    p++;
+                } else if (x[p] > y[q]) {
+                    q++;
+                } else {
+                    values[card++] = x[p];
+                    p++;
+                    q++;
+                }
+            }
+        }
+        if (card > 0) {
+            appendContainer(key, values, null, card);
+        }
+    }
+
+    // Keys arrive in ascending order, so containers can be appended at the end
+    private void appendContainer(int key, char[] values, long[] words, int card) {
+        ensureCapacity();
+        keys[size] = key;
+        arrays[size] = values;
+        bitsets[size] = words;
+        cardinalities[size] = card;
+        size++;
+        cardinality += card;
+    }
+
+    private void insertContainer(int i, int key) {
+        ensureCapacity();
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(arrays, i, arrays, i + 1, size - i);
+        System.arraycopy(bitsets, i, bitsets, i + 1, size - i);
+        System.arraycopy(cardinalities, i, cardinalities, i + 1, size - i);
+        keys[i] = key;
+        arrays[i] = new char[4];
+        bitsets[i] = null;
+        cardinalities[i] = 0;
+        size++;
+    }
+
+    private void removeContainer(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(arrays, i + 1, arrays, i, size - i - 1);
+        System.arraycopy(bitsets, i + 1, bitsets, i, size - i - 1);
+        System.arraycopy(cardinalities, i + 1, cardinalities, i, size - i - 1);
+        size--;
+        arrays[size] = null;
+        bitsets[size] = null;
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            arrays = Arrays.copyOf(arrays, capacity);
+            bitsets = Arrays.copyOf(bitsets, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+    }
+
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private static int high(long id) {
+        return (int) (id >>> 16);
+    }
+
+    private static long[] toBitset(char[] values, int card) {
+        long[] words = new long[BITSET_WORDS];
+        for (int k = 0; k < card; k++) {
+            words[values[k] >>> 6] |= 1L << values[k];
+        }
+        return words;
+    }
+
+    private static char[] toArray(long[] words, int card) {
+        char[] values = new char[Math.max(4, card)];
+        int n = 0;
+        for (int w = 0; w < BITSET_WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,109 @@
+package com.htc.enter.util;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Map from long keys to long values in two parallel primitive arrays with
+ * linear probing, so per-user counters for thousands of users cost a few
+ * kilobytes and no boxing. Serializes to the same JSON as a Map<Long, Long>:
+ * an object keyed by the decimal key.
+ *
+ * Not thread-safe; build it in one place and publish it read-only.
+ */
+@JsonSerialize(using = LongLongMap.Serializer.class)
+public final class LongLongMap {
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value for the key, or 0 when it is absent
+     */
+    public long get(long key) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : 0L;
+    }
+
+    /**
+     * Add delta to the key's value, starting from 0 for a new key
+     */
+    public void add(long key, long delta) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slotOf(key);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] += delta;
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        // Fibonacci hashing spreads sequential ids across the table
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    static final class Serializer extends StdSerializer<LongLongMap> {
+
+        Serializer() {
+            super(LongLongMap.class);
+        }
+
+        @Override
+        public void serialize(LongLongMap map, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < map.keys.length; i++) {
+                if (map.used[i]) {
+                    generator.writeFieldName(Long.toString(map.keys[i]));
+                    generator.writeNumber(map.values[i]);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.htc.enter.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical form used for case-insensitive uniqueness checks on names and emails.
+ * Kept equivalent to SQL LOWER(TRIM(x)) so the backfill and the entities agree.
+ */
+public final class NameNormalizer {
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
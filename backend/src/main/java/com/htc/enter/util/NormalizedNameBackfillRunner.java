@@ -0,0 +1,75 @@
+package com.htc.enter.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database maintenance utility for the normalized name and email columns.
+ * Rows written before those columns existed are filled one row at a time with
+ * NameNormalizer's form, so a row whose value collides on a unique index with
+ * an existing case-insensitive duplicate is skipped and reported without
+ * holding back the rest. Reported rows stay NULL until the duplicate is resolved
+ * by hand; the next start picks them up again.
+ */
+@Component
+public class NormalizedNameBackfillRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(NormalizedNameBackfillRunner.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        backfill("ewt_projects", "project_id", "normalized_name", "name");
+        backfill("ewt_client", "client_id", "normalized_name", "name");
+        backfill("ewt_user", "id", "normalized_email", "email");
+    }
+
+    private void backfill(String table, String idColumn, String column, String source) {
+        int updated = 0;
+        List<String> conflicts = new ArrayList<>();
+        try {
+            long lastId = 0;
+            List<Map<String, Object>> chunk;
+            do {
+                chunk = jdbcTemplate.queryForList(
+                    "SELECT " + idColumn + " AS id, " + source + " AS source FROM " + table +
+                    " WHERE " + column + " IS NULL AND " + source + " IS NOT NULL AND " + idColumn + " > ?" +
+                    " ORDER BY " + idColumn + " LIMIT " + CHUNK_SIZE, lastId);
+                for (Map<String, Object> row : chunk) {
+                    long id = ((Number) row.get("id")).longValue();
+                    lastId = id;
+                    String normalized = NameNormalizer.normalize((String) row.get("source"));
+                    try {
+                        updated += jdbcTemplate.update(
+                            "UPDATE " + table + " SET " + column + " = ? WHERE " + idColumn + " = ? AND " + column + " IS NULL",
+                            normalized, id);
+                    } catch (DataIntegrityViolationException e) {
+                        conflicts.add(id + " ('" + normalized + "')");
+                    }
+                }
+            } while (chunk.size() == CHUNK_SIZE);
+        } catch (Exception e) {
+            log.error("Backfill of {}.{} stopped after {} row(s): {}", table, column, updated, e.getMessage());
+        }
+        if (updated > 0) {
+            log.info("Backfilled {} row(s) of {}.{}", updated, table, column);
+        }
+        if (!conflicts.isEmpty()) {
+            log.error("{} row(s) of {} left without {}: their value duplicates another row's case-insensitively. "
+                + "Rename or merge them; ids: {}", conflicts.size(), table, column, String.join(", ", conflicts));
+        }
+    }
+}
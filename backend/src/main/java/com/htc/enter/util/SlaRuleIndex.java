@@ -0,0 +1,105 @@
+package com.htc.enter.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SLA rules grouped by the scope they apply to: rules bound to an epic are
+ * keyed by epic id, project-wide rules (no epic) by project id. Within a key
+ * rules are sorted by duration, so evaluating a story computes its elapsed
+ * hours once and walks only the rules it has already outlived.
+ *
+ * A story is breached under a rule once more than durationHours whole hours
+ * have passed since it was created.
+ */
+public final class SlaRuleIndex {
+
+    public record Rule(long slaId, Long epicId, Long projectId, int durationHours) {
+    }
+
+    public record Breach(long storyId, long slaId) {
+    }
+
+    private static final Rule[] NONE = new Rule[0];
+
+    private final Map<Long, Rule[]> byEpic;
+    private final Map<Long, Rule[]> byProject;
+    private final int minDurationHours;
+
+    private SlaRuleIndex(Map<Long, Rule[]> byEpic, Map<Long, Rule[]> byProject, int minDurationHours) {
+        this.byEpic = byEpic;
+        this.byProject = byProject;
+        this.minDurationHours = minDurationHours;
+    }
+
+    public static SlaRuleIndex of(Collection<Rule> rules) {
+        Map<Long, List<Rule>> epicRules = new HashMap<>();
+        Map<Long, List<Rule>> projectRules = new HashMap<>();
+        int minDuration = Integer.MAX_VALUE;
+        for (Rule rule : rules) {
+            if (rule.epicId() != null) {
+                epicRules.computeIfAbsent(rule.epicId(), k -> new ArrayList<>()).add(rule);
+            } else if (rule.projectId() != null) {
+                projectRules.computeIfAbsent(rule.projectId(), k -> new ArrayList<>()).add(rule);
+            } else {
+                continue;
+            }
+            minDuration = Math.min(minDuration, rule.durationHours());
+        }
+        return new SlaRuleIndex(sorted(epicRules), sorted(projectRules), minDuration);
+    }
+
+    public boolean isEmpty() {
+        return byEpic.isEmpty() && byProject.isEmpty();
+    }
+
+    public Set<Long> epicIds() {
+        return byEpic.keySet();
+    }
+
+    public Set<Long> projectIds() {
+        return byProject.keySet();
+    }
+
+    /**
+     * Shortest duration of any indexed rule; stories younger than this cannot breach
+     */
+    public int minDurationHours() {
+        return minDurationHours;
+    }
+
+    /**
+     * Appends a breach for every rule covering the story that it has outlived
+     *
+     * @param elapsedHours whole hours since the story was created
+     */
+    public void evaluate(long storyId, Long epicId, Long projectId, long elapsedHours, List<Breach> breaches) {
+        collect(storyId, epicId != null ? byEpic.getOrDefault(epicId, NONE) : NONE, elapsedHours, breaches);
+        collect(storyId, projectId != null ? byProject.getOrDefault(projectId, NONE) : NONE, elapsedHours, breaches);
+    }
+
+    private static void collect(long storyId, Rule[] rules, long elapsedHours, List<Breach> breaches) {
+        for (Rule rule : rules) {
+            if (elapsedHours <= rule.durationHours()) {
+                return;
+            }
+            breaches.add(new Breach(storyId, rule.slaId()));
+        }
+    }
+
+    private static Map<Long, Rule[]> sorted(Map<Long, List<Rule>> grouped) {
+        Map<Long, Rule[]> result = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, rules) -> {
+            Rule[] array = rules.toArray(NONE);
+            Arrays.sort(array, Comparator.comparingInt(Rule::durationHours));
+            result.put(key, array);
+        });
+        return result;
+    }
+}
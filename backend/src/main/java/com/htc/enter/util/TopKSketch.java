@@ -0,0 +1,143 @@
+package com.htc.enter.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frequency estimator for the most common keys in a stream: a Count-Min sketch
+ * (depth x width int counters, conservative update) plus a bounded candidate set
+ * of the k keys with the highest estimates seen so far. Memory is fixed by depth,
+ * width and k regardless of stream length. Not thread-safe; callers synchronize.
+ */
+public final class TopKSketch {
+
+    private final int depth;
+    private final int width;
+    private final int capacity;
+    private final int[][] counters;
+    private final Map<String, Long> candidates;
+
+    public TopKSketch(int depth, int width, int capacity) {
+        if (depth < 1 || width < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Depth, width and capacity must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.capacity = capacity;
+        this.counters = new int[depth][width];
+        this.candidates = new HashMap<>();
+    }
+
+    public void add(String key) {
+        long hash = HyperLogLog.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        int[] cells = new int[depth];
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            cells[row] = ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+            min = Math.min(min, counters[row][cells[row]]);
+        }
+        // Conservative update: only raise counters that are below the new minimum
+        int updated = min + 1;
+        for (int row = 0; row < depth; row++) {
+            if (counters[row][cells[row]] < updated) {
+                counters[row][cells[row]] = updated;
+            }
+        }
+        offer(key, updated);
+    }
+
+    public long estimate(String key) {
+        long hash = HyperLogLog.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row][((h1 + row * h2) & Integer.MAX_VALUE) % width]);
+        }
+        return min;
+    }
+
+    public Iterable<String> candidateKeys() {
+        return candidates.keySet();
+    }
+
+    /**
+     * Add another sketch's counts into this one. Summed counters still never
+     * underestimate, and candidates from both sides compete for the k slots.
+     */
+    public void merge(TopKSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int row = 0; row < depth; row++) {
+            for (int i = 0; i < width; i++) {
+                counters[row][i] += other.counters[row][i];
+            }
+        }
+        List<String> keys = new ArrayList<>(candidates.keySet());
+        keys.addAll(other.candidates.keySet());
+        candidates.clear();
+        for (String key : keys) {
+            offer(key, estimate(key));
+        }
+    }
+
+    private void offer(String key, long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            return;
+        }
+        String weakest = null;
+        long weakestEstimate = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (entry.getValue() < weakestEstimate) {
+                weakest = entry.getKey();
+                weakestEstimate = entry.getValue();
+            }
+        }
+        if (estimate > weakestEstimate) {
+            candidates.remove(weakest);
+            candidates.put(key, estimate);
+        }
+    }
+
+    // ---- Serialization: depth, width, capacity, counters, then the candidate keys ----
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeInt(capacity);
+        for (int[] row : counters) {
+            for (int counter : row) {
+                out.writeInt(counter);
+            }
+        }
+        out.writeInt(candidates.size());
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    public static TopKSketch readFrom(DataInput in) throws IOException {
+        TopKSketch sketch = new TopKSketch(in.readInt(), in.readInt(), in.readInt());
+        for (int[] row : sketch.counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = in.readInt();
+            }
+        }
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            sketch.candidates.put(in.readUTF(), in.readLong());
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,198 @@
+package com.htc.enter.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.htc.enter.model.EmailOutboxMessage;
+import com.htc.enter.model.EmailOutboxMessage.Status;
+import com.htc.enter.repository.EmailOutboxRepository;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+class EmailOutboxServiceImplTest {
+
+    private static final long BACKOFF_MS = 30_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private EmailOutboxRepository repository;
+    private JavaMailSender mailSender;
+    private EmailOutboxServiceImpl outbox;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        outbox = newOutbox(mailSender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.stop();
+    }
+
+    @Test
+    void dispatchSendsDueMessagesInOneSession() {
+        List<EmailOutboxMessage> due = dueMessages(3, 0);
+        when(repository.findDue(eq(Status.PENDING), any(), any())).thenReturn(due);
+
+        assertEquals(3, outbox.dispatch());
+
+        verify(mailSender).send(any(MimeMessage[].class));
+        verify(repository).saveAll(due);
+        for (EmailOutboxMessage message : due) {
+            assertEquals(Status.SENT, message.getStatus());
+            assertEquals(1, message.getAttempts());
+            assertTrue(message.getSentAt() != null);
+        }
+    }
+
+    @Test
+    void failedRecipientIsRetriedWithBackoffWhileOthersAreSent() {
+        List<EmailOutboxMessage> due = dueMessages(2, 0);
+        when(repository.findDue(eq(Status.PENDING), any(), any())).thenReturn(due);
+        // The server rejects the first message of the session; Mockito expands the varargs into arguments
+        doAnswer(invocation -> {
+            Object first = invocation.getArguments()[0];
+            throw new MailSendException(Map.of(first, new RuntimeException("mailbox full")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, outbox.dispatch());
+
+        EmailOutboxMessage failed = due.stream().filter(m -> m.getStatus() == Status.PENDING).findFirst().orElseThrow();
+        EmailOutboxMessage sent = due.stream().filter(m -> m.getStatus() == Status.SENT).findFirst().orElseThrow();
+        assertEquals(1, failed.getAttempts());
+        assertEquals("mailbox full", failed.getLastError());
+        assertDelay(before, failed.getNextAttemptAt(), BACKOFF_MS);
+        assertNull(sent.getLastError());
+    }
+
+    @Test
+    void backoffDoublesPerAttempt() {
+        List<EmailOutboxMessage> due = dueMessages(1, 1);
+        when(repository.findDue(eq(Status.PENDING), any(), any())).thenReturn(due);
+        doThrow(new MailAuthenticationException("bad credentials")).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(0, outbox.dispatch());
+
+        EmailOutboxMessage message = due.get(0);
+        assertEquals(Status.PENDING, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        assertDelay(before, message.getNextAttemptAt(), BACKOFF_MS * 2);
+    }
+
+    @Test
+    void messageIsDeadAfterTheLastAttempt() {
+        List<EmailOutboxMessage> due = dueMessages(1, MAX_ATTEMPTS - 1);
+        when(repository.findDue(eq(Status.PENDING), any(), any())).thenReturn(due);
+        doThrow(new MailAuthenticationException("bad credentials")).when(mailSender).send(any(MimeMessage[].class));
+
+        assertEquals(0, outbox.dispatch());
+
+        EmailOutboxMessage message = due.get(0);
+        assertEquals(Status.DEAD, message.getStatus());
+        assertEquals(MAX_ATTEMPTS, message.getAttempts());
+        assertEquals("bad credentials", message.getLastError());
+    }
+
+    @Test
+    void sendExceptionWithoutDetailFailsTheWholeSlice() {
+        List<EmailOutboxMessage> due = dueMessages(2, 0);
+        when(repository.findDue(eq(Status.PENDING), any(), any())).thenReturn(due);
+        doThrow(new MailSendException("connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        assertEquals(0, outbox.dispatch());
+        due.forEach(message -> assertEquals(Status.PENDING, message.getStatus()));
+    }
+
+    @Test
+    void withoutMailSenderMessagesStayPending() {
+        outbox.stop();
+        outbox = newOutbox(null);
+
+        assertEquals(0, outbox.dispatch());
+
+        verify(repository, never()).findDue(any(), any(), any());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void heldMessageIsOnlySentOnceReleased() {
+        EmailOutboxMessage held = new EmailOutboxMessage("from@example.com", "to@example.com", "Subject", "Body");
+        held.setId(7L);
+        held.setStatus(Status.HELD);
+        when(repository.findById(7L)).thenReturn(Optional.of(held));
+
+        assertTrue(outbox.release(7L, new byte[] {1, 2, 3}));
+        assertEquals(Status.PENDING, held.getStatus());
+        assertEquals(3, held.getAttachment().length);
+        // Already released: neither a second release nor an abandon applies
+        assertFalse(outbox.release(7L, new byte[0]));
+        assertFalse(outbox.abandon(7L, "too late"));
+    }
+
+    @Test
+    void enqueueRejectsMissingRecipient() {
+        assertThrows(IllegalArgumentException.class, () -> outbox.enqueue("from@example.com", " ", "Subject", "Body"));
+        verify(repository, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private EmailOutboxServiceImpl newOutbox(JavaMailSender sender) {
+        ObjectProvider<JavaMailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sender);
+        EmailOutboxServiceImpl service = new EmailOutboxServiceImpl(repository, provider, 1);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "backoffMs", BACKOFF_MS);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 3_600_000L);
+        return service;
+    }
+
+    private static List<EmailOutboxMessage> dueMessages(int count, int attempts) {
+        List<EmailOutboxMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EmailOutboxMessage message = new EmailOutboxMessage("from@example.com", "user" + i + "@example.com", "Subject " + i, "Body");
+            message.setId((long) i + 1);
+            message.setAttempts(attempts);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static void assertDelay(LocalDateTime before, LocalDateTime nextAttemptAt, long expectedMs) {
+        long delay = Duration.between(before, nextAttemptAt).toMillis();
+        assertTrue(delay >= expectedMs && delay < expectedMs + 5_000,
+            "expected a delay of about " + expectedMs + "ms, was " + delay + "ms");
+    }
+}
@@ -0,0 +1,105 @@
+package com.htc.enter.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.htc.enter.EnterpriseWorkflowTaskApplication;
+import com.htc.enter.service.JobSchedulerService;
+import com.htc.enter.service.JobSchedulerService.Job;
+
+/**
+ * Two application contexts sharing one H2 database stand in for two nodes.
+ */
+class JobSchedulerClusterTest {
+
+    private static final int JOBS = 5;
+
+    private final Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void eachJobRunsOnceAcrossNodes() throws InterruptedException {
+        JobSchedulerService schedulerA = nodeA.getBean(JobSchedulerService.class);
+        JobSchedulerService schedulerB = nodeB.getBean(JobSchedulerService.class);
+        for (int i = 0; i < JOBS; i++) {
+            String name = "cluster-test-" + i;
+            runs.put(name, new AtomicInteger());
+            // Both nodes register every job, so both race for each due run
+            schedulerA.register(countingJob(name));
+            schedulerB.register(countingJob(name));
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (runs.values().stream().anyMatch(count -> count.get() == 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // Several more polls on both nodes; none may start a second run
+        Thread.sleep(1_000);
+
+        runs.forEach((name, count) -> assertEquals(1, count.get(), name + " ran " + count.get() + " times"));
+    }
+
+    @Test
+    void standaloneLeaseIsHeldByOneNode() {
+        Duration lease = Duration.ofMinutes(1);
+        JobSchedulerService schedulerA = nodeA.getBean(JobSchedulerService.class);
+        JobSchedulerService schedulerB = nodeB.getBean(JobSchedulerService.class);
+
+        assertTrue(schedulerA.holdsLease("cluster-test-lease", lease));
+        assertFalse(schedulerB.holdsLease("cluster-test-lease", lease));
+        // The holder keeps extending it
+        assertTrue(schedulerA.holdsLease("cluster-test-lease", lease));
+    }
+
+    private Job countingJob(String name) {
+        return Job.fixedDelay(name, Duration.ofHours(1), Duration.ofMinutes(1), () -> {
+            runs.get(name).incrementAndGet();
+            try {
+                // Keep the run open across the other node's polls
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(EnterpriseWorkflowTaskApplication.class).run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:cluster-jobs;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            // The second node must not recreate the schema the first one is using
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--jobs.node-id=" + nodeId,
+            "--jobs.poll-ms=100");
+    }
+}
@@ -0,0 +1,96 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CompletionForecasterTest {
+
+    private static final int RUNS = 20_000;
+    private static final long SEED = 17;
+
+    @Test
+    void steadyThroughputBurnsDownDeterministically() {
+        // 20 + 50 = 70 hours left at 40 a week: one full week, then 30/40 of a week rounds up to 6 days
+        int[] outcomes = CompletionForecaster.simulate(
+            new double[] {30, 50}, new double[] {10, 0}, new double[] {1.0}, new double[] {40}, 1_000, SEED);
+
+        assertEquals(13, outcomes[0]);
+        assertEquals(13, outcomes[outcomes.length - 1]);
+    }
+
+    @Test
+    void ratioScalesTheEstimateBeforeSpentHoursAreSubtracted() {
+        // 10 estimated x 2.0 = 20 projected, 5 spent: 15 left at 35 a week is exactly 3 days
+        int[] outcomes = CompletionForecaster.simulate(
+            new double[] {10}, new double[] {5}, new double[] {2.0}, new double[] {35}, 100, SEED);
+
+        assertEquals(3, outcomes[0]);
+        assertEquals(3, outcomes[outcomes.length - 1]);
+    }
+
+    @Test
+    void overspentStoriesContributeNothing() {
+        int[] outcomes = CompletionForecaster.simulate(
+            new double[] {10, 10}, new double[] {12, 10}, new double[] {1.0}, new double[] {40}, 100, SEED);
+
+        assertEquals(0, outcomes[outcomes.length - 1]);
+    }
+
+    @Test
+    void idleHistoryStopsAtTheWeekCap() {
+        int[] outcomes = CompletionForecaster.simulate(
+            new double[] {10}, new double[] {0}, new double[] {1.0}, new double[] {0}, 10, SEED);
+
+        assertEquals(520 * 7, outcomes[0]);
+    }
+
+    @Test
+    void alternatingWeeksGiveTheExpectedDistribution() {
+        // 40 hours left, weeks of 20 or 60 drawn evenly:
+        //   60                -> ceil(7 * 40 / 60)     =  5 days, p = 1/2
+        //   20 then 60        -> 7 + ceil(7 * 20 / 60) = 10 days, p = 1/4
+        //   20 then 20        -> 7 + 7                 = 14 days, p = 1/4
+        int[] outcomes = CompletionForecaster.simulate(
+            new double[] {40}, new double[] {0}, new double[] {1.0}, new double[] {20, 60}, RUNS, SEED);
+
+        assertEquals(0.50, CompletionForecaster.probabilityWithin(outcomes, 5), 0.02);
+        assertEquals(0.75, CompletionForecaster.probabilityWithin(outcomes, 10), 0.02);
+        assertEquals(1.00, CompletionForecaster.probabilityWithin(outcomes, 14), 0.0);
+        assertEquals(5, CompletionForecaster.percentile(outcomes, 25));
+        assertEquals(14, CompletionForecaster.percentile(outcomes, 90));
+    }
+
+    @Test
+    void sameSeedGivesSameForecast() {
+        double[] estimates = {8, 16, 24, 40};
+        double[] spent = {0, 4, 30, 10};
+        double[] ratios = {0.8, 1.0, 1.3, 2.1};
+        double[] weeklyHours = {12, 35, 0, 50, 28};
+
+        int[] first = CompletionForecaster.simulate(estimates, spent, ratios, weeklyHours, RUNS, SEED);
+        int[] second = CompletionForecaster.simulate(estimates, spent, ratios, weeklyHours, RUNS, SEED);
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void percentileAndProbabilityOnKnownOutcomes() {
+        int[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertEquals(5, CompletionForecaster.percentile(sorted, 50));
+        assertEquals(9, CompletionForecaster.percentile(sorted, 85));
+        assertEquals(1, CompletionForecaster.percentile(sorted, 0));
+        assertEquals(0.3, CompletionForecaster.probabilityWithin(sorted, 3), 0.0);
+        assertEquals(0.0, CompletionForecaster.probabilityWithin(sorted, 0), 0.0);
+        assertEquals(0, CompletionForecaster.percentile(new int[0], 50));
+    }
+
+    @Test
+    void rejectsMissingHistory() {
+        assertThrows(IllegalArgumentException.class, () -> CompletionForecaster.simulate(
+            new double[] {1}, new double[] {0}, new double[0], new double[] {10}, 10, SEED));
+    }
+}
@@ -0,0 +1,91 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    // Standard error at precision 11 is 1.04 / sqrt(2048), about 2.3%
+    private static final int PRECISION = 11;
+    private static final double STANDARD_ERROR = 1.04 / Math.sqrt(1 << PRECISION);
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog(PRECISION).estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("user-" + i);
+        }
+        assertEquals(100.0, sketch.estimate(), 2.0);
+    }
+
+    @Test
+    void duplicatesDoNotCount() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                sketch.add("user-" + i);
+            }
+        }
+        assertWithinError(1_000, sketch.estimate());
+    }
+
+    @Test
+    void estimatesStayWithinErrorBoundAcrossCardinalities() {
+        for (int cardinality : new int[] {1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("entity:" + i);
+            }
+            assertWithinError(cardinality, sketch.estimate());
+        }
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog left = new HyperLogLog(PRECISION);
+        HyperLogLog right = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 30_000; i++) {
+            left.add("user-" + i);
+        }
+        // Half of these overlap the left sketch
+        for (int i = 15_000; i < 45_000; i++) {
+            right.add("user-" + i);
+        }
+        left.merge(right);
+        assertWithinError(45_000, left.estimate());
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("user-" + i);
+        }
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void rejectsMismatchedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(PRECISION).merge(new HyperLogLog(PRECISION + 1)));
+    }
+
+    /**
+     * Four standard errors: a deterministic hash makes these fixed inputs, so this
+     * only guards against the estimator drifting, not against bad luck
+     */
+    private static void assertWithinError(long expected, long estimate) {
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue(error <= 4 * STANDARD_ERROR,
+            "estimate " + estimate + " for " + expected + " is off by " + Math.round(error * 1000) / 10.0 + "%");
+    }
+}
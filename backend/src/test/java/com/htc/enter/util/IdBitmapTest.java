@@ -0,0 +1,143 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class IdBitmapTest {
+
+    private static final long CONTAINER = 1L << 16;
+
+    @Test
+    void addRemoveContainsAcrossContainerBoundary() {
+        IdBitmap bitmap = new IdBitmap();
+        long[] ids = {0, 1, CONTAINER - 1, CONTAINER, CONTAINER + 1, 5 * CONTAINER, (1L << 47) - 1};
+        for (long id : ids) {
+            assertTrue(bitmap.add(id));
+            assertFalse(bitmap.add(id), "second add of " + id);
+        }
+        assertEquals(ids.length, bitmap.cardinality());
+        for (long id : ids) {
+            assertTrue(bitmap.contains(id), "contains " + id);
+        }
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(CONTAINER + 2));
+        assertFalse(bitmap.contains(-1));
+
+        assertTrue(bitmap.remove(CONTAINER - 1));
+        assertFalse(bitmap.remove(CONTAINER - 1));
+        assertFalse(bitmap.contains(CONTAINER - 1));
+        assertTrue(bitmap.contains(CONTAINER));
+        assertEquals(ids.length - 1, bitmap.cardinality());
+    }
+
+    @Test
+    void arrayContainerConvertsToBitsetPastLimit() {
+        IdBitmap bitmap = new IdBitmap();
+        // 4096 values fill the array container, the next one switches it to a bitset
+        for (long id = 0; id < 4097; id++) {
+            bitmap.add(CONTAINER + id * 3);
+        }
+        assertEquals(4097, bitmap.cardinality());
+        for (long id = 0; id < 4097; id++) {
+            assertTrue(bitmap.contains(CONTAINER + id * 3));
+            assertFalse(bitmap.contains(CONTAINER + id * 3 + 1));
+        }
+        for (long id = 0; id < 4097; id += 2) {
+            assertTrue(bitmap.remove(CONTAINER + id * 3));
+        }
+        for (long id = 0; id < 4097; id++) {
+            assertEquals(id % 2 == 1, bitmap.contains(CONTAINER + id * 3), "id " + id);
+        }
+        assertEquals(2048, bitmap.cardinality());
+    }
+
+    @Test
+    void removingLastValueEmptiesBitmap() {
+        IdBitmap bitmap = IdBitmap.of(List.of(7L, CONTAINER + 7));
+        bitmap.remove(7);
+        bitmap.remove(CONTAINER + 7);
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.toArray().length);
+        assertTrue(bitmap.add(CONTAINER + 7));
+    }
+
+    @Test
+    void andOrAcrossArrayAndBitsetContainers() {
+        IdBitmap dense = new IdBitmap();
+        IdBitmap sparse = new IdBitmap();
+        TreeSet<Long> denseIds = new TreeSet<>();
+        TreeSet<Long> sparseIds = new TreeSet<>();
+        // Container 0 dense on one side, container 1 dense on the other, container 2 only on one side
+        for (long id = 0; id < 10_000; id++) {
+            add(dense, denseIds, id);
+            add(sparse, sparseIds, CONTAINER + id);
+        }
+        for (long id = 0; id < 10_000; id += 97) {
+            add(sparse, sparseIds, id);
+            add(dense, denseIds, CONTAINER + id * 5);
+        }
+        add(dense, denseIds, 2 * CONTAINER + 11);
+
+        TreeSet<Long> expectedAnd = new TreeSet<>(denseIds);
+        expectedAnd.retainAll(sparseIds);
+        TreeSet<Long> expectedOr = new TreeSet<>(denseIds);
+        expectedOr.addAll(sparseIds);
+
+        assertSame(expectedAnd, dense.and(sparse));
+        assertSame(expectedAnd, sparse.and(dense));
+        assertSame(expectedOr, dense.or(sparse));
+        assertSame(expectedOr, sparse.or(dense));
+        // Operands are left untouched
+        assertSame(denseIds, dense);
+        assertSame(sparseIds, sparse);
+    }
+
+    @Test
+    void matchesTreeSetUnderRandomOperations() {
+        Random random = new Random(42);
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Three neighbouring containers so values cluster enough to cross the array limit
+            long id = random.nextInt(3) * CONTAINER + random.nextInt(i < 100_000 ? 8_000 : 65_536);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id), bitmap.remove(id));
+            } else {
+                assertEquals(expected.add(id), bitmap.add(id));
+            }
+        }
+        assertSame(expected, bitmap);
+        for (int i = 0; i < 10_000; i++) {
+            long id = random.nextInt(4) * CONTAINER + random.nextInt(65_536);
+            assertEquals(expected.contains(id), bitmap.contains(id));
+        }
+    }
+
+    @Test
+    void rejectsIdsOutOfRange() {
+        IdBitmap bitmap = new IdBitmap();
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(1L << 47));
+        assertFalse(bitmap.contains(1L << 47));
+        assertFalse(bitmap.remove(-1));
+    }
+
+    private static void add(IdBitmap bitmap, TreeSet<Long> ids, long id) {
+        bitmap.add(id);
+        ids.add(id);
+    }
+
+    private static void assertSame(TreeSet<Long> expected, IdBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), actual.toArray());
+    }
+}
@@ -0,0 +1,58 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LongLongMapTest {
+
+    @Test
+    void addAccumulatesAndMissingKeysReadZero() {
+        LongLongMap map = new LongLongMap(4);
+        map.add(7, 3);
+        map.add(7, 2);
+        map.add(0, 1);
+
+        assertEquals(5, map.get(7));
+        assertEquals(1, map.get(0));
+        assertEquals(0, map.get(8));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void matchesHashMapThroughGrowth() {
+        Random random = new Random(5);
+        // Sized far too small so the table has to grow several times
+        LongLongMap map = new LongLongMap(1);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(3_000) * 1_024L;
+            long delta = random.nextInt(10);
+            map.add(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals((long) value, map.get(key), "key " + key));
+    }
+
+    @Test
+    void serializesLikeABoxedMap() throws Exception {
+        LongLongMap map = new LongLongMap(2);
+        map.add(12, 4);
+        map.add(3, 9);
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Long> json = mapper.readValue(mapper.writeValueAsString(map), new TypeReference<>() { });
+
+        assertEquals(Map.of("12", 4L, "3", 9L), json);
+        assertEquals(mapper.writeValueAsString(Map.of()), mapper.writeValueAsString(new LongLongMap(0)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.htc.enter.util.SlaRuleIndex.Breach;
+import com.htc.enter.util.SlaRuleIndex.Rule;
+
+class SlaRuleIndexTest {
+
+    private record Story(long storyId, Long epicId, Long projectId, long elapsedHours) {
+    }
+
+    @Test
+    void epicRuleAppliesOnlyToItsEpic() {
+        Rule epicRule = new Rule(1, 10L, 100L, 24);
+        List<Story> stories = List.of(
+            new Story(1, 10L, 100L, 25),
+            // Same project, other epic: the epic binding wins over the project
+            new Story(2, 11L, 100L, 25),
+            new Story(3, null, 100L, 25));
+
+        assertEquals(Set.of(new Breach(1, 1)), breaches(List.of(epicRule), stories));
+    }
+
+    @Test
+    void projectRuleAppliesToEveryStoryInTheProject() {
+        Rule projectRule = new Rule(2, null, 100L, 24);
+        List<Story> stories = List.of(
+            new Story(1, 10L, 100L, 25),
+            new Story(2, null, 100L, 25),
+            new Story(3, 20L, 200L, 25));
+
+        assertEquals(Set.of(new Breach(1, 2), new Breach(2, 2)), breaches(List.of(projectRule), stories));
+    }
+
+    @Test
+    void epicAndProjectRulesBothApply() {
+        List<Rule> rules = List.of(new Rule(1, 10L, 100L, 48), new Rule(2, null, 100L, 24));
+        List<Story> stories = List.of(
+            new Story(1, 10L, 100L, 30),
+            new Story(2, 10L, 100L, 50));
+
+        assertEquals(Set.of(new Breach(1, 2), new Breach(2, 1), new Breach(2, 2)), breaches(rules, stories));
+    }
+
+    @Test
+    void globalRuleAppliesToNothing() {
+        // Neither epic nor project: compliance and the old scan never evaluated these either
+        Rule global = new Rule(3, null, null, 1);
+        SlaRuleIndex index = SlaRuleIndex.of(List.of(global));
+
+        assertTrue(index.isEmpty());
+        assertEquals(Set.of(), breaches(List.of(global), List.of(new Story(1, 10L, 100L, 1_000))));
+    }
+
+    @Test
+    void breachNeedsMoreThanTheDuration() {
+        List<Rule> rules = List.of(new Rule(1, 10L, 100L, 24));
+
+        assertEquals(Set.of(), breaches(rules, List.of(new Story(1, 10L, 100L, 24))));
+        assertEquals(Set.of(new Breach(1, 1)), breaches(rules, List.of(new Story(1, 10L, 100L, 25))));
+    }
+
+    @Test
+    void matchesFullScanOnRandomRulesAndStories() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            List<Rule> rules = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                Long projectId = random.nextInt(10) == 0 ? null : (long) random.nextInt(8);
+                Long epicId = random.nextBoolean() ? null : (long) random.nextInt(30);
+                rules.add(new Rule(i, epicId, projectId, random.nextInt(200)));
+            }
+            List<Story> stories = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                Long epicId = random.nextInt(5) == 0 ? null : (long) random.nextInt(30);
+                Long projectId = random.nextInt(20) == 0 ? null : (long) random.nextInt(8);
+                stories.add(new Story(i, epicId, projectId, random.nextInt(250)));
+            }
+
+            assertEquals(fullScan(rules, stories), breaches(rules, stories), "round " + round);
+        }
+    }
+
+    private static Set<Breach> breaches(List<Rule> rules, List<Story> stories) {
+        SlaRuleIndex index = SlaRuleIndex.of(rules);
+        List<Breach> breaches = new ArrayList<>();
+        for (Story story : stories) {
+            index.evaluate(story.storyId(), story.epicId(), story.projectId(), story.elapsedHours(), breaches);
+        }
+        Set<Breach> unique = new HashSet<>(breaches);
+        assertEquals(unique.size(), breaches.size(), "a rule was applied to a story twice");
+        return unique;
+    }
+
+    /**
+     * Every rule against every story, with the applicability of SlaRuleRepository.findApplicable:
+     * rules bound to the story's epic, plus project-wide rules that name no epic
+     */
+    private static Set<Breach> fullScan(List<Rule> rules, List<Story> stories) {
+        Set<Breach> breaches = new HashSet<>();
+        for (Rule rule : rules) {
+            for (Story story : stories) {
+                boolean applies = rule.epicId() != null
+                    ? Objects.equals(rule.epicId(), story.epicId())
+                    : rule.projectId() != null && Objects.equals(rule.projectId(), story.projectId());
+                if (applies && story.elapsedHours() > rule.durationHours()) {
+                    breaches.add(new Breach(story.storyId(), rule.slaId()));
+                }
+            }
+        }
+        return breaches;
+    }
+}
@@ -0,0 +1,106 @@
+package com.htc.enter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TopKSketchTest {
+
+    // Same dimensions as the audit sketches
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 128;
+    private static final int CAPACITY = 32;
+
+    @Test
+    void heavyHittersAreCandidatesAboveTheNoise() {
+        TopKSketch sketch = new TopKSketch(DEPTH, WIDTH, CAPACITY);
+        feedSkewedStream(sketch, new Random(7), 50_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(candidates(sketch).contains("hot-" + i), "hot-" + i + " missing from candidates");
+        }
+    }
+
+    @Test
+    void estimatesNeverUndercount() {
+        TopKSketch sketch = new TopKSketch(DEPTH, WIDTH, CAPACITY);
+        Map<String, Long> exact = feedSkewedStream(sketch, new Random(11), 50_000);
+
+        exact.forEach((key, count) ->
+            assertTrue(sketch.estimate(key) >= count, key + " estimated " + sketch.estimate(key) + " < " + count));
+        // Heavy hitters dominate their counters, so their estimates stay close
+        for (int i = 0; i < 10; i++) {
+            String key = "hot-" + i;
+            long count = exact.get(key);
+            assertTrue(sketch.estimate(key) - count <= count / 10, key + " overestimated by more than 10%");
+        }
+    }
+
+    @Test
+    void mergeAddsCountsAndKeepsHeavyHitters() {
+        TopKSketch left = new TopKSketch(DEPTH, WIDTH, CAPACITY);
+        TopKSketch right = new TopKSketch(DEPTH, WIDTH, CAPACITY);
+        Map<String, Long> exact = feedSkewedStream(left, new Random(3), 25_000);
+        feedSkewedStream(right, new Random(5), 25_000).forEach((key, count) -> exact.merge(key, count, Long::sum));
+
+        left.merge(right);
+        exact.forEach((key, count) -> assertTrue(left.estimate(key) >= count, key + " undercounted after merge"));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(candidates(left).contains("hot-" + i), "hot-" + i + " lost in merge");
+        }
+    }
+
+    @Test
+    void serializationRoundTrip() throws IOException {
+        TopKSketch sketch = new TopKSketch(DEPTH, WIDTH, CAPACITY);
+        Map<String, Long> exact = feedSkewedStream(sketch, new Random(13), 10_000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        TopKSketch restored = TopKSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(candidates(sketch), candidates(restored));
+        for (String key : exact.keySet()) {
+            assertEquals(sketch.estimate(key), restored.estimate(key));
+        }
+    }
+
+    @Test
+    void rejectsMismatchedDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSketch(0, WIDTH, CAPACITY));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TopKSketch(DEPTH, WIDTH, CAPACITY).merge(new TopKSketch(DEPTH, WIDTH * 2, CAPACITY)));
+    }
+
+    /**
+     * Ten hot keys take about half the events; the rest spread over 5,000 cold keys
+     */
+    private static Map<String, Long> feedSkewedStream(TopKSketch sketch, Random random, int events) {
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < events; i++) {
+            String key = random.nextBoolean() ? "hot-" + random.nextInt(10) : "cold-" + random.nextInt(5_000);
+            sketch.add(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+        return exact;
+    }
+
+    private static Set<String> candidates(TopKSketch sketch) {
+        Set<String> keys = new HashSet<>();
+        sketch.candidateKeys().forEach(keys::add);
+        return keys;
+    }
+}